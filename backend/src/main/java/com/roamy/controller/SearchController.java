@@ -2,33 +2,104 @@ package com.roamy.controller;
 
 import com.roamy.dto.SearchRequestDTO;
 import com.roamy.dto.SearchResponseDTO;
+import com.roamy.search.CursorPage;
+import com.roamy.search.PlaceSearch;
 import com.roamy.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/search")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = SearchController.NEXT_CURSOR_HEADER)
 public class SearchController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    /** Time on top of the section deadlines for the final events to go out. */
+    private static final long STREAM_GRACE_MS = 1_000;
+    
     private final SearchService searchService;
     
     @PostMapping("/places")
-    public ResponseEntity<SearchResponseDTO> searchPlaces(@Valid @RequestBody SearchRequestDTO searchRequest) {
+    public ResponseEntity<SearchResponseDTO> searchPlaces(
+            @Valid @RequestBody SearchRequestDTO searchRequest,
+            Authentication authentication
+    ) {
         log.info("Searching places with request: {}", searchRequest);
         
-        SearchResponseDTO response = searchService.searchPlaces(searchRequest);
+        SearchResponseDTO response = searchService.searchPlaces(searchRequest, userEmail(authentication));
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Server-Sent Events variant of {@link #searchPlaces}: emits a "destination" event first, then
+     * "hotels", "attractions" and "transport" in whatever order they finish, and a final "metadata" event.
+     * The stream times out shortly after the last section deadline; sections still running when
+     * it ends early (timeout, client gone) are cancelled.
+     */
+    @PostMapping(value = "/places/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPlaces(
+            @Valid @RequestBody SearchRequestDTO searchRequest,
+            Authentication authentication
+    ) {
+        log.info("Streaming places search with request: {}", searchRequest);
+        
+        PlaceSearch search = searchService.startPlaceSearch(searchRequest, userEmail(authentication));
+        SseEmitter emitter = new SseEmitter(search.millisUntilLastDeadline() + STREAM_GRACE_MS);
+        emitter.onTimeout(() -> {
+            log.debug("Places stream {} timed out", search.getSearchId());
+            search.cancel();
+            emitter.complete();
+        });
+        emitter.onError(error -> search.cancel());
+        emitter.onCompletion(search::cancel);
+        
+        sendEvent(emitter, "destination", search.getDestination());
+        CompletableFuture<Void> hotels = search.getHotels()
+                .thenAccept(page -> sendEvent(emitter, "hotels", page.getItems()));
+        CompletableFuture<Void> attractions = search.getAttractions()
+                .thenAccept(items -> sendEvent(emitter, "attractions", items));
+        CompletableFuture<Void> transport = search.getTransportOptions()
+                .thenAccept(items -> sendEvent(emitter, "transport", items));
+        CompletableFuture<Void> facets = search.getFacets()
+                .thenAccept(counts -> {
+                    if (counts != null) {
+                        sendEvent(emitter, "facets", counts);
+                    }
+                });
+        
+        CompletableFuture.allOf(hotels, attractions, transport, facets).whenComplete((ignored, error) -> {
+            if (error != null) {
+                // Most likely the client went away mid-stream
+                log.debug("Places stream {} ended early: {}", search.getSearchId(), error.getMessage());
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                sendEvent(emitter, "metadata", search.metadata());
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        
+        return emitter;
+    }
+    
     @GetMapping("/destinations")
     public ResponseEntity<List<SearchResponseDTO.DestinationDTO>> getAllDestinations() {
         log.info("Fetching all destinations");
@@ -47,6 +118,79 @@ public class SearchController {
         return ResponseEntity.ok(destinations);
     }
     
+    @GetMapping("/destinations/suggest")
+    public ResponseEntity<List<SearchResponseDTO.DestinationDTO>> suggestDestinations(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        List<SearchResponseDTO.DestinationDTO> suggestions = searchService.suggestDestinations(prefix, limit);
+        
+        return ResponseEntity.ok(suggestions);
+    }
+    
+    @GetMapping("/nearby/destinations")
+    public ResponseEntity<List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.DestinationDTO>>> findNearbyDestinations(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.DestinationDTO>> destinations =
+                searchService.findNearbyDestinations(lat, lng, radiusKm, limit);
+        
+        return ResponseEntity.ok(destinations);
+    }
+    
+    @GetMapping("/nearby/attractions")
+    public ResponseEntity<List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.AttractionDTO>>> findNearbyAttractions(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.AttractionDTO>> attractions =
+                searchService.findNearbyAttractions(lat, lng, radiusKm, limit);
+        
+        return ResponseEntity.ok(attractions);
+    }
+    
+    @GetMapping("/map")
+    public ResponseEntity<SearchResponseDTO.MapViewDTO> getMapClusters(
+            @RequestParam String bbox,
+            @RequestParam int zoom
+    ) {
+        SearchResponseDTO.MapViewDTO mapView = searchService.getMapClusters(bbox, zoom);
+        
+        return ResponseEntity.ok(mapView);
+    }
+    
+    @GetMapping("/attractions")
+    public ResponseEntity<List<SearchResponseDTO.AttractionDTO>> searchAttractions(
+            @RequestParam String q,
+            @RequestParam(required = false) Long destinationId,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<SearchResponseDTO.AttractionDTO> attractions = searchService.searchAttractions(q, destinationId, limit);
+        
+        return ResponseEntity.ok(attractions);
+    }
+    
+    @GetMapping("/attractions/filter")
+    public ResponseEntity<List<SearchResponseDTO.AttractionDTO>> filterAttractions(
+            @RequestParam(required = false) Long destinationId,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "false") boolean freeEntry,
+            @RequestParam(defaultValue = "false") boolean kidsFriendly,
+            @RequestParam(defaultValue = "false") boolean wheelchairAccessible,
+            @RequestParam(defaultValue = "false") boolean featured,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        List<SearchResponseDTO.AttractionDTO> attractions = searchService.filterAttractions(
+                destinationId, types, freeEntry, kidsFriendly, wheelchairAccessible, featured, limit);
+        
+        return ResponseEntity.ok(attractions);
+    }
+    
     @GetMapping("/destinations/{destinationId}/hotels")
     public ResponseEntity<List<SearchResponseDTO.HotelDTO>> getHotelsByDestination(
             @PathVariable Long destinationId,
@@ -54,25 +198,65 @@ public class SearchController {
             @RequestParam(required = false) String sortOrder,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @RequestParam(required = false) Integer minRating
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) List<String> amenities,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
         log.info("Fetching hotels for destination ID: {}", destinationId);
         
-        List<SearchResponseDTO.HotelDTO> hotels = searchService.getHotelsByDestination(
-                destinationId, sortBy, sortOrder, minPrice, maxPrice, minRating
+        CursorPage<SearchResponseDTO.HotelDTO> hotels = searchService.getHotelsByDestination(
+                destinationId, sortBy, sortOrder, minPrice, maxPrice, minRating, amenities, lat, lng, cursor, size
         );
         
-        return ResponseEntity.ok(hotels);
+        // The body stays a plain list; the continuation token travels in a header
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hotels.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, hotels.getNextCursor());
+        }
+        return response.body(hotels.getItems());
+    }
+    
+    @GetMapping("/destinations/{destinationId}/similar")
+    public ResponseEntity<List<SearchResponseDTO.DestinationDTO>> getSimilarDestinations(
+            @PathVariable Long destinationId,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        List<SearchResponseDTO.DestinationDTO> destinations = searchService.getSimilarDestinations(destinationId, limit);
+        
+        return ResponseEntity.ok(destinations);
+    }
+    
+    @GetMapping("/destinations/{destinationId}/price-calendar")
+    public ResponseEntity<SearchResponseDTO.PriceCalendarDTO> getPriceCalendar(
+            @PathVariable Long destinationId,
+            @RequestParam(required = false) Long hotelId,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "1") int nights,
+            @RequestParam(defaultValue = "1") int guests,
+            @RequestParam(defaultValue = "USD") String currency
+    ) {
+        SearchResponseDTO.PriceCalendarDTO calendar = searchService.getPriceCalendar(
+                destinationId, hotelId, month, nights, guests, currency);
+        
+        return ResponseEntity.ok(calendar);
     }
     
     @GetMapping("/destinations/{destinationId}/attractions")
     public ResponseEntity<List<SearchResponseDTO.AttractionDTO>> getAttractionsByDestination(
             @PathVariable Long destinationId,
-            @RequestParam(required = false) List<String> interests
+            @RequestParam(required = false) List<String> interests,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng
     ) {
         log.info("Fetching attractions for destination ID: {} with interests: {}", destinationId, interests);
         
-        List<SearchResponseDTO.AttractionDTO> attractions = searchService.getAttractionsByDestination(destinationId, interests);
+        List<SearchResponseDTO.AttractionDTO> attractions = searchService.getAttractionsByDestination(
+                destinationId, interests, sortBy, sortOrder, lat, lng);
         
         return ResponseEntity.ok(attractions);
     }
@@ -114,4 +298,17 @@ public class SearchController {
         
         return ResponseEntity.ok(trendingDestinations);
     }
+    
+    private String userEmail(Authentication authentication) {
+        // Search is public; anonymous requests arrive without an Authentication
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+    
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
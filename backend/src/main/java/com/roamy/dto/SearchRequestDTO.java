@@ -36,9 +36,12 @@ public class SearchRequestDTO {
     private List<String> preferredTransportTypes;
     
     // Filters
-    private String sortBy = "price"; // price, rating, distance, popularity
+    private String sortBy = "price"; // price, rating, distance, popularity, value (best price/rating/stars trade-offs only)
     private String sortOrder = "asc"; // asc, desc
+    private Double latitude; // reference point for sortBy=distance, defaults to the destination centre
+    private Double longitude;
     
     private Integer page = 0;
     private Integer size = 20;
+    private String cursor; // continuation token from the previous response's metadata.nextCursor
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -19,6 +21,7 @@ public class SearchResponseDTO {
     private List<AttractionDTO> attractions;
     private List<TransportOptionDTO> transportOptions;
     private SearchMetaDataDTO metadata;
+    private FacetsDTO facets;
     
     @Data
     @Builder
@@ -44,7 +47,7 @@ public class SearchResponseDTO {
     }
     
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class HotelDTO {
@@ -66,6 +69,7 @@ public class SearchResponseDTO {
         private List<RoomDTO> availableRooms;
         private DestinationDTO destination;
         private Boolean featured;
+        private List<String> sources;
     }
     
     @Data
@@ -148,6 +152,61 @@ public class SearchResponseDTO {
         private String currency;
     }
     
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NearbyResultDTO<T> {
+        private T item;
+        private Double distanceKm;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MapViewDTO {
+        private Double cellDegrees; // side of the grid cells the markers were clustered on
+        private List<MapClusterDTO> hotels;
+        private List<MapClusterDTO> attractions;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MapClusterDTO {
+        private Long id; // only set when the cluster is a single place
+        private Integer count;
+        private Double latitude; // centroid of the clustered places
+        private Double longitude;
+        private Map<String, BigDecimal> minPrices; // lowest price per currency code
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceCalendarDTO {
+        private Long destinationId;
+        private Long hotelId; // null for the whole destination
+        private String month; // yyyy-MM
+        private Integer nights;
+        private Integer guests;
+        private String currency;
+        private BigDecimal lowestPrice; // cheapest nightly price of the month
+        private List<PriceCalendarDayDTO> days;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceCalendarDayDTO {
+        private LocalDate checkInDate;
+        private BigDecimal price; // lowest nightly price for a stay from this date, null when nothing is free
+    }
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -161,5 +220,32 @@ public class SearchResponseDTO {
         private String sortOrder;
         private Long searchTimeMs;
         private String searchId;
+        private String nextCursor; // null on the last page
+        private List<String> degradedSections; // sections that timed out or failed and came back empty
+        private Map<String, Long> sectionTimingsMs;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetsDTO {
+        // Counts cover every catalog result matching the filters, not just the returned page
+        private Integer hotelCount;
+        private Map<String, Integer> starRatings; // star value -> hotels
+        private Map<String, Integer> amenities;
+        private List<PriceBucketDTO> priceHistogram;
+        private Integer attractionCount;
+        private Map<String, Integer> attractionTypes;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucketDTO {
+        private BigDecimal min; // inclusive
+        private BigDecimal max; // exclusive, except for the last bucket
+        private Integer count;
     }
 }
\ No newline at end of file
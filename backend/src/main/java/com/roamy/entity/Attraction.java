@@ -1,5 +1,6 @@
 package com.roamy.entity;
 
+import com.roamy.search.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(CatalogEntityListener.class)
 public class Attraction {
     
     @Id
@@ -1,5 +1,6 @@
 package com.roamy.entity;
 
+import com.roamy.search.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "rooms")
+@EntityListeners(CatalogEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,6 +19,9 @@ import java.util.*;
 @Slf4j
 public class ExternalAPIService {
     
+    /** Source name carried by hotel offers from the external hotels provider. */
+    public static final String HOTELS_SOURCE = "booking.com";
+    
     private final WebClient webClient;
     
     @Value("${external.apis.weather.api-key}")
@@ -291,6 +294,7 @@ public class ExternalAPIService {
                     .amenities(List.of("WIFI", "PARKING", "RESTAURANT"))
                     .description("Beautiful hotel in " + destination.getCity())
                     .featured(i == 0)
+                    .sources(List.of(HOTELS_SOURCE))
                     .build());
         }
         
@@ -2,7 +2,6 @@ package com.roamy.repository;
 
 import com.roamy.entity.Attraction;
 import com.roamy.entity.Destination;
-import com.roamy.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,9 +25,6 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
     @Query("SELECT a FROM Attraction a WHERE a.destination = :destination AND a.active = true ORDER BY a.popularityScore DESC")
     List<Attraction> findByDestinationOrderByPopularity(@Param("destination") Destination destination);
     
-    @Query("SELECT a FROM Attraction a JOIN a.matchingInterests i WHERE i IN :interests AND a.active = true")
-    List<Attraction> findByInterestsIn(@Param("interests") List<User.TravelInterest> interests);
-    
     @Query("SELECT a FROM Attraction a WHERE a.destination = :destination AND a.type = :type AND a.active = true")
     List<Attraction> findByDestinationAndType(@Param("destination") Destination destination,
                                               @Param("type") Attraction.AttractionType type);
@@ -48,7 +44,7 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
     @Query("SELECT a FROM Attraction a WHERE a.wheelchairAccessible = true AND a.active = true")
     List<Attraction> findAccessibleAttractions();
     
-    @Query("SELECT a FROM Attraction a WHERE a.name LIKE %:searchTerm% OR a.description LIKE %:searchTerm% AND a.active = true")
+    @Query("SELECT a FROM Attraction a WHERE (a.name LIKE %:searchTerm% OR a.description LIKE %:searchTerm%) AND a.active = true")
     List<Attraction> searchByNameOrDescription(@Param("searchTerm") String searchTerm);
     
     @Query("SELECT a FROM Attraction a WHERE a.featured = true AND a.active = true ORDER BY a.popularityScore DESC")
@@ -68,8 +64,4 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
     List<Attraction> findNearbyAttractions(@Param("latitude") BigDecimal latitude,
                                            @Param("longitude") BigDecimal longitude,
                                            @Param("radiusKm") double radiusKm);
-    
-    @Query("SELECT a FROM Attraction a JOIN a.matchingInterests i WHERE a.destination = :destination AND i IN :interests AND a.active = true")
-    List<Attraction> findByDestinationAndInterests(@Param("destination") Destination destination,
-                                                   @Param("interests") List<User.TravelInterest> interests);
 }
\ No newline at end of file
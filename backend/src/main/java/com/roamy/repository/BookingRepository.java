@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,10 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.checkInDate >= :startDate AND b.checkInDate <= :endDate")
     List<Booking> findByCheckInDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    @Query("SELECT b FROM Booking b WHERE b.type = 'HOTEL' AND b.status IN :statuses AND b.checkOutDate > :date")
+    List<Booking> findHotelStaysEndingAfter(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                            @Param("date") LocalDate date);
+    
     @Query("SELECT b FROM Booking b WHERE b.user = :user AND b.checkInDate >= :date")
     List<Booking> findUpcomingBookingsByUser(@Param("user") User user, @Param("date") LocalDate date);
     
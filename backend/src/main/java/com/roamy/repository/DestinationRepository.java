@@ -1,7 +1,6 @@
 package com.roamy.repository;
 
 import com.roamy.entity.Destination;
-import com.roamy.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,9 +26,6 @@ public interface DestinationRepository extends JpaRepository<Destination, Long>
     @Query("SELECT d FROM Destination d WHERE d.name LIKE %:searchTerm% OR d.city LIKE %:searchTerm% OR d.country LIKE %:searchTerm%")
     List<Destination> searchByNameCityOrCountry(@Param("searchTerm") String searchTerm);
     
-    @Query("SELECT d FROM Destination d JOIN d.popularInterests i WHERE i IN :interests AND d.active = true")
-    List<Destination> findByInterestsIn(@Param("interests") List<User.TravelInterest> interests);
-    
     @Query("SELECT d FROM Destination d WHERE d.budgetDailyCost <= :maxBudget AND d.active = true ORDER BY d.budgetDailyCost ASC")
     List<Destination> findByBudgetRange(@Param("maxBudget") BigDecimal maxBudget);
     
@@ -1,12 +1,14 @@
 package com.roamy.repository;
 
 import com.roamy.entity.Hotel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -44,4 +46,91 @@ public interface HotelRepository extends JpaRepository<Hotel, Long> {
     @Query("SELECT h FROM Hotel h WHERE h.destination.id = :destinationId " +
            "AND h.available = true ORDER BY h.averageRating DESC, h.pricePerNight ASC")
     List<Hotel> findByDestinationOrderByRatingAndPrice(@Param("destinationId") Long destinationId);
+    
+    // Keyset pagination: filters and ordering run in the database and each page starts strictly
+    // after the (sort key, id) of the previous page's last row, so no rows are skipped by offset.
+    // Null prices and ratings sort as zero so the key is total. When restrictToIds is set, only
+    // the given hotels qualify (pre-filtered in memory, e.g. by the amenity index). Only ids are
+    // selected; the DTOs come from the catalog read model.
+    String AVAILABLE_HOTELS_FILTER =
+           "SELECT h.id FROM Hotel h WHERE h.destination.id = :destinationId AND h.available = true " +
+           "AND (:minPrice IS NULL OR h.pricePerNight >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR h.pricePerNight <= :maxPrice) " +
+           "AND (:minRating IS NULL OR h.averageRating >= :minRating) " +
+           "AND (:restrictToIds = false OR h.id IN :hotelIds) ";
+    
+    // Every matching hotel id, for sorts ranked in memory (distance, popularity)
+    @Query(AVAILABLE_HOTELS_FILTER + "ORDER BY h.id ASC")
+    List<Long> findAvailableIds(
+        @Param("destinationId") Long destinationId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minRating") BigDecimal minRating,
+        @Param("restrictToIds") boolean restrictToIds,
+        @Param("hotelIds") Collection<Long> hotelIds
+    );
+    
+    @Query(AVAILABLE_HOTELS_FILTER +
+           "AND (:afterKey IS NULL OR COALESCE(h.pricePerNight, 0) > :afterKey " +
+           "OR (COALESCE(h.pricePerNight, 0) = :afterKey AND h.id > :afterId)) " +
+           "ORDER BY COALESCE(h.pricePerNight, 0) ASC, h.id ASC")
+    List<Long> findPageOrderByPriceAsc(
+        @Param("destinationId") Long destinationId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minRating") BigDecimal minRating,
+        @Param("restrictToIds") boolean restrictToIds,
+        @Param("hotelIds") Collection<Long> hotelIds,
+        @Param("afterKey") BigDecimal afterKey,
+        @Param("afterId") Long afterId,
+        Pageable limit
+    );
+    
+    @Query(AVAILABLE_HOTELS_FILTER +
+           "AND (:afterKey IS NULL OR COALESCE(h.pricePerNight, 0) < :afterKey " +
+           "OR (COALESCE(h.pricePerNight, 0) = :afterKey AND h.id < :afterId)) " +
+           "ORDER BY COALESCE(h.pricePerNight, 0) DESC, h.id DESC")
+    List<Long> findPageOrderByPriceDesc(
+        @Param("destinationId") Long destinationId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minRating") BigDecimal minRating,
+        @Param("restrictToIds") boolean restrictToIds,
+        @Param("hotelIds") Collection<Long> hotelIds,
+        @Param("afterKey") BigDecimal afterKey,
+        @Param("afterId") Long afterId,
+        Pageable limit
+    );
+    
+    @Query(AVAILABLE_HOTELS_FILTER +
+           "AND (:afterKey IS NULL OR COALESCE(h.averageRating, 0) > :afterKey " +
+           "OR (COALESCE(h.averageRating, 0) = :afterKey AND h.id > :afterId)) " +
+           "ORDER BY COALESCE(h.averageRating, 0) ASC, h.id ASC")
+    List<Long> findPageOrderByRatingAsc(
+        @Param("destinationId") Long destinationId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minRating") BigDecimal minRating,
+        @Param("restrictToIds") boolean restrictToIds,
+        @Param("hotelIds") Collection<Long> hotelIds,
+        @Param("afterKey") BigDecimal afterKey,
+        @Param("afterId") Long afterId,
+        Pageable limit
+    );
+    
+    @Query(AVAILABLE_HOTELS_FILTER +
+           "AND (:afterKey IS NULL OR COALESCE(h.averageRating, 0) < :afterKey " +
+           "OR (COALESCE(h.averageRating, 0) = :afterKey AND h.id < :afterId)) " +
+           "ORDER BY COALESCE(h.averageRating, 0) DESC, h.id DESC")
+    List<Long> findPageOrderByRatingDesc(
+        @Param("destinationId") Long destinationId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minRating") BigDecimal minRating,
+        @Param("restrictToIds") boolean restrictToIds,
+        @Param("hotelIds") Collection<Long> hotelIds,
+        @Param("afterKey") BigDecimal afterKey,
+        @Param("afterId") Long afterId,
+        Pageable limit
+    );
 }
\ No newline at end of file
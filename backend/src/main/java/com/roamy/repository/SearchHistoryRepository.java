@@ -2,6 +2,7 @@ package com.roamy.repository;
 
 import com.roamy.entity.SearchHistory;
 import com.roamy.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -48,6 +49,10 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
     @Query("SELECT s.toLocation, COUNT(s) FROM SearchHistory s WHERE s.searchDate >= :since GROUP BY s.toLocation ORDER BY COUNT(s) DESC")
     List<Object[]> getTrendingDestinations(@Param("since") LocalDateTime since);
     
+    // Keyset-paged on id: pass the last id of the previous page as afterId
+    @Query("SELECT s.id, s.toLocation, s.searchDate FROM SearchHistory s WHERE s.searchDate >= :since AND s.id > :afterId ORDER BY s.id")
+    List<Object[]> findSearchTimesSince(@Param("since") LocalDateTime since, @Param("afterId") long afterId, Pageable limit);
+    
     @Query("SELECT AVG(s.maxBudget - s.minBudget) FROM SearchHistory s WHERE s.minBudget IS NOT NULL AND s.maxBudget IS NOT NULL")
     Double getAverageBudgetRange();
 }
\ No newline at end of file
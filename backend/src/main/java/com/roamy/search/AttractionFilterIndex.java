@@ -0,0 +1,208 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.repository.AttractionRepository;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitmaps over active attractions for each boolean attribute (free entry, kids friendly,
+ * wheelchair accessible, featured), each attraction type and each destination. Attractions are
+ * held in dense slots in id order, so any combination of filters is a handful of word-wise
+ * {@link BitSet} intersections and the surviving slots come back already sorted by id.
+ *
+ * The bitmaps are rebuilt and swapped copy-on-write when an attraction changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttractionFilterIndex {
+    
+    private static final Attraction.AttractionType[] TYPES = Attraction.AttractionType.values();
+    
+    private final AttractionRepository attractionRepository;
+    
+    private volatile Snapshot snapshot = Snapshot.of(Map.of());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Flags> attractions = new HashMap<>();
+        for (Attraction attraction : attractionRepository.findByActiveTrue()) {
+            attractions.put(attraction.getId(), Flags.of(attraction));
+        }
+        snapshot = Snapshot.of(attractions);
+        log.info("Attraction filter index built with {} attractions", attractions.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        if (!(event.getEntity() instanceof Attraction attraction) || attraction.getId() == null) {
+            return;
+        }
+        
+        Map<Long, Flags> attractions = new HashMap<>(snapshot.attractions);
+        attractions.remove(attraction.getId());
+        if (!event.isRemoval() && Boolean.TRUE.equals(attraction.getActive())) {
+            attractions.put(attraction.getId(), Flags.of(attraction));
+        }
+        snapshot = Snapshot.of(attractions);
+    }
+    
+    /**
+     * Returns the ids (ascending) of active attractions meeting every criterion that is set.
+     */
+    public long[] matching(Criteria criteria) {
+        Snapshot current = snapshot;
+        BitSet result = new BitSet(current.ids.length);
+        result.set(0, current.ids.length);
+        
+        if (criteria.getDestinationId() != null) {
+            result.and(current.byDestination.getOrDefault(criteria.getDestinationId(), new BitSet()));
+        }
+        if (criteria.getTypes() != null && !criteria.getTypes().isEmpty()) {
+            // Types are alternatives: union them first, then intersect with the rest
+            BitSet anyType = new BitSet(current.ids.length);
+            for (Attraction.AttractionType type : criteria.getTypes()) {
+                anyType.or(current.byType[type.ordinal()]);
+            }
+            result.and(anyType);
+        }
+        if (criteria.isFreeEntry()) {
+            result.and(current.freeEntry);
+        }
+        if (criteria.isKidsFriendly()) {
+            result.and(current.kidsFriendly);
+        }
+        if (criteria.isWheelchairAccessible()) {
+            result.and(current.wheelchairAccessible);
+        }
+        if (criteria.isFeatured()) {
+            result.and(current.featured);
+        }
+        
+        long[] ids = new long[result.cardinality()];
+        int count = 0;
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            ids[count++] = current.ids[slot];
+        }
+        return ids;
+    }
+    
+    /**
+     * Parses attraction type names as they arrive in requests, ignoring case; rejects unknown
+     * names so a typo does not silently widen the filter.
+     */
+    public static Set<Attraction.AttractionType> parseTypes(List<String> typeNames) {
+        Set<Attraction.AttractionType> types = EnumSet.noneOf(Attraction.AttractionType.class);
+        if (typeNames != null) {
+            for (String name : typeNames) {
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                try {
+                    types.add(Attraction.AttractionType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown attraction type: " + name);
+                }
+            }
+        }
+        return types;
+    }
+    
+    /**
+     * Attribute filter; unset flags and an empty type set do not restrict the result.
+     */
+    @Value
+    @Builder
+    public static class Criteria {
+        Long destinationId;
+        Set<Attraction.AttractionType> types;
+        boolean freeEntry;
+        boolean kidsFriendly;
+        boolean wheelchairAccessible;
+        boolean featured;
+    }
+    
+    private static final class Flags {
+        
+        private final Long destinationId;
+        private final Attraction.AttractionType type;
+        private final boolean freeEntry;
+        private final boolean kidsFriendly;
+        private final boolean wheelchairAccessible;
+        private final boolean featured;
+        
+        private Flags(Long destinationId, Attraction.AttractionType type, boolean freeEntry,
+                      boolean kidsFriendly, boolean wheelchairAccessible, boolean featured) {
+            this.destinationId = destinationId;
+            this.type = type;
+            this.freeEntry = freeEntry;
+            this.kidsFriendly = kidsFriendly;
+            this.wheelchairAccessible = wheelchairAccessible;
+            this.featured = featured;
+        }
+        
+        private static Flags of(Attraction attraction) {
+            return new Flags(
+                    attraction.getDestination() != null ? attraction.getDestination().getId() : null,
+                    attraction.getType(),
+                    Boolean.TRUE.equals(attraction.getFreeEntry()),
+                    Boolean.TRUE.equals(attraction.getKidsFriendly()),
+                    Boolean.TRUE.equals(attraction.getWheelchairAccessible()),
+                    Boolean.TRUE.equals(attraction.getFeatured()));
+        }
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, Flags> attractions;
+        private final long[] ids;
+        private final BitSet freeEntry = new BitSet();
+        private final BitSet kidsFriendly = new BitSet();
+        private final BitSet wheelchairAccessible = new BitSet();
+        private final BitSet featured = new BitSet();
+        private final BitSet[] byType = new BitSet[TYPES.length];
+        private final Map<Long, BitSet> byDestination = new HashMap<>();
+        
+        private Snapshot(Map<Long, Flags> attractions, long[] ids) {
+            this.attractions = attractions;
+            this.ids = ids;
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] = new BitSet();
+            }
+        }
+        
+        private static Snapshot of(Map<Long, Flags> attractions) {
+            long[] ids = attractions.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            Snapshot snapshot = new Snapshot(attractions, ids);
+            for (int slot = 0; slot < ids.length; slot++) {
+                Flags flags = attractions.get(ids[slot]);
+                snapshot.freeEntry.set(slot, flags.freeEntry);
+                snapshot.kidsFriendly.set(slot, flags.kidsFriendly);
+                snapshot.wheelchairAccessible.set(slot, flags.wheelchairAccessible);
+                snapshot.featured.set(slot, flags.featured);
+                if (flags.type != null) {
+                    snapshot.byType[flags.type.ordinal()].set(slot);
+                }
+                if (flags.destinationId != null) {
+                    snapshot.byDestination.computeIfAbsent(flags.destinationId, id -> new BitSet()).set(slot);
+                }
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.repository.AttractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Relevance-ranked full-text search over active attractions, backed by a {@link BM25Index}
+ * on name, type and description. Loaded once the application is ready and updated entry by
+ * entry through {@link CatalogChangeEvent}s, so attraction text search never issues
+ * leading-wildcard LIKE scans over description columns.
+ *
+ * Writers are serialized: a change that commits while a rebuild is loading waits for it and is
+ * applied to the new index rather than lost with the old one. The lock only covers the swap
+ * and single-entry updates, so searches keep running against the current index during a load.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttractionTextIndex {
+    
+    // A name word counts like three description words, a type word like two
+    private static final int NAME_WEIGHT = 3;
+    private static final int TYPE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    
+    private final AttractionRepository attractionRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BM25Index index = newIndex();
+    private Map<Long, Long> destinationIds = new HashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        BM25Index rebuilt = newIndex();
+        Map<Long, Long> loaded = new HashMap<>();
+        
+        for (Attraction attraction : attractionRepository.findByActiveTrue()) {
+            put(rebuilt, loaded, attraction);
+        }
+        
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            destinationIds = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Attraction text index built with {} attractions", rebuilt.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        if (!(event.getEntity() instanceof Attraction attraction) || attraction.getId() == null) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (event.isRemoval() || !Boolean.TRUE.equals(attraction.getActive())) {
+                index.remove(attraction.getId());
+                destinationIds.remove(attraction.getId());
+            } else {
+                put(index, destinationIds, attraction);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the ids of up to {@code limit} attractions matching any query word, most relevant
+     * first. When {@code destinationId} is given, only that destination's attractions are ranked.
+     */
+    public List<Long> search(String query, Long destinationId, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> destinations = destinationIds;
+            return index.search(query, limit,
+                            id -> destinationId == null || destinationId.equals(destinations.get(id)))
+                    .stream()
+                    .map(BM25Index.Hit::getId)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void put(BM25Index index, Map<Long, Long> destinationIds, Attraction attraction) {
+        String type = attraction.getType() != null ? attraction.getType().name().replace('_', ' ') : null;
+        index.put(attraction.getId(), attraction.getName(), type, attraction.getDescription());
+        destinationIds.put(attraction.getId(),
+                attraction.getDestination() != null ? attraction.getDestination().getId() : null);
+    }
+    
+    private static BM25Index newIndex() {
+        return new BM25Index(NAME_WEIGHT, TYPE_WEIGHT, DESCRIPTION_WEIGHT);
+    }
+}
@@ -0,0 +1,198 @@
+package com.roamy.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable Burkhard-Keller tree over normalized terms, keyed by Levenshtein distance.
+ * Every child edge is labelled with its distance to the parent term, so by the triangle
+ * inequality a query within {@code n} edits of some term only needs to descend into children
+ * whose label is within {@code n} of the query's distance to the parent. A typo lookup touches
+ * a small fraction of the terms instead of comparing against all of them.
+ *
+ * Instances are built once through {@link Builder} and are safe to share between threads.
+ */
+public class BKTree {
+    
+    private final Node root;
+    
+    private BKTree(Node root) {
+        this.root = root;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static BKTree empty() {
+        return builder().build();
+    }
+    
+    /**
+     * Returns the terms within {@code maxDistance} edits of the query, closest first.
+     */
+    public List<Match> search(String query, int maxDistance) {
+        String term = PrefixTrie.normalize(query);
+        if (root == null || term.isEmpty() || maxDistance < 0) {
+            return List.of();
+        }
+        
+        List<Match> matches = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = levenshtein(term, node.term);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.term, distance, node.ids));
+            }
+            for (int i = 0; i < node.childDistances.length; i++) {
+                if (Math.abs(node.childDistances[i] - distance) <= maxDistance) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getTerm));
+        return matches;
+    }
+    
+    static int levenshtein(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        
+        // Two rows over the shorter string are enough for the distance alone
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+    
+    public static final class Match {
+        
+        private final String term;
+        private final int distance;
+        private final long[] ids;
+        
+        private Match(String term, int distance, long[] ids) {
+            this.term = term;
+            this.distance = distance;
+            this.ids = ids;
+        }
+        
+        public String getTerm() {
+            return term;
+        }
+        
+        public int getDistance() {
+            return distance;
+        }
+        
+        public long[] getIds() {
+            return ids.clone();
+        }
+    }
+    
+    private static final class Node {
+        
+        private final String term;
+        private final long[] ids;
+        private final int[] childDistances;
+        private final Node[] children;
+        
+        private Node(String term, long[] ids, int[] childDistances, Node[] children) {
+            this.term = term;
+            this.ids = ids;
+            this.childDistances = childDistances;
+            this.children = children;
+        }
+    }
+    
+    public static final class Builder {
+        
+        private final Map<String, List<Long>> idsByTerm = new LinkedHashMap<>();
+        
+        private Builder() {
+        }
+        
+        public Builder add(String term, long id) {
+            String key = PrefixTrie.normalize(term);
+            if (!key.isEmpty()) {
+                List<Long> ids = idsByTerm.computeIfAbsent(key, k -> new ArrayList<>());
+                if (!ids.contains(id)) {
+                    ids.add(id);
+                }
+            }
+            return this;
+        }
+        
+        public BKTree build() {
+            MutableNode root = null;
+            for (Map.Entry<String, List<Long>> entry : idsByTerm.entrySet()) {
+                MutableNode node = new MutableNode(entry.getKey(),
+                        entry.getValue().stream().mapToLong(Long::longValue).toArray());
+                if (root == null) {
+                    root = node;
+                } else {
+                    root.insert(node);
+                }
+            }
+            return new BKTree(root != null ? root.freeze() : null);
+        }
+    }
+    
+    private static final class MutableNode {
+        
+        private final String term;
+        private final long[] ids;
+        private final Map<Integer, MutableNode> children = new HashMap<>();
+        
+        private MutableNode(String term, long[] ids) {
+            this.term = term;
+            this.ids = ids;
+        }
+        
+        private void insert(MutableNode node) {
+            MutableNode parent = this;
+            while (true) {
+                int distance = levenshtein(node.term, parent.term);
+                MutableNode child = parent.children.get(distance);
+                if (child == null) {
+                    parent.children.put(distance, node);
+                    return;
+                }
+                parent = child;
+            }
+        }
+        
+        private Node freeze() {
+            int[] distances = children.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            Node[] frozen = new Node[distances.length];
+            for (int i = 0; i < distances.length; i++) {
+                frozen[i] = children.get(distances[i]).freeze();
+            }
+            return new Node(term, ids, distances, frozen);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.roamy.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index ranking entries by Okapi BM25 over a few text fields of differing weight.
+ * A field's weight multiplies its term frequencies and its contribution to the entry length,
+ * so a word in a name counts like several in a description. Queries only touch the postings
+ * of their own terms, so the cost depends on how common the query words are rather than on
+ * how much text has been indexed.
+ *
+ * Not thread-safe: callers must guard concurrent reads and writes.
+ */
+public class BM25Index {
+    
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "from", "in", "into", "is", "it",
+            "its", "of", "on", "or", "the", "to", "with");
+    
+    private final int[] fieldWeights;
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long totalLength;
+    
+    /**
+     * @param fieldWeights weight of each field, in the order fields are passed to {@link #put}
+     */
+    public BM25Index(int... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+    
+    /**
+     * Indexes (or re-indexes) the given fields under the entry id.
+     */
+    public void put(long id, String... fields) {
+        remove(id);
+        
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (int i = 0; i < fields.length && i < fieldWeights.length; i++) {
+            for (String term : tokenize(fields[i])) {
+                frequencies.merge(term, fieldWeights[i], Integer::sum);
+                length += fieldWeights[i];
+            }
+        }
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+        entries.put(id, new Entry(length, frequencies.keySet().toArray(new String[0])));
+        totalLength += length;
+    }
+    
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        
+        for (String term : entry.terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= entry.length;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Returns up to {@code limit} entries matching at least one query term and accepted by the
+     * filter, highest BM25 score first; equal scores keep the lower id first.
+     */
+    public List<Hit> search(String query, int limit, LongPredicate filter) {
+        if (entries.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        int documents = entries.size();
+        double averageLength = (double) totalLength / documents;
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            
+            double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+            posting.forEach((id, frequency) -> {
+                if (filter.test(id)) {
+                    double norm = K1 * (1 - B + B * entries.get(id).length / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            });
+        }
+        
+        // Candidates in id order so TopK's lower-index tie-break is a lower-id tie-break
+        long[] ids = scores.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        double[] values = new double[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = scores.get(ids[i]);
+        }
+        
+        List<Hit> hits = new ArrayList<>();
+        for (int index : TopK.select(values, limit)) {
+            hits.add(new Hit(ids[index], values[index]));
+        }
+        return hits;
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : NON_WORD.split(TextNormalizer.fold(text))) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+    
+    public static final class Hit {
+        
+        private final long id;
+        private final double score;
+        
+        private Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final int length;
+        private final String[] terms;
+        
+        private Entry(int length, String[] terms) {
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.roamy.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a catalog entity (destination, hotel, attraction, room) or a booking is
+ * written through JPA, so that in-memory read models can update themselves without polling
+ * the database.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CatalogChangeEvent {
+    
+    private final Object entity;
+    private final ChangeType changeType;
+    
+    public boolean isRemoval() {
+        return changeType == ChangeType.REMOVED;
+    }
+    
+    public enum ChangeType {
+        SAVED, REMOVED
+    }
+}
@@ -0,0 +1,88 @@
+package com.roamy.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands catalog changes to an index on a background thread. Changes are queued as they commit
+ * and applied in one batch a short delay after the first of them, so a burst of writes costs a
+ * single index build and the thread committing the transaction never builds one.
+ *
+ * Batches keep the commit order and are applied one at a time. Until a batch is applied, reads
+ * see the index as it was before those changes. A batch that fails is not dropped: the index is
+ * rebuilt from the catalog instead, and that rebuild is retried until it succeeds, so the index
+ * never stays out of step with the catalog.
+ */
+@Slf4j
+public final class CatalogChangeQueue {
+    
+    private static final long RETRY_DELAY_MS = 30_000;
+    
+    private final String name;
+    private final long delayMs;
+    private final Consumer<List<CatalogChangeEvent>> apply;
+    private final Runnable rebuild;
+    private final ScheduledExecutorService executor;
+    private final List<CatalogChangeEvent> queued = new ArrayList<>();
+    
+    /**
+     * @param apply   applies one batch of changes to the index
+     * @param rebuild rebuilds the whole index from the catalog, used when a batch fails
+     */
+    public CatalogChangeQueue(String name, Duration delay, Consumer<List<CatalogChangeEvent>> apply, Runnable rebuild) {
+        this.name = name;
+        this.delayMs = delay.toMillis();
+        this.apply = apply;
+        this.rebuild = rebuild;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void add(CatalogChangeEvent event) {
+        boolean first;
+        synchronized (queued) {
+            first = queued.isEmpty();
+            queued.add(event);
+        }
+        if (first) {
+            executor.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void drain() {
+        List<CatalogChangeEvent> batch;
+        synchronized (queued) {
+            batch = new ArrayList<>(queued);
+            queued.clear();
+        }
+        try {
+            apply.accept(batch);
+        } catch (RuntimeException e) {
+            log.warn("Applying {} catalog changes to the {} index failed, rebuilding it: {}", batch.size(), name, e.getMessage());
+            recover();
+        }
+    }
+    
+    private void recover() {
+        try {
+            rebuild.run();
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the {} index failed, retrying in {} ms: {}", name, RETRY_DELAY_MS, e.getMessage());
+            executor.schedule(this::recover, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.roamy.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns catalog writes into {@link CatalogChangeEvent}s.
+ * Spring Boot registers Hibernate's bean container, so this listener is a regular Spring bean.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        eventPublisher.publishEvent(new CatalogChangeEvent(entity, CatalogChangeEvent.ChangeType.SAVED));
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new CatalogChangeEvent(entity, CatalogChangeEvent.ChangeType.REMOVED));
+    }
+}
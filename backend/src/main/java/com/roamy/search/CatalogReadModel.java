@@ -0,0 +1,309 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.entity.Hotel;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import com.roamy.repository.HotelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-built response DTOs for every destination, hotel and attraction in the catalog. Read
+ * paths look DTOs up by id instead of mapping entities on each request, and hotels share the
+ * destination DTO they embed instead of copying it per hotel.
+ *
+ * The DTOs are shared between requests and must be treated as read-only; their lists are
+ * unmodifiable. A change to a catalog entity replaces the affected DTOs in a new snapshot,
+ * which is published with a single volatile write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogReadModel {
+    
+    /** Source name carried by hotel offers that come from the catalog. */
+    public static final String SOURCE = "catalog";
+    
+    private final DestinationRepository destinationRepository;
+    private final HotelRepository hotelRepository;
+    private final AttractionRepository attractionRepository;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of(), Map.of(), Map.of());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, SearchResponseDTO.DestinationDTO> destinations = new HashMap<>();
+        List<Long> activeDestinationIds = new ArrayList<>();
+        for (Destination destination : destinationRepository.findAll()) {
+            destinations.put(destination.getId(), toDestinationDTO(destination));
+            if (Boolean.TRUE.equals(destination.getActive())) {
+                activeDestinationIds.add(destination.getId());
+            }
+        }
+        
+        Map<Long, SearchResponseDTO.HotelDTO> hotels = new HashMap<>();
+        for (Hotel hotel : hotelRepository.findAll()) {
+            hotels.put(hotel.getId(), toHotelDTO(hotel, destinationOf(hotel, destinations)));
+        }
+        
+        Map<Long, SearchResponseDTO.AttractionDTO> attractions = new HashMap<>();
+        for (Attraction attraction : attractionRepository.findAll()) {
+            attractions.put(attraction.getId(), toAttractionDTO(attraction));
+        }
+        
+        snapshot = new Snapshot(destinations, activeDestinations(activeDestinationIds, destinations), hotels, attractions);
+        log.info("Catalog read model built with {} destinations, {} hotels and {} attractions",
+                destinations.size(), hotels.size(), attractions.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        Snapshot current = snapshot;
+        if (event.getEntity() instanceof Destination destination && destination.getId() != null) {
+            Map<Long, SearchResponseDTO.DestinationDTO> destinations = new HashMap<>(current.destinations);
+            List<Long> activeDestinationIds = current.activeDestinations.stream()
+                    .map(SearchResponseDTO.DestinationDTO::getId)
+                    .filter(id -> !id.equals(destination.getId()))
+                    .collect(Collectors.toList());
+            SearchResponseDTO.DestinationDTO updated = null;
+            if (event.isRemoval()) {
+                destinations.remove(destination.getId());
+            } else {
+                updated = toDestinationDTO(destination);
+                destinations.put(destination.getId(), updated);
+                if (Boolean.TRUE.equals(destination.getActive())) {
+                    activeDestinationIds.add(destination.getId());
+                }
+            }
+            
+            // Hotels embed their destination, so re-point the ones that belong to it
+            Map<Long, SearchResponseDTO.HotelDTO> hotels = new HashMap<>(current.hotels);
+            for (SearchResponseDTO.HotelDTO hotel : current.hotels.values()) {
+                if (hotel.getDestination() != null && destination.getId().equals(hotel.getDestination().getId())) {
+                    hotels.put(hotel.getId(), hotel.toBuilder().destination(updated).build());
+                }
+            }
+            
+            snapshot = new Snapshot(destinations, activeDestinations(activeDestinationIds, destinations), hotels, current.attractions);
+        } else if (event.getEntity() instanceof Hotel hotel && hotel.getId() != null) {
+            Map<Long, SearchResponseDTO.HotelDTO> hotels = new HashMap<>(current.hotels);
+            if (event.isRemoval()) {
+                hotels.remove(hotel.getId());
+            } else {
+                hotels.put(hotel.getId(), toHotelDTO(hotel, destinationOf(hotel, current.destinations)));
+            }
+            snapshot = new Snapshot(current.destinations, current.activeDestinations, hotels, current.attractions);
+        } else if (event.getEntity() instanceof Attraction attraction && attraction.getId() != null) {
+            Map<Long, SearchResponseDTO.AttractionDTO> attractions = new HashMap<>(current.attractions);
+            if (event.isRemoval()) {
+                attractions.remove(attraction.getId());
+            } else {
+                attractions.put(attraction.getId(), toAttractionDTO(attraction));
+            }
+            snapshot = new Snapshot(current.destinations, current.activeDestinations, current.hotels, attractions);
+        }
+    }
+    
+    /**
+     * Active destinations ordered by id.
+     */
+    public List<SearchResponseDTO.DestinationDTO> activeDestinations() {
+        return snapshot.activeDestinations;
+    }
+    
+    public SearchResponseDTO.DestinationDTO destination(Destination destination) {
+        SearchResponseDTO.DestinationDTO dto = destination.getId() != null ? snapshot.destinations.get(destination.getId()) : null;
+        // Destinations not (yet) in the catalog, e.g. built from external data, are mapped on the spot
+        return dto != null ? dto : toDestinationDTO(destination);
+    }
+    
+    /**
+     * Destination DTOs in the order of the given ids, skipping ids not in the catalog.
+     */
+    public List<SearchResponseDTO.DestinationDTO> destinations(List<Long> ids) {
+        Map<Long, SearchResponseDTO.DestinationDTO> destinations = snapshot.destinations;
+        return ids.stream()
+                .map(destinations::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    public SearchResponseDTO.HotelDTO hotel(Hotel hotel) {
+        Snapshot current = snapshot;
+        SearchResponseDTO.HotelDTO dto = hotel.getId() != null ? current.hotels.get(hotel.getId()) : null;
+        return dto != null ? dto : toHotelDTO(hotel, destinationOf(hotel, current.destinations));
+    }
+    
+    public SearchResponseDTO.AttractionDTO attraction(Attraction attraction) {
+        SearchResponseDTO.AttractionDTO dto = attraction.getId() != null ? snapshot.attractions.get(attraction.getId()) : null;
+        return dto != null ? dto : toAttractionDTO(attraction);
+    }
+    
+    /**
+     * Hotel DTOs in the order of the given ids. Ids missing from the snapshot (a hotel saved a
+     * moment ago) are loaded from the database.
+     */
+    public List<SearchResponseDTO.HotelDTO> hotels(List<Long> ids) {
+        Map<Long, SearchResponseDTO.HotelDTO> hotels = snapshot.hotels;
+        List<Long> missing = ids.stream().filter(id -> !hotels.containsKey(id)).collect(Collectors.toList());
+        Map<Long, SearchResponseDTO.HotelDTO> loaded = missing.isEmpty() ? Map.of()
+                : hotelRepository.findAllById(missing).stream().map(this::hotel)
+                        .collect(Collectors.toMap(SearchResponseDTO.HotelDTO::getId, dto -> dto));
+        return ids.stream()
+                .map(id -> hotels.containsKey(id) ? hotels.get(id) : loaded.get(id))
+                .filter(dto -> dto != null)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Attraction DTOs in the order of the given ids, loading any missing from the snapshot.
+     */
+    public List<SearchResponseDTO.AttractionDTO> attractions(List<Long> ids) {
+        Map<Long, SearchResponseDTO.AttractionDTO> attractions = snapshot.attractions;
+        List<Long> missing = ids.stream().filter(id -> !attractions.containsKey(id)).collect(Collectors.toList());
+        Map<Long, SearchResponseDTO.AttractionDTO> loaded = missing.isEmpty() ? Map.of()
+                : attractionRepository.findAllById(missing).stream().map(this::attraction)
+                        .collect(Collectors.toMap(SearchResponseDTO.AttractionDTO::getId, dto -> dto));
+        return ids.stream()
+                .map(id -> attractions.containsKey(id) ? attractions.get(id) : loaded.get(id))
+                .filter(dto -> dto != null)
+                .collect(Collectors.toList());
+    }
+    
+    private static SearchResponseDTO.DestinationDTO destinationOf(Hotel hotel, Map<Long, SearchResponseDTO.DestinationDTO> destinations) {
+        if (hotel.getDestination() == null) {
+            return null;
+        }
+        // Only the id is read, so a lazy destination proxy is never initialized
+        SearchResponseDTO.DestinationDTO dto = destinations.get(hotel.getDestination().getId());
+        return dto != null ? dto : toDestinationDTO(hotel.getDestination());
+    }
+    
+    private static List<SearchResponseDTO.DestinationDTO> activeDestinations(
+            List<Long> ids, Map<Long, SearchResponseDTO.DestinationDTO> destinations) {
+        return ids.stream()
+                .sorted(Comparator.naturalOrder())
+                .map(destinations::get)
+                .collect(Collectors.toUnmodifiableList());
+    }
+    
+    private static SearchResponseDTO.DestinationDTO toDestinationDTO(Destination destination) {
+        return SearchResponseDTO.DestinationDTO.builder()
+                .id(destination.getId())
+                .name(destination.getName())
+                .city(destination.getCity())
+                .country(destination.getCountry())
+                .countryCode(destination.getCountryCode())
+                .latitude(destination.getLatitude())
+                .longitude(destination.getLongitude())
+                .description(destination.getDescription())
+                .imageUrl(destination.getImageUrl())
+                .popularInterests(names(destination.getPopularInterests()))
+                .averageRating(destination.getAverageRating())
+                .totalReviews(destination.getTotalReviews())
+                .timeZone(destination.getTimeZone())
+                .climate(destination.getClimate())
+                .bestTimeToVisit(destination.getBestTimeToVisit())
+                .pricing(SearchResponseDTO.PricingDTO.builder()
+                        .budgetDailyCost(destination.getBudgetDailyCost())
+                        .midRangeDailyCost(destination.getMidRangeDailyCost())
+                        .luxuryDailyCost(destination.getLuxuryDailyCost())
+                        .currency("USD")
+                        .build())
+                .build();
+    }
+    
+    private static SearchResponseDTO.HotelDTO toHotelDTO(Hotel hotel, SearchResponseDTO.DestinationDTO destination) {
+        return SearchResponseDTO.HotelDTO.builder()
+                .id(hotel.getId())
+                .name(hotel.getName())
+                .address(hotel.getAddress())
+                .latitude(hotel.getLatitude())
+                .longitude(hotel.getLongitude())
+                .description(hotel.getDescription())
+                .imageUrls(copyOf(hotel.getImageUrls()))
+                .starRating(hotel.getStarRating() != null ? hotel.getStarRating().getValue() : null)
+                .amenities(names(hotel.getAmenities()))
+                .pricePerNight(hotel.getPricePerNight())
+                .currency(hotel.getCurrency())
+                .averageRating(hotel.getAverageRating())
+                .totalReviews(hotel.getTotalReviews())
+                .phoneNumber(hotel.getPhoneNumber())
+                .website(hotel.getWebsite())
+                .featured(hotel.getFeatured())
+                .destination(destination)
+                .sources(List.of(SOURCE))
+                .build();
+    }
+    
+    private static SearchResponseDTO.AttractionDTO toAttractionDTO(Attraction attraction) {
+        return SearchResponseDTO.AttractionDTO.builder()
+                .id(attraction.getId())
+                .name(attraction.getName())
+                .description(attraction.getDescription())
+                .address(attraction.getAddress())
+                .latitude(attraction.getLatitude())
+                .longitude(attraction.getLongitude())
+                .type(attraction.getType() != null ? attraction.getType().name() : null)
+                .matchingInterests(names(attraction.getMatchingInterests()))
+                .imageUrls(copyOf(attraction.getImageUrls()))
+                .entryFee(attraction.getEntryFee())
+                .currency(attraction.getCurrency())
+                .freeEntry(attraction.getFreeEntry())
+                .openingHours(attraction.getOpeningHours())
+                .operatingDays(attraction.getOperatingDays())
+                .averageRating(attraction.getAverageRating())
+                .totalReviews(attraction.getTotalReviews())
+                .wheelchairAccessible(attraction.getWheelchairAccessible())
+                .kidsFriendly(attraction.getKidsFriendly())
+                .recommendedDurationHours(attraction.getRecommendedDurationHours())
+                .bestTimeToVisit(attraction.getBestTimeToVisit())
+                .build();
+    }
+    
+    private static List<String> names(Collection<? extends Enum<?>> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().map(Enum::name).collect(Collectors.toUnmodifiableList());
+    }
+    
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? Collections.unmodifiableList(new ArrayList<>(values)) : null;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, SearchResponseDTO.DestinationDTO> destinations;
+        private final List<SearchResponseDTO.DestinationDTO> activeDestinations;
+        private final Map<Long, SearchResponseDTO.HotelDTO> hotels;
+        private final Map<Long, SearchResponseDTO.AttractionDTO> attractions;
+        
+        private Snapshot(Map<Long, SearchResponseDTO.DestinationDTO> destinations,
+                         List<SearchResponseDTO.DestinationDTO> activeDestinations,
+                         Map<Long, SearchResponseDTO.HotelDTO> hotels,
+                         Map<Long, SearchResponseDTO.AttractionDTO> attractions) {
+            this.destinations = destinations;
+            this.activeDestinations = activeDestinations;
+            this.hotels = hotels;
+            this.attractions = attractions;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.roamy.search;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+@Getter
+public class CursorPage<T> {
+    
+    private final List<T> items;
+    private final String nextCursor;
+    
+    @JsonCreator
+    public CursorPage(@JsonProperty("items") List<T> items, @JsonProperty("nextCursor") String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    /**
+     * Ranks the candidates by one scorer and returns the page after the cursor, selecting it with
+     * a bounded heap instead of sorting every candidate. Candidates must be in id order, which
+     * breaks ties. The cursor holds the raw score of the last row, not a score scaled across the
+     * candidates, so hotels added or removed between requests do not move the page boundary.
+     */
+    public static <T> CursorPage<T> ranked(List<T> candidates, Scorer<T> scorer, ToLongFunction<T> id,
+                                           String sort, PageCursor after, int pageSize) {
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            // Missing values score negative infinity, which a cursor cannot hold; the lowest
+            // finite score ranks them just as last
+            scores[i] = Math.max(scorer.score(candidates.get(i)), -Double.MAX_VALUE);
+        }
+        
+        double afterScore = after != null ? after.getSortKey().doubleValue() : 0;
+        long afterId = after != null ? after.getId() : 0;
+        int[] ranked = TopK.select(scores, pageSize + 1, i -> after == null
+                || scores[i] < afterScore
+                || (scores[i] == afterScore && id.applyAsLong(candidates.get(i)) > afterId));
+        
+        List<T> page = new ArrayList<>();
+        for (int i = 0; i < Math.min(ranked.length, pageSize); i++) {
+            page.add(candidates.get(ranked[i]));
+        }
+        if (ranked.length <= pageSize) {
+            return new CursorPage<>(page, null);
+        }
+        int last = ranked[pageSize - 1];
+        return new CursorPage<>(page,
+                new PageCursor(sort, BigDecimal.valueOf(scores[last]), id.applyAsLong(candidates.get(last))).encode());
+    }
+}
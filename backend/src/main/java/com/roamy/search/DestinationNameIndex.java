@@ -0,0 +1,155 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Exact destination lookup by any spelling of its name: accents and case are folded by
+ * {@link TextNormalizer}, a destination is also found by its city, and configured aliases
+ * (old names and exonyms such as Bombay or Saigon) point at the canonical destination.
+ * Each lookup is a single hash probe.
+ *
+ * Aliases come from {@code search.destinations.aliases} as comma-separated
+ * {@code alias=canonical} pairs, where the canonical side is a destination name or city.
+ * The maps are swapped copy-on-write when destinations change, in batches applied off the
+ * request path by a {@link CatalogChangeQueue}.
+ */
+@Component
+@Slf4j
+public class DestinationNameIndex implements DisposableBean {
+    
+    private final DestinationRepository destinationRepository;
+    private final Map<String, String> aliases;
+    private final CatalogChangeQueue changes;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+    
+    public DestinationNameIndex(DestinationRepository destinationRepository,
+                                @Value("${search.destinations.aliases:}") List<String> aliases,
+                                @Value("${search.index.update-delay:500ms}") Duration updateDelay) {
+        this.destinationRepository = destinationRepository;
+        this.aliases = parseAliases(aliases);
+        this.changes = new CatalogChangeQueue("destination-name", updateDelay, this::apply, this::rebuild);
+    }
+    
+    // Built before other startup listeners, such as the trending seed, resolve names through it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void rebuild() {
+        Map<Long, Destination> destinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findAll()) {
+            destinations.put(destination.getId(), destination);
+        }
+        snapshot = Snapshot.of(destinations, aliases);
+        log.info("Destination name index built with {} destinations and {} aliases",
+                destinations.size(), aliases.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntity() instanceof Destination destination && destination.getId() != null) {
+            changes.add(event);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        changes.shutdown();
+    }
+    
+    synchronized void apply(List<CatalogChangeEvent> batch) {
+        Map<Long, Destination> destinations = new HashMap<>(snapshot.destinations);
+        for (CatalogChangeEvent event : batch) {
+            Destination destination = (Destination) event.getEntity();
+            if (event.isRemoval()) {
+                destinations.remove(destination.getId());
+            } else {
+                destinations.put(destination.getId(), destination);
+            }
+        }
+        snapshot = Snapshot.of(destinations, aliases);
+    }
+    
+    /**
+     * Returns the destination whose name, city or alias matches the given text after folding.
+     * A name match wins over a city match, which wins over an alias.
+     */
+    public Optional<Destination> find(String name) {
+        Snapshot current = snapshot;
+        Long id = current.idsByKey.get(TextNormalizer.fold(name));
+        return id != null ? Optional.ofNullable(current.destinations.get(id)) : Optional.empty();
+    }
+    
+    private static Map<String, String> parseAliases(List<String> entries) {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        if (entries == null) {
+            return aliases;
+        }
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                if (!entry.isBlank()) {
+                    log.warn("Ignoring destination alias '{}' without '='", entry);
+                }
+                continue;
+            }
+            String alias = TextNormalizer.fold(entry.substring(0, separator));
+            String canonical = TextNormalizer.fold(entry.substring(separator + 1));
+            if (!alias.isEmpty() && !canonical.isEmpty()) {
+                aliases.put(alias, canonical);
+            }
+        }
+        return aliases;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, Destination> destinations;
+        private final Map<String, Long> idsByKey;
+        
+        private Snapshot(Map<Long, Destination> destinations, Map<String, Long> idsByKey) {
+            this.destinations = destinations;
+            this.idsByKey = idsByKey;
+        }
+        
+        private static Snapshot of(Map<Long, Destination> destinations, Map<String, String> aliases) {
+            // Lower ids first, so when two destinations share a city the older one keeps it
+            List<Destination> ordered = destinations.values().stream()
+                    .sorted(Comparator.comparing(Destination::getId))
+                    .toList();
+            
+            Map<String, Long> idsByKey = new HashMap<>();
+            for (Destination destination : ordered) {
+                idsByKey.putIfAbsent(TextNormalizer.fold(destination.getName()), destination.getId());
+            }
+            for (Destination destination : ordered) {
+                idsByKey.putIfAbsent(TextNormalizer.fold(destination.getCity()), destination.getId());
+            }
+            aliases.forEach((alias, canonical) -> {
+                Long id = idsByKey.get(canonical);
+                if (id != null) {
+                    idsByKey.putIfAbsent(alias, id);
+                }
+            });
+            idsByKey.remove("");
+            return new Snapshot(destinations, idsByKey);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.roamy.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roamy.entity.Destination;
+import com.roamy.external.ExternalAPIService;
+import com.roamy.repository.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves a free-text search location to a destination, geocoding and saving places that are
+ * not in the catalog yet.
+ *
+ * Lookups are single-flight per normalized name: concurrent first searches for the same place
+ * share one geocoding call and one insert instead of each creating a duplicate. Names that fail
+ * to geocode are remembered for a while, so a typo is answered locally instead of hitting the
+ * geocoder on every request.
+ */
+@Component
+@Slf4j
+public class DestinationResolver {
+    
+    private final DestinationRepository destinationRepository;
+    private final DestinationNameIndex destinationNameIndex;
+    private final ExternalAPIService externalAPIService;
+    private final ConcurrentMap<String, CompletableFuture<Destination>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> notGeocoded;
+    
+    public DestinationResolver(DestinationRepository destinationRepository,
+                               DestinationNameIndex destinationNameIndex,
+                               ExternalAPIService externalAPIService,
+                               @Value("${search.destinations.negative-ttl:30m}") Duration negativeTtl,
+                               @Value("${search.destinations.negative-max-entries:10000}") long negativeMaxEntries) {
+        this.destinationRepository = destinationRepository;
+        this.destinationNameIndex = destinationNameIndex;
+        this.externalAPIService = externalAPIService;
+        this.notGeocoded = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(negativeMaxEntries)
+                .build();
+    }
+    
+    /**
+     * Returns the catalog destination with this name, creating it from geocoding data when it
+     * does not exist. A name that cannot be geocoded yields an unsaved placeholder destination
+     * (no id), so misspelt searches do not add catalog entries.
+     */
+    public Destination resolve(String locationName) {
+        if (locationName == null || locationName.isBlank()) {
+            throw new IllegalArgumentException("Destination is required");
+        }
+        
+        String name = locationName.trim().replaceAll("\\s+", " ");
+        Optional<Destination> existing = destinationNameIndex.find(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        
+        String key = TextNormalizer.fold(name);
+        if (notGeocoded.getIfPresent(key) != null) {
+            return placeholder(name);
+        }
+        
+        CompletableFuture<Destination> flight = new CompletableFuture<>();
+        CompletableFuture<Destination> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(running);
+        }
+        
+        try {
+            flight.complete(lookupOrCreate(name, key));
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+        return await(flight);
+    }
+    
+    private Destination lookupOrCreate(String name, String key) {
+        // Another flight may have saved it between our first lookup and taking the flight, before
+        // its change event reached the name index
+        Optional<Destination> existing = destinationRepository.findByNameIgnoreCase(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        
+        Optional<Destination> geocoded = externalAPIService.getDestinationInfo(name);
+        if (geocoded.isPresent()) {
+            Destination saved = destinationRepository.save(geocoded.get());
+            log.info("Created destination {} (id {}) from geocoding data", saved.getName(), saved.getId());
+            return saved;
+        }
+        
+        notGeocoded.put(key, Boolean.TRUE);
+        log.info("Could not geocode '{}', not retrying for a while", name);
+        return placeholder(name);
+    }
+    
+    private static Destination await(CompletableFuture<Destination> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static Destination placeholder(String name) {
+        return Destination.builder()
+                .name(name)
+                .city(name)
+                .country("Unknown")
+                .active(true)
+                .build();
+    }
+}
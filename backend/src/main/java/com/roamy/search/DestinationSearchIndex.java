@@ -0,0 +1,141 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory substring search over destination name, city and country.
+ * Loaded once the application is ready and kept current through {@link CatalogChangeEvent}s,
+ * so destination lookups never issue leading-wildcard LIKE scans against the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DestinationSearchIndex {
+    
+    private final DestinationRepository destinationRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NGramIndex index = new NGramIndex();
+    private Map<Long, Destination> destinations = new HashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        NGramIndex rebuilt = new NGramIndex();
+        Map<Long, Destination> loaded = new HashMap<>();
+        
+        for (Destination destination : destinationRepository.findAll()) {
+            loaded.put(destination.getId(), destination);
+            rebuilt.put(destination.getId(), destination.getName(), destination.getCity(), destination.getCountry());
+        }
+        
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            destinations = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Destination search index built with {} destinations", loaded.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!(event.getEntity() instanceof Destination destination) || destination.getId() == null) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (event.isRemoval()) {
+                index.remove(destination.getId());
+                destinations.remove(destination.getId());
+            } else {
+                index.put(destination.getId(), destination.getName(), destination.getCity(), destination.getCountry());
+                destinations.put(destination.getId(), destination);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds destinations whose name, city or country contains the query (case-insensitive).
+     * Exact matches come first, then prefix matches, then the rest; ties are broken by popularity.
+     */
+    public List<Destination> search(String query) {
+        String term = NGramIndex.normalize(query);
+        List<Destination> matches = new ArrayList<>();
+        
+        lock.readLock().lock();
+        try {
+            for (Long id : index.search(term)) {
+                matches.add(destinations.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        matches.sort(Comparator
+                .comparingInt((Destination d) -> matchRank(d, term))
+                .thenComparing(d -> d.getPopularityScore() != null ? d.getPopularityScore() : 0, Comparator.reverseOrder())
+                .thenComparing(Destination::getId));
+        return matches;
+    }
+    
+    public Optional<Destination> get(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(destinations.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns up to {@code limit} active destinations with the highest catalog popularity score.
+     */
+    public List<Destination> mostPopular(int limit) {
+        lock.readLock().lock();
+        try {
+            return destinations.values().stream()
+                    .filter(d -> Boolean.TRUE.equals(d.getActive()))
+                    .sorted(Comparator
+                            .comparing((Destination d) -> d.getPopularityScore() != null ? d.getPopularityScore() : 0, Comparator.reverseOrder())
+                            .thenComparing(Destination::getId))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int matchRank(Destination destination, String term) {
+        int rank = 2;
+        for (String field : new String[]{destination.getName(), destination.getCity(), destination.getCountry()}) {
+            String normalized = NGramIndex.normalize(field);
+            if (normalized.equals(term)) {
+                return 0;
+            }
+            if (normalized.startsWith(term)) {
+                rank = 1;
+            }
+        }
+        return rank;
+    }
+}
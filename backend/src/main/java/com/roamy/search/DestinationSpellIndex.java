@@ -0,0 +1,131 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "Did you mean" over active destination names, cities and countries, served from an
+ * immutable {@link BKTree}. A misspelt search such as "Barcelna" is answered with the nearby
+ * catalog names instead of a round-trip to the external geocoder. Destination changes are
+ * applied in batches off the request path by a {@link CatalogChangeQueue}.
+ */
+@Component
+@Slf4j
+public class DestinationSpellIndex implements DisposableBean {
+    
+    public static final int MAX_SUGGESTIONS = 5;
+    
+    private final DestinationRepository destinationRepository;
+    private final CatalogChangeQueue changes;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), BKTree.empty());
+    
+    public DestinationSpellIndex(DestinationRepository destinationRepository,
+                                 @Value("${search.index.update-delay:500ms}") Duration updateDelay) {
+        this.destinationRepository = destinationRepository;
+        this.changes = new CatalogChangeQueue("destination-spell", updateDelay, this::apply, this::rebuild);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Destination> destinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findByActiveTrue()) {
+            destinations.put(destination.getId(), destination);
+        }
+        snapshot = Snapshot.of(destinations);
+        log.info("Destination spell index built with {} destinations", destinations.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntity() instanceof Destination destination && destination.getId() != null) {
+            changes.add(event);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        changes.shutdown();
+    }
+    
+    synchronized void apply(List<CatalogChangeEvent> batch) {
+        Map<Long, Destination> destinations = new HashMap<>(snapshot.destinations);
+        for (CatalogChangeEvent event : batch) {
+            Destination destination = (Destination) event.getEntity();
+            if (event.isRemoval() || !Boolean.TRUE.equals(destination.getActive())) {
+                destinations.remove(destination.getId());
+            } else {
+                destinations.put(destination.getId(), destination);
+            }
+        }
+        snapshot = Snapshot.of(destinations);
+    }
+    
+    /**
+     * Returns up to {@code limit} destinations whose name, city or country is within a few edits
+     * of the query, closest first. Short queries allow fewer edits, so "Rom" does not turn into
+     * every three-letter place in the catalog.
+     */
+    public List<Destination> didYouMean(String query, int limit) {
+        String term = PrefixTrie.normalize(query);
+        Snapshot current = snapshot;
+        Set<Long> ids = new LinkedHashSet<>();
+        for (BKTree.Match match : current.tree.search(term, maxDistance(term.length()))) {
+            for (long id : match.getIds()) {
+                ids.add(id);
+            }
+        }
+        
+        List<Destination> suggestions = new ArrayList<>();
+        for (Long id : ids) {
+            if (suggestions.size() >= Math.min(limit, MAX_SUGGESTIONS)) {
+                break;
+            }
+            suggestions.add(current.destinations.get(id));
+        }
+        return suggestions;
+    }
+    
+    static int maxDistance(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length <= 6 ? 1 : 2;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, Destination> destinations;
+        private final BKTree tree;
+        
+        private Snapshot(Map<Long, Destination> destinations, BKTree tree) {
+            this.destinations = destinations;
+            this.tree = tree;
+        }
+        
+        private static Snapshot of(Map<Long, Destination> destinations) {
+            BKTree.Builder builder = BKTree.builder();
+            for (Destination destination : destinations.values()) {
+                builder.add(destination.getName(), destination.getId())
+                        .add(destination.getCity(), destination.getId())
+                        .add(destination.getCountry(), destination.getId());
+            }
+            return new Snapshot(destinations, builder.build());
+        }
+    }
+}
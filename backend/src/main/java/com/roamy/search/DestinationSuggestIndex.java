@@ -0,0 +1,111 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead over active destinations, served from an immutable {@link PrefixTrie}.
+ * Destination changes are applied in batches off the request path by a
+ * {@link CatalogChangeQueue}, and each new trie is published with a single volatile write,
+ * so readers never block.
+ */
+@Component
+@Slf4j
+public class DestinationSuggestIndex implements DisposableBean {
+    
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    private final DestinationRepository destinationRepository;
+    private final CatalogChangeQueue changes;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), PrefixTrie.empty(MAX_SUGGESTIONS));
+    
+    public DestinationSuggestIndex(DestinationRepository destinationRepository,
+                                   @Value("${search.index.update-delay:500ms}") Duration updateDelay) {
+        this.destinationRepository = destinationRepository;
+        this.changes = new CatalogChangeQueue("destination-suggest", updateDelay, this::apply, this::rebuild);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Destination> destinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findByActiveTrue()) {
+            destinations.put(destination.getId(), destination);
+        }
+        snapshot = Snapshot.of(destinations);
+        log.info("Destination suggest index built with {} destinations", destinations.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntity() instanceof Destination destination && destination.getId() != null) {
+            changes.add(event);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        changes.shutdown();
+    }
+    
+    synchronized void apply(List<CatalogChangeEvent> batch) {
+        Map<Long, Destination> destinations = new HashMap<>(snapshot.destinations);
+        for (CatalogChangeEvent event : batch) {
+            Destination destination = (Destination) event.getEntity();
+            if (event.isRemoval() || !Boolean.TRUE.equals(destination.getActive())) {
+                destinations.remove(destination.getId());
+            } else {
+                destinations.put(destination.getId(), destination);
+            }
+        }
+        snapshot = Snapshot.of(destinations);
+    }
+    
+    /**
+     * Returns up to {@code limit} destinations whose name, city or country has a word starting
+     * with the prefix, most popular first.
+     */
+    public List<Destination> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        List<Destination> suggestions = new ArrayList<>();
+        for (long id : current.trie.lookup(prefix, Math.min(limit, MAX_SUGGESTIONS))) {
+            suggestions.add(current.destinations.get(id));
+        }
+        return suggestions;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, Destination> destinations;
+        private final PrefixTrie trie;
+        
+        private Snapshot(Map<Long, Destination> destinations, PrefixTrie trie) {
+            this.destinations = destinations;
+            this.trie = trie;
+        }
+        
+        private static Snapshot of(Map<Long, Destination> destinations) {
+            PrefixTrie.Builder builder = PrefixTrie.builder(MAX_SUGGESTIONS);
+            for (Destination destination : destinations.values()) {
+                long score = destination.getPopularityScore() != null ? destination.getPopularityScore() : 0;
+                builder.add(destination.getName(), destination.getId(), score)
+                        .add(destination.getCity(), destination.getId(), score)
+                        .add(destination.getCountry(), destination.getId(), score);
+            }
+            return new Snapshot(destinations, builder.build());
+        }
+    }
+}
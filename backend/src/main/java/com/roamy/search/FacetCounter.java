@@ -0,0 +1,166 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Hotel;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates filter counts for a search in one pass over its candidates. Star ratings,
+ * amenities and attraction types are counted into arrays indexed by enum ordinal; amenities
+ * arrive as the bitmask from {@link HotelAmenityIndex}, so counting them only walks set bits.
+ * Prices are collected into a primitive array and bucketed once the range is known.
+ *
+ * Not thread-safe; use one counter per search.
+ */
+public class FacetCounter {
+    
+    private static final int PRICE_BUCKETS = 5;
+    private static final Hotel.StarRating[] STAR_RATINGS = Hotel.StarRating.values();
+    private static final Hotel.Amenity[] AMENITIES = Hotel.Amenity.values();
+    private static final Attraction.AttractionType[] ATTRACTION_TYPES = Attraction.AttractionType.values();
+    private static final long AMENITY_BITS = AMENITIES.length >= Long.SIZE ? -1L : (1L << AMENITIES.length) - 1;
+    
+    private final int[] starCounts = new int[STAR_RATINGS.length];
+    private final int[] amenityCounts = new int[AMENITIES.length];
+    private final int[] attractionTypeCounts = new int[ATTRACTION_TYPES.length];
+    private double[] prices = new double[16];
+    private int priceCount;
+    private double minPrice = Double.POSITIVE_INFINITY;
+    private double maxPrice = Double.NEGATIVE_INFINITY;
+    private int hotelCount;
+    private int attractionCount;
+    
+    public void addHotel(Integer starRating, long amenityMask, BigDecimal pricePerNight) {
+        hotelCount++;
+        if (starRating != null && starRating >= 1 && starRating <= STAR_RATINGS.length) {
+            // StarRating declares ONE..FIVE in order, so the value maps straight to the ordinal
+            starCounts[starRating - 1]++;
+        }
+        // Bits past the last amenity carry no meaning and are not counted
+        for (long bits = amenityMask & AMENITY_BITS; bits != 0; bits &= bits - 1) {
+            amenityCounts[Long.numberOfTrailingZeros(bits)]++;
+        }
+        if (pricePerNight != null) {
+            double price = pricePerNight.doubleValue();
+            if (priceCount == prices.length) {
+                prices = Arrays.copyOf(prices, priceCount * 2);
+            }
+            prices[priceCount++] = price;
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+        }
+    }
+    
+    public void addAttraction(String type) {
+        attractionCount++;
+        if (type == null) {
+            return;
+        }
+        try {
+            attractionTypeCounts[Attraction.AttractionType.valueOf(type).ordinal()]++;
+        } catch (IllegalArgumentException e) {
+            // Provider-specific type with no catalog equivalent
+        }
+    }
+    
+    public SearchResponseDTO.FacetsDTO toDTO() {
+        Map<String, Integer> stars = new LinkedHashMap<>();
+        for (int i = 0; i < starCounts.length; i++) {
+            if (starCounts[i] > 0) {
+                stars.put(Integer.toString(STAR_RATINGS[i].getValue()), starCounts[i]);
+            }
+        }
+        
+        return SearchResponseDTO.FacetsDTO.builder()
+                .hotelCount(hotelCount)
+                .starRatings(stars)
+                .amenities(nonZero(amenityCounts, AMENITIES))
+                .priceHistogram(priceHistogram())
+                .attractionCount(attractionCount)
+                .attractionTypes(nonZero(attractionTypeCounts, ATTRACTION_TYPES))
+                .build();
+    }
+    
+    private List<SearchResponseDTO.PriceBucketDTO> priceHistogram() {
+        if (priceCount == 0) {
+            return List.of();
+        }
+        
+        // Equal-width buckets on a rounded grid, so edges read like 100-150 rather than 97.3-148.1.
+        // Rounding the width up leaves room for at most one bucket more than asked for.
+        double width = niceWidth((maxPrice - minPrice) / PRICE_BUCKETS);
+        double start = Math.floor(minPrice / width) * width;
+        BigDecimal[] edges = new BigDecimal[PRICE_BUCKETS + 2];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = price(start + i * width);
+        }
+        
+        int bucketCount = bucket(maxPrice, start, width, edges) + 1;
+        int[] counts = new int[bucketCount];
+        for (int i = 0; i < priceCount; i++) {
+            counts[bucket(prices[i], start, width, edges)]++;
+        }
+        
+        List<SearchResponseDTO.PriceBucketDTO> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(SearchResponseDTO.PriceBucketDTO.builder()
+                    .min(edges[i])
+                    .max(edges[i + 1])
+                    .count(counts[i])
+                    .build());
+        }
+        return buckets;
+    }
+    
+    /**
+     * The bucket whose reported edges hold the price. Dividing by the width can land a price
+     * that sits on an edge, such as 0.6 with a width of 0.2, one bucket low, so the estimate is
+     * checked against the rounded edges.
+     */
+    private static int bucket(double price, double start, double width, BigDecimal[] edges) {
+        int last = edges.length - 2;
+        int bucket = Math.max(0, Math.min(last, (int) ((price - start) / width)));
+        while (bucket > 0 && price < edges[bucket].doubleValue()) {
+            bucket--;
+        }
+        while (bucket < last && price >= edges[bucket + 1].doubleValue()) {
+            bucket++;
+        }
+        return bucket;
+    }
+    
+    /**
+     * Rounds a bucket width up to 1, 2 or 5 times a power of ten.
+     */
+    private static double niceWidth(double rawWidth) {
+        if (rawWidth <= 0) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rawWidth)));
+        double fraction = rawWidth / magnitude;
+        double nice = fraction <= 1 ? 1 : fraction <= 2 ? 2 : fraction <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+    
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static <E extends Enum<E>> Map<String, Integer> nonZero(int[] counts, E[] values) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facet.put(values[i].name(), counts[i]);
+            }
+        }
+        return facet;
+    }
+}
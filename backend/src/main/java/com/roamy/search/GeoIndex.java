@@ -0,0 +1,289 @@
+package com.roamy.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable k-d tree over latitude/longitude points with a bounding box per node.
+ * Queries use great-circle distances and a conservative box-to-point lower bound that is
+ * aware of the antimeridian, so nearest-neighbour and radius searches only visit the few
+ * nodes that can contain a closer point.
+ */
+public final class GeoIndex {
+    
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    
+    private static final int LEAF_SIZE = 8;
+    
+    private final long[] ids;
+    private final double[] lats;
+    private final double[] lons;
+    
+    // Node layout: points [start, end) of the permuted arrays, children -1 for leaves
+    private final int[] nodeStart;
+    private final int[] nodeEnd;
+    private final int[] nodeLeft;
+    private final int[] nodeRight;
+    private final double[] nodeMinLat;
+    private final double[] nodeMaxLat;
+    private final double[] nodeMinLon;
+    private final double[] nodeMaxLon;
+    private int nodeCount;
+    
+    private GeoIndex(long[] ids, double[] lats, double[] lons) {
+        this.ids = ids;
+        this.lats = lats;
+        this.lons = lons;
+        
+        int maxNodes = Math.max(1, 2 * (ids.length / LEAF_SIZE + 1) * 2);
+        this.nodeStart = new int[maxNodes];
+        this.nodeEnd = new int[maxNodes];
+        this.nodeLeft = new int[maxNodes];
+        this.nodeRight = new int[maxNodes];
+        this.nodeMinLat = new double[maxNodes];
+        this.nodeMaxLat = new double[maxNodes];
+        this.nodeMinLon = new double[maxNodes];
+        this.nodeMaxLon = new double[maxNodes];
+        if (ids.length > 0) {
+            buildNode(0, ids.length);
+        }
+    }
+    
+    /**
+     * Builds an index over the given points. The arrays are copied, so callers may reuse them.
+     */
+    public static GeoIndex build(long[] ids, double[] lats, double[] lons) {
+        if (ids.length != lats.length || ids.length != lons.length) {
+            throw new IllegalArgumentException("ids, latitudes and longitudes must have the same length");
+        }
+        return new GeoIndex(ids.clone(), lats.clone(), lons.clone());
+    }
+    
+    public static GeoIndex empty() {
+        return build(new long[0], new double[0], new double[0]);
+    }
+    
+    public int size() {
+        return ids.length;
+    }
+    
+    /**
+     * Returns up to {@code limit} points closest to the given position, nearest first, ignoring
+     * points further away than {@code maxDistanceKm}. Covers both k-nearest and radius queries.
+     */
+    public List<Hit> nearest(double lat, double lon, int limit, double maxDistanceKm) {
+        List<Hit> result = new ArrayList<>();
+        if (ids.length == 0 || limit <= 0) {
+            return result;
+        }
+        
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::getDistanceKm).reversed());
+        PriorityQueue<double[]> frontier = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        frontier.add(new double[]{lowerBoundKm(0, lat, lon), 0});
+        
+        while (!frontier.isEmpty()) {
+            double[] entry = frontier.poll();
+            double bound = entry[0];
+            if (bound > maxDistanceKm || (best.size() == limit && bound > best.peek().getDistanceKm())) {
+                break;
+            }
+            
+            int node = (int) entry[1];
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++) {
+                    double distance = distanceKm(lat, lon, lats[i], lons[i]);
+                    if (distance > maxDistanceKm) {
+                        continue;
+                    }
+                    if (best.size() < limit) {
+                        best.add(new Hit(ids[i], distance));
+                    } else if (distance < best.peek().getDistanceKm()) {
+                        best.poll();
+                        best.add(new Hit(ids[i], distance));
+                    }
+                }
+            } else {
+                frontier.add(new double[]{lowerBoundKm(nodeLeft[node], lat, lon), nodeLeft[node]});
+                frontier.add(new double[]{lowerBoundKm(nodeRight[node], lat, lon), nodeRight[node]});
+            }
+        }
+        
+        result.addAll(best);
+        result.sort(Comparator.comparingDouble(Hit::getDistanceKm).thenComparingLong(Hit::getId));
+        return result;
+    }
+    
+    /**
+     * Calls the visitor for every point inside the box, in no particular order. A box whose
+     * {@code minLon} is greater than its {@code maxLon} crosses the antimeridian.
+     */
+    public void forEachWithin(double minLat, double maxLat, double minLon, double maxLon, PointVisitor visitor) {
+        if (ids.length == 0) {
+            return;
+        }
+        
+        int[] stack = new int[nodeCount];
+        int size = 0;
+        stack[size++] = 0;
+        while (size > 0) {
+            int node = stack[--size];
+            if (nodeMaxLat[node] < minLat || nodeMinLat[node] > maxLat
+                    || !overlapsLon(nodeMinLon[node], nodeMaxLon[node], minLon, maxLon)) {
+                continue;
+            }
+            
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeStart[node]; i < nodeEnd[node]; i++) {
+                    if (lats[i] >= minLat && lats[i] <= maxLat && overlapsLon(lons[i], lons[i], minLon, maxLon)) {
+                        visitor.visit(ids[i], lats[i], lons[i]);
+                    }
+                }
+            } else {
+                stack[size++] = nodeLeft[node];
+                stack[size++] = nodeRight[node];
+            }
+        }
+    }
+    
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    /**
+     * Smallest possible great-circle distance from the position to any point in the node's box.
+     * Uses the larger of the latitude gap and the distance to the nearest bounding meridian.
+     */
+    private double lowerBoundKm(int node, double lat, double lon) {
+        double latGap = lat < nodeMinLat[node] ? nodeMinLat[node] - lat
+                : lat > nodeMaxLat[node] ? lat - nodeMaxLat[node] : 0;
+        
+        double lonGap = 0;
+        if (lon < nodeMinLon[node] || lon > nodeMaxLon[node]) {
+            lonGap = Math.min(circularGap(lon, nodeMinLon[node]), circularGap(lon, nodeMaxLon[node]));
+        }
+        double lonBound = Math.asin(Math.cos(Math.toRadians(lat)) * Math.sin(Math.toRadians(Math.min(lonGap, 90))));
+        
+        return EARTH_RADIUS_KM * Math.max(Math.toRadians(latGap), lonBound);
+    }
+    
+    private static boolean overlapsLon(double low, double high, double minLon, double maxLon) {
+        if (minLon <= maxLon) {
+            return high >= minLon && low <= maxLon;
+        }
+        return high >= minLon || low <= maxLon;
+    }
+    
+    private static double circularGap(double a, double b) {
+        double gap = Math.abs(a - b) % 360;
+        return gap > 180 ? 360 - gap : gap;
+    }
+    
+    private int buildNode(int start, int end) {
+        int node = nodeCount++;
+        nodeStart[node] = start;
+        nodeEnd[node] = end;
+        
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+        }
+        nodeMinLat[node] = minLat;
+        nodeMaxLat[node] = maxLat;
+        nodeMinLon[node] = minLon;
+        nodeMaxLon[node] = maxLon;
+        
+        if (end - start <= LEAF_SIZE) {
+            nodeLeft[node] = -1;
+            nodeRight[node] = -1;
+            return node;
+        }
+        
+        double lonSpread = (maxLon - minLon) * Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        boolean splitOnLat = maxLat - minLat >= lonSpread;
+        int middle = (start + end) >>> 1;
+        select(start, end - 1, middle, splitOnLat);
+        
+        nodeLeft[node] = buildNode(start, middle);
+        nodeRight[node] = buildNode(middle, end);
+        return node;
+    }
+    
+    /**
+     * Quickselect: partially orders [low, high] so position k holds its sorted value on the axis.
+     */
+    private void select(int low, int high, int k, boolean onLat) {
+        while (low < high) {
+            double pivot = coordinate((low + high) >>> 1, onLat);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (coordinate(i, onLat) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, onLat) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private double coordinate(int index, boolean onLat) {
+        return onLat ? lats[index] : lons[index];
+    }
+    
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double lat = lats[a];
+        lats[a] = lats[b];
+        lats[b] = lat;
+        double lon = lons[a];
+        lons[a] = lons[b];
+        lons[b] = lon;
+    }
+    
+    @FunctionalInterface
+    public interface PointVisitor {
+        void visit(long id, double lat, double lon);
+    }
+    
+    public static final class Hit {
+        
+        private final long id;
+        private final double distanceKm;
+        
+        public Hit(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
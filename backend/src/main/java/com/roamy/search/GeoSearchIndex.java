@@ -0,0 +1,235 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.entity.Hotel;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import com.roamy.repository.HotelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * "Near me" lookups over active destinations and attractions, and map viewport clustering of
+ * available hotels and active attractions, answered from in-memory {@link GeoIndex} trees
+ * instead of the native haversine queries in the repositories. Catalog changes are applied in
+ * batches off the request path by a {@link CatalogChangeQueue}; each batch rebuilds the trees
+ * of the entity kinds it touches once, copy-on-write.
+ */
+@Component
+@Slf4j
+public class GeoSearchIndex implements DisposableBean {
+    
+    private final DestinationRepository destinationRepository;
+    private final AttractionRepository attractionRepository;
+    private final HotelRepository hotelRepository;
+    private final CatalogChangeQueue changes;
+    
+    private volatile Layer<Destination> destinations = Layer.empty();
+    private volatile Layer<Attraction> attractions = Layer.empty();
+    private volatile Layer<Hotel> hotels = Layer.empty();
+    
+    public GeoSearchIndex(DestinationRepository destinationRepository, AttractionRepository attractionRepository,
+                          HotelRepository hotelRepository,
+                          @Value("${search.index.update-delay:500ms}") Duration updateDelay) {
+        this.destinationRepository = destinationRepository;
+        this.attractionRepository = attractionRepository;
+        this.hotelRepository = hotelRepository;
+        this.changes = new CatalogChangeQueue("geo", updateDelay, this::apply, this::rebuild);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Destination> loadedDestinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findByActiveTrue()) {
+            loadedDestinations.put(destination.getId(), destination);
+        }
+        
+        Map<Long, Attraction> loadedAttractions = new HashMap<>();
+        for (Attraction attraction : attractionRepository.findByActiveTrue()) {
+            loadedAttractions.put(attraction.getId(), attraction);
+        }
+        
+        Map<Long, Hotel> loadedHotels = new HashMap<>();
+        for (Hotel hotel : hotelRepository.findAll()) {
+            if (Boolean.TRUE.equals(hotel.getAvailable())) {
+                loadedHotels.put(hotel.getId(), hotel);
+            }
+        }
+        
+        destinations = Layer.of(loadedDestinations, Destination::getLatitude, Destination::getLongitude);
+        attractions = Layer.of(loadedAttractions, Attraction::getLatitude, Attraction::getLongitude);
+        hotels = Layer.of(loadedHotels, Hotel::getLatitude, Hotel::getLongitude);
+        log.info("Geo index built with {} destinations, {} attractions and {} hotels",
+                destinations.index.size(), attractions.index.size(), hotels.index.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        Object entity = event.getEntity();
+        if ((entity instanceof Destination destination && destination.getId() != null)
+                || (entity instanceof Attraction attraction && attraction.getId() != null)
+                || (entity instanceof Hotel hotel && hotel.getId() != null)) {
+            changes.add(event);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        changes.shutdown();
+    }
+    
+    synchronized void apply(List<CatalogChangeEvent> batch) {
+        // Latest state per entity; null removes it from its tree
+        Map<Long, Destination> changedDestinations = new HashMap<>();
+        Map<Long, Attraction> changedAttractions = new HashMap<>();
+        Map<Long, Hotel> changedHotels = new HashMap<>();
+        for (CatalogChangeEvent event : batch) {
+            if (event.getEntity() instanceof Destination destination) {
+                boolean keep = !event.isRemoval() && Boolean.TRUE.equals(destination.getActive());
+                changedDestinations.put(destination.getId(), keep ? destination : null);
+            } else if (event.getEntity() instanceof Attraction attraction) {
+                boolean keep = !event.isRemoval() && Boolean.TRUE.equals(attraction.getActive());
+                changedAttractions.put(attraction.getId(), keep ? attraction : null);
+            } else if (event.getEntity() instanceof Hotel hotel) {
+                boolean keep = !event.isRemoval() && Boolean.TRUE.equals(hotel.getAvailable());
+                changedHotels.put(hotel.getId(), keep ? hotel : null);
+            }
+        }
+        
+        destinations = destinations.with(changedDestinations, Destination::getLatitude, Destination::getLongitude);
+        attractions = attractions.with(changedAttractions, Attraction::getLatitude, Attraction::getLongitude);
+        hotels = hotels.with(changedHotels, Hotel::getLatitude, Hotel::getLongitude);
+    }
+    
+    public List<Nearby<Destination>> nearbyDestinations(double latitude, double longitude, int limit, double maxDistanceKm) {
+        return destinations.nearest(latitude, longitude, limit, maxDistanceKm);
+    }
+    
+    public List<Nearby<Attraction>> nearbyAttractions(double latitude, double longitude, int limit, double maxDistanceKm) {
+        return attractions.nearest(latitude, longitude, limit, maxDistanceKm);
+    }
+    
+    /**
+     * Available hotels inside the viewport, clustered for the zoom level; prices are per night.
+     */
+    public List<MarkerGrid.Cluster> clusterHotels(MarkerGrid.Viewport viewport, int zoom) {
+        return hotels.cluster(viewport, MarkerGrid.forViewport(viewport, zoom), Hotel::getPricePerNight, Hotel::getCurrency);
+    }
+    
+    /**
+     * Active attractions inside the viewport, clustered for the zoom level; prices are entry
+     * fees, zero for free entry.
+     */
+    public List<MarkerGrid.Cluster> clusterAttractions(MarkerGrid.Viewport viewport, int zoom) {
+        return attractions.cluster(viewport, MarkerGrid.forViewport(viewport, zoom), attraction -> Boolean.TRUE.equals(attraction.getFreeEntry())
+                ? BigDecimal.ZERO : attraction.getEntryFee(), Attraction::getCurrency);
+    }
+    
+    /**
+     * An entity paired with its great-circle distance from the query position.
+     */
+    public static final class Nearby<T> {
+        
+        private final T item;
+        private final double distanceKm;
+        
+        private Nearby(T item, double distanceKm) {
+            this.item = item;
+            this.distanceKm = distanceKm;
+        }
+        
+        public T getItem() {
+            return item;
+        }
+        
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+    
+    /**
+     * Immutable pairing of the entities of one kind with the tree built over their coordinates.
+     */
+    private static final class Layer<T> {
+        
+        private final Map<Long, T> items;
+        private final GeoIndex index;
+        
+        private Layer(Map<Long, T> items, GeoIndex index) {
+            this.items = items;
+            this.index = index;
+        }
+        
+        private static <T> Layer<T> empty() {
+            return new Layer<>(Map.of(), GeoIndex.empty());
+        }
+        
+        private static <T> Layer<T> of(Map<Long, T> items,
+                                       Function<T, BigDecimal> latitude, Function<T, BigDecimal> longitude) {
+            long[] ids = new long[items.size()];
+            double[] lats = new double[items.size()];
+            double[] lons = new double[items.size()];
+            int count = 0;
+            for (Map.Entry<Long, T> entry : items.entrySet()) {
+                BigDecimal lat = latitude.apply(entry.getValue());
+                BigDecimal lon = longitude.apply(entry.getValue());
+                if (lat == null || lon == null) {
+                    continue; // Not locatable - skipped by the tree but kept for lookups by id
+                }
+                ids[count] = entry.getKey();
+                lats[count] = lat.doubleValue();
+                lons[count] = lon.doubleValue();
+                count++;
+            }
+            return new Layer<>(items, GeoIndex.build(
+                    Arrays.copyOf(ids, count),
+                    Arrays.copyOf(lats, count),
+                    Arrays.copyOf(lons, count)));
+        }
+        
+        /**
+         * A layer with the given items replaced, and those mapped to null removed; this layer
+         * itself when nothing changes.
+         */
+        private Layer<T> with(Map<Long, T> changes, Function<T, BigDecimal> latitude, Function<T, BigDecimal> longitude) {
+            Map<Long, T> updated = new HashMap<>(items);
+            boolean changed = false;
+            for (Map.Entry<Long, T> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    changed |= updated.remove(change.getKey()) != null;
+                } else {
+                    updated.put(change.getKey(), change.getValue());
+                    changed = true;
+                }
+            }
+            return changed ? of(updated, latitude, longitude) : this;
+        }
+        
+        private List<Nearby<T>> nearest(double latitude, double longitude, int limit, double maxDistanceKm) {
+            return index.nearest(latitude, longitude, limit, maxDistanceKm).stream()
+                    .map(hit -> new Nearby<>(items.get(hit.getId()), hit.getDistanceKm()))
+                    .toList();
+        }
+        
+        private List<MarkerGrid.Cluster> cluster(MarkerGrid.Viewport viewport, MarkerGrid grid,
+                                                 Function<T, BigDecimal> price, Function<T, String> currency) {
+            index.forEachWithin(viewport.getMinLat(), viewport.getMaxLat(), viewport.getMinLon(), viewport.getMaxLon(),
+                    (id, lat, lon) -> grid.add(id, lat, lon, price.apply(items.get(id)), currency.apply(items.get(id))));
+            return grid.clusters();
+        }
+    }
+}
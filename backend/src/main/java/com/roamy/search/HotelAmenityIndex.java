@@ -0,0 +1,235 @@
+package com.roamy.search;
+
+import com.roamy.entity.Hotel;
+import com.roamy.repository.HotelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-destination amenity bitmaps for hotels. {@link Hotel.Amenity} has fewer than 64 values,
+ * so each hotel's amenities are packed into one {@code long} and "must have POOL, WIFI and
+ * PARKING" becomes a single AND-compare per hotel instead of one MEMBER OF join per amenity.
+ *
+ * The bitmaps are swapped copy-on-write when a hotel changes, so lookups never block.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotelAmenityIndex {
+    
+    private static final long[] NO_HOTELS = new long[0];
+    
+    private final HotelRepository hotelRepository;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Map<Long, Long>> masksByDestination = new HashMap<>();
+        for (Hotel hotel : hotelRepository.findAll()) {
+            if (hotel.getDestination() != null) {
+                masksByDestination.computeIfAbsent(hotel.getDestination().getId(), id -> new HashMap<>())
+                        .put(hotel.getId(), mask(hotel.getAmenities()));
+            }
+        }
+        
+        Map<Long, Postings> postings = new HashMap<>();
+        Map<Long, Long> destinationOfHotel = new HashMap<>();
+        masksByDestination.forEach((destinationId, masks) -> {
+            postings.put(destinationId, Postings.of(masks));
+            masks.keySet().forEach(hotelId -> destinationOfHotel.put(hotelId, destinationId));
+        });
+        snapshot = new Snapshot(postings, destinationOfHotel);
+        log.info("Hotel amenity index built with {} hotels", destinationOfHotel.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        if (!(event.getEntity() instanceof Hotel hotel) || hotel.getId() == null) {
+            return;
+        }
+        
+        Snapshot current = snapshot;
+        Map<Long, Postings> postings = new HashMap<>(current.postings);
+        Map<Long, Long> destinationOfHotel = new HashMap<>(current.destinationOfHotel);
+        
+        Long previousDestination = destinationOfHotel.remove(hotel.getId());
+        if (previousDestination != null) {
+            postings.put(previousDestination, postings.get(previousDestination).without(hotel.getId()));
+        }
+        if (!event.isRemoval() && hotel.getDestination() != null) {
+            Long destinationId = hotel.getDestination().getId();
+            postings.put(destinationId, postings.getOrDefault(destinationId, Postings.EMPTY)
+                    .with(hotel.getId(), mask(hotel.getAmenities())));
+            destinationOfHotel.put(hotel.getId(), destinationId);
+        }
+        snapshot = new Snapshot(postings, destinationOfHotel);
+    }
+    
+    /**
+     * Returns the ids (ascending) of the destination's hotels that offer every amenity in the mask.
+     */
+    public long[] hotelsWithAll(Long destinationId, long requiredMask) {
+        Postings postings = snapshot.postings.get(destinationId);
+        if (postings == null) {
+            return NO_HOTELS;
+        }
+        
+        long[] matches = new long[postings.hotelIds.length];
+        int count = 0;
+        for (int i = 0; i < postings.masks.length; i++) {
+            if ((postings.masks[i] & requiredMask) == requiredMask) {
+                matches[count++] = postings.hotelIds[i];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+    
+    /**
+     * The amenity mask of one hotel, or 0 if the hotel is not indexed.
+     */
+    public long maskOf(long hotelId) {
+        Snapshot current = snapshot;
+        Long destinationId = current.destinationOfHotel.get(hotelId);
+        if (destinationId == null) {
+            return 0;
+        }
+        Postings postings = current.postings.get(destinationId);
+        int index = Arrays.binarySearch(postings.hotelIds, hotelId);
+        return index >= 0 ? postings.masks[index] : 0;
+    }
+    
+    public static long mask(Collection<Hotel.Amenity> amenities) {
+        long mask = 0;
+        if (amenities != null) {
+            for (Hotel.Amenity amenity : amenities) {
+                mask |= 1L << amenity.ordinal();
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Builds a mask from amenity names as they arrive in requests (case-insensitive).
+     *
+     * @throws IllegalArgumentException if a name is not a known amenity
+     */
+    public static long parseMask(List<String> amenityNames) {
+        long mask = 0;
+        if (amenityNames != null) {
+            for (String name : amenityNames) {
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                try {
+                    mask |= 1L << Hotel.Amenity.valueOf(name.trim().toUpperCase(Locale.ROOT)).ordinal();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown amenity: " + name);
+                }
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Like {@link #parseMask} but skips names that are not known amenities, for data from
+     * external providers.
+     */
+    public static long lenientMask(List<String> amenityNames) {
+        long mask = 0;
+        if (amenityNames != null) {
+            for (String name : amenityNames) {
+                if (name == null) {
+                    continue;
+                }
+                try {
+                    mask |= 1L << Hotel.Amenity.valueOf(name.trim().toUpperCase(Locale.ROOT)).ordinal();
+                } catch (IllegalArgumentException e) {
+                    // Provider-specific amenity with no catalog equivalent
+                }
+            }
+        }
+        return mask;
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, Postings> postings;
+        private final Map<Long, Long> destinationOfHotel;
+        
+        private Snapshot(Map<Long, Postings> postings, Map<Long, Long> destinationOfHotel) {
+            this.postings = postings;
+            this.destinationOfHotel = destinationOfHotel;
+        }
+    }
+    
+    /**
+     * Parallel arrays of hotel ids (ascending) and their amenity masks for one destination.
+     */
+    private static final class Postings {
+        
+        private static final Postings EMPTY = new Postings(new long[0], new long[0]);
+        
+        private final long[] hotelIds;
+        private final long[] masks;
+        
+        private Postings(long[] hotelIds, long[] masks) {
+            this.hotelIds = hotelIds;
+            this.masks = masks;
+        }
+        
+        private static Postings of(Map<Long, Long> masksByHotel) {
+            long[] hotelIds = masksByHotel.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            long[] masks = new long[hotelIds.length];
+            for (int i = 0; i < hotelIds.length; i++) {
+                masks[i] = masksByHotel.get(hotelIds[i]);
+            }
+            return new Postings(hotelIds, masks);
+        }
+        
+        private Postings with(long hotelId, long mask) {
+            int index = Arrays.binarySearch(hotelIds, hotelId);
+            if (index >= 0) {
+                long[] updatedMasks = masks.clone();
+                updatedMasks[index] = mask;
+                return new Postings(hotelIds, updatedMasks);
+            }
+            
+            int insertAt = -index - 1;
+            long[] ids = new long[hotelIds.length + 1];
+            long[] updatedMasks = new long[masks.length + 1];
+            System.arraycopy(hotelIds, 0, ids, 0, insertAt);
+            System.arraycopy(masks, 0, updatedMasks, 0, insertAt);
+            ids[insertAt] = hotelId;
+            updatedMasks[insertAt] = mask;
+            System.arraycopy(hotelIds, insertAt, ids, insertAt + 1, hotelIds.length - insertAt);
+            System.arraycopy(masks, insertAt, updatedMasks, insertAt + 1, masks.length - insertAt);
+            return new Postings(ids, updatedMasks);
+        }
+        
+        private Postings without(long hotelId) {
+            int index = Arrays.binarySearch(hotelIds, hotelId);
+            if (index < 0) {
+                return this;
+            }
+            long[] ids = new long[hotelIds.length - 1];
+            long[] updatedMasks = new long[masks.length - 1];
+            System.arraycopy(hotelIds, 0, ids, 0, index);
+            System.arraycopy(masks, 0, updatedMasks, 0, index);
+            System.arraycopy(hotelIds, index + 1, ids, index, hotelIds.length - index - 1);
+            System.arraycopy(masks, index + 1, updatedMasks, index, masks.length - index - 1);
+            return new Postings(ids, updatedMasks);
+        }
+    }
+}
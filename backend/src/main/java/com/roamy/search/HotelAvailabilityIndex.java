@@ -0,0 +1,449 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchRequestDTO;
+import com.roamy.entity.Booking;
+import com.roamy.entity.Room;
+import com.roamy.repository.BookingRepository;
+import com.roamy.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Night-by-night room occupancy for catalog hotels. Every room holds a {@link BitSet} with one
+ * bit per booked night, counted from the day the index was built, so "is this room free for
+ * the stay" is a single {@code nextSetBit} call that skips 64 nights per word regardless of how
+ * long the stay is. Nights before today count as booked on every query. The index is rebuilt
+ * shortly after each midnight, so the bits of past nights are dropped and do not pile up.
+ *
+ * Active hotel bookings (pending, confirmed or completed) occupy their room's nights. Bookings
+ * made without a specific room are placed in the first room that fits their party and is free
+ * for their nights, as the front desk would. Hotels without any rooms in the catalog have no
+ * known inventory and are treated as available. Rooms and bookings are kept current through
+ * {@link CatalogChangeEvent}s.
+ *
+ * The same bitmaps answer the flexible-dates price calendar: a window of stay-length nights is
+ * slid across each room's bits, so every check-in date of a month is priced in one pass.
+ *
+ * Unlike the copy-on-write catalog indexes this one is updated in place under a read-write
+ * lock, since a booking only flips a few bits of one room.
+ */
+@Component
+@Slf4j
+public class HotelAvailabilityIndex implements DisposableBean {
+    
+    private static final Set<Booking.BookingStatus> OCCUPYING = Set.of(
+            Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.COMPLETED);
+    
+    // Past midnight, so the rebuild sees the new day even with a little clock skew
+    private static final Duration REBUILD_AFTER_MIDNIGHT = Duration.ofMinutes(5);
+    
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final ScheduledExecutorService executor;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<RoomNights>> roomsByHotel = new HashMap<>();
+    private final Map<Long, RoomNights> rooms = new HashMap<>();
+    private final Map<Long, Allocation> allocations = new HashMap<>();
+    private long origin;
+    private volatile long version;
+    
+    @Autowired
+    public HotelAvailabilityIndex(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this(roomRepository, bookingRepository, Clock.systemDefaultZone());
+    }
+    
+    HotelAvailabilityIndex(RoomRepository roomRepository, BookingRepository bookingRepository, Clock clock) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.origin = LocalDate.now(clock).toEpochDay();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotel-availability");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+        scheduleNightlyRebuild();
+    }
+    
+    void rebuild() {
+        LocalDate today = LocalDate.now(clock);
+        List<Room> loadedRooms = roomRepository.findAll();
+        // Bookings tied to a room first, so unassigned ones are fitted around them
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findHotelStaysEndingAfter(OCCUPYING, today));
+        bookings.sort(Comparator.comparing((Booking booking) -> booking.getRoom() == null)
+                .thenComparing(Booking::getCheckInDate)
+                .thenComparing(Booking::getId));
+        
+        lock.writeLock().lock();
+        try {
+            roomsByHotel.clear();
+            rooms.clear();
+            allocations.clear();
+            origin = today.toEpochDay();
+            for (Room room : loadedRooms) {
+                putRoom(room);
+            }
+            for (Booking booking : bookings) {
+                allocate(booking);
+            }
+            version++;
+            log.info("Hotel availability index built with {} rooms and {} bookings", rooms.size(), allocations.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!(event.getEntity() instanceof Room) && !(event.getEntity() instanceof Booking)) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (event.getEntity() instanceof Room room && room.getId() != null) {
+                if (event.isRemoval()) {
+                    removeRoom(room.getId());
+                } else {
+                    putRoom(room);
+                }
+            } else if (event.getEntity() instanceof Booking booking && booking.getId() != null) {
+                release(booking.getId());
+                if (!event.isRemoval()) {
+                    allocate(booking);
+                }
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * A number that changes whenever rooms or bookings change and at each nightly rebuild, so
+     * results computed from the index can be cached under it and are never served once stale.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Returns the given hotel ids, in order, that have at least one bookable room for the whole
+     * stay and the whole party, plus those without room inventory in the catalog. A stay that
+     * starts before today matches no hotel.
+     */
+    public long[] withRoomFor(long[] hotelIds, Stay stay) {
+        if (stay.getCheckIn().isBefore(LocalDate.now(clock))) {
+            return new long[0];
+        }
+        long[] matches = new long[hotelIds.length];
+        int count = 0;
+        
+        lock.readLock().lock();
+        try {
+            int from = night(stay.getCheckIn());
+            int to = night(stay.getCheckOut());
+            for (long hotelId : hotelIds) {
+                List<RoomNights> hotelRooms = roomsByHotel.get(hotelId);
+                if (hotelRooms == null || hotelRooms.isEmpty() || firstFree(hotelRooms, from, to, stay.getGuests()) != null) {
+                    matches[count++] = hotelId;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.copyOf(matches, count);
+    }
+    
+    /**
+     * For each of {@code days} check-in dates starting at {@code from}, the lowest base price in
+     * {@code currency} of a room of the given hotels that takes the party and is free for all
+     * {@code nights} nights of the stay; null for dates where no room is. Past nights count as
+     * booked.
+     */
+    public BigDecimal[] lowestRates(long[] hotelIds, LocalDate from, int days, int nights, int guests, String currency) {
+        BigDecimal[] lowest = new BigDecimal[days];
+        
+        lock.readLock().lock();
+        try {
+            int first = night(from);
+            int today = night(LocalDate.now(clock));
+            for (long hotelId : hotelIds) {
+                for (RoomNights room : roomsByHotel.getOrDefault(hotelId, List.of())) {
+                    if (!room.bookable || room.maxOccupancy < guests || room.basePrice == null
+                            || !currency.equals(room.currency)) {
+                        continue;
+                    }
+                    
+                    // Booked nights inside [start, start + nights), updated as the window slides
+                    int booked = 0;
+                    for (int last = 0; last < days + nights - 1; last++) {
+                        if (isBooked(room, first + last, today)) {
+                            booked++;
+                        }
+                        int start = last - nights + 1;
+                        if (start < 0) {
+                            continue;
+                        }
+                        if (booked == 0 && (lowest[start] == null || room.basePrice.compareTo(lowest[start]) < 0)) {
+                            lowest[start] = room.basePrice;
+                        }
+                        if (isBooked(room, first + start, today)) {
+                            booked--;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return lowest;
+    }
+    
+    private void putRoom(Room room) {
+        RoomNights existing = rooms.get(room.getId());
+        Long hotelId = room.getHotel() != null ? room.getHotel().getId() : null;
+        RoomNights updated = new RoomNights(room.getId(), hotelId,
+                room.getMaxOccupancy() != null ? room.getMaxOccupancy() : 1,
+                !Boolean.FALSE.equals(room.getAvailable()), room.getBasePrice(), room.getCurrency(),
+                existing != null ? existing.nights : new BitSet(),
+                existing != null ? existing.allocations : new ArrayList<>());
+        
+        if (existing != null && existing.hotelId != null) {
+            roomsByHotel.get(existing.hotelId).remove(existing);
+        }
+        rooms.put(room.getId(), updated);
+        if (hotelId != null) {
+            roomsByHotel.computeIfAbsent(hotelId, id -> new ArrayList<>()).add(updated);
+            roomsByHotel.get(hotelId).sort(Comparator.comparingLong(r -> r.roomId));
+        }
+        for (Allocation allocation : updated.allocations) {
+            allocation.room = updated;
+        }
+    }
+    
+    private void removeRoom(Long roomId) {
+        RoomNights removed = rooms.remove(roomId);
+        if (removed == null) {
+            return;
+        }
+        if (removed.hotelId != null) {
+            roomsByHotel.get(removed.hotelId).remove(removed);
+        }
+        for (Allocation allocation : removed.allocations) {
+            allocations.remove(allocation.bookingId);
+        }
+    }
+    
+    private void allocate(Booking booking) {
+        if (booking.getType() != Booking.BookingType.HOTEL || !OCCUPYING.contains(booking.getStatus())
+                || booking.getHotel() == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return;
+        }
+        
+        // Past nights are never searched
+        int from = Math.max(night(LocalDate.now(clock)), night(booking.getCheckInDate()));
+        int to = night(booking.getCheckOutDate());
+        if (to <= from) {
+            return;
+        }
+        
+        RoomNights room = booking.getRoom() != null
+                ? rooms.get(booking.getRoom().getId())
+                : firstFree(roomsByHotel.getOrDefault(booking.getHotel().getId(), List.of()), from, to, guests(booking));
+        if (room == null) {
+            return;
+        }
+        
+        Allocation allocation = new Allocation(booking.getId(), room, from, to);
+        room.nights.set(from, to);
+        room.allocations.add(allocation);
+        allocations.put(booking.getId(), allocation);
+    }
+    
+    private void release(Long bookingId) {
+        Allocation allocation = allocations.remove(bookingId);
+        if (allocation == null) {
+            return;
+        }
+        
+        RoomNights room = allocation.room;
+        room.allocations.remove(allocation);
+        room.nights.clear(allocation.from, allocation.to);
+        // Overlapping bookings of the same room still hold their nights
+        for (Allocation other : room.allocations) {
+            if (other.from < allocation.to && other.to > allocation.from) {
+                room.nights.set(other.from, other.to);
+            }
+        }
+    }
+    
+    private static RoomNights firstFree(List<RoomNights> hotelRooms, int from, int to, int guests) {
+        int start = Math.max(0, from);
+        for (RoomNights room : hotelRooms) {
+            if (!room.bookable || room.maxOccupancy < guests) {
+                continue;
+            }
+            int booked = to > start ? room.nights.nextSetBit(start) : -1;
+            if (booked < 0 || booked >= to) {
+                return room;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isBooked(RoomNights room, int night, int today) {
+        return night < today || room.nights.get(night);
+    }
+    
+    /**
+     * Rebuilds the index shortly after every midnight, which moves its origin to the new day.
+     */
+    private void scheduleNightlyRebuild() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime next = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone()).plus(REBUILD_AFTER_MIDNIGHT);
+        executor.schedule(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Hotel availability rebuild failed, keeping the previous index: {}", e.getMessage());
+            }
+            scheduleNightlyRebuild();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private int night(LocalDate date) {
+        return (int) (date.toEpochDay() - origin);
+    }
+    
+    private static int guests(Booking booking) {
+        int adults = booking.getNumberOfAdults() != null ? booking.getNumberOfAdults() : 0;
+        int children = booking.getNumberOfChildren() != null ? booking.getNumberOfChildren() : 0;
+        int guests = booking.getNumberOfGuests() != null ? booking.getNumberOfGuests() : 0;
+        return Math.max(1, Math.max(guests, adults + children));
+    }
+    
+    /**
+     * The dates and party size a search asks a room for.
+     */
+    public static final class Stay {
+        
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+        private final int guests;
+        
+        private Stay(LocalDate checkIn, LocalDate checkOut, int guests) {
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.guests = guests;
+        }
+        
+        /**
+         * The stay a search request asks for, or null when it gives no dates.
+         */
+        public static Stay of(SearchRequestDTO request) {
+            if (request.getCheckInDate() == null && request.getCheckOutDate() == null) {
+                return null;
+            }
+            if (request.getCheckInDate() == null || request.getCheckOutDate() == null) {
+                throw new IllegalArgumentException("Check-in and check-out dates must be given together");
+            }
+            if (!request.getCheckOutDate().isAfter(request.getCheckInDate())) {
+                throw new IllegalArgumentException("Check-out date must be after check-in date");
+            }
+            
+            int adults = request.getNumberOfAdults() != null ? request.getNumberOfAdults() : 0;
+            int children = request.getNumberOfChildren() != null ? request.getNumberOfChildren() : 0;
+            int guests = request.getNumberOfGuests() != null ? request.getNumberOfGuests() : 0;
+            return new Stay(request.getCheckInDate(), request.getCheckOutDate(),
+                    Math.max(1, Math.max(guests, adults + children)));
+        }
+        
+        public LocalDate getCheckIn() {
+            return checkIn;
+        }
+        
+        public LocalDate getCheckOut() {
+            return checkOut;
+        }
+        
+        public int getGuests() {
+            return guests;
+        }
+    }
+    
+    private static final class RoomNights {
+        
+        private final Long roomId;
+        private final Long hotelId;
+        private final int maxOccupancy;
+        private final boolean bookable;
+        private final BigDecimal basePrice;
+        private final String currency;
+        private final BitSet nights;
+        private final List<Allocation> allocations;
+        
+        private RoomNights(Long roomId, Long hotelId, int maxOccupancy, boolean bookable, BigDecimal basePrice,
+                           String currency, BitSet nights, List<Allocation> allocations) {
+            this.roomId = roomId;
+            this.hotelId = hotelId;
+            this.maxOccupancy = maxOccupancy;
+            this.bookable = bookable;
+            this.basePrice = basePrice;
+            this.currency = currency;
+            this.nights = nights;
+            this.allocations = allocations;
+        }
+    }
+    
+    private static final class Allocation {
+        
+        private final Long bookingId;
+        private RoomNights room;
+        private final int from;
+        private final int to;
+        
+        private Allocation(Long bookingId, RoomNights room, int from, int to) {
+            this.bookingId = bookingId;
+            this.room = room;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Collapses offers for the same property coming from the catalog and from external providers.
+ * Two offers are the same property when their folded names have the same words and they lie
+ * in the same or an adjacent geo cell of roughly 500 m, so each offer is placed with a few hash
+ * probes instead of being compared against every other offer. Offers without coordinates match
+ * a same-named offer anywhere in the list, since every list handed in belongs to a single
+ * destination.
+ *
+ * The first of two matching offers is kept, with its id and details, at its own position, so
+ * callers list the catalog before providers. It takes the later offer's price when that is lower
+ * in the same currency, and carries the sources of both.
+ */
+public final class HotelOfferMerger {
+    
+    // About 550 m of latitude, and less of longitude away from the equator
+    private static final double CELL_DEGREES = 0.005;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private HotelOfferMerger() {
+    }
+    
+    /**
+     * Returns the offers with duplicates merged, in first-seen order.
+     */
+    public static List<SearchResponseDTO.HotelDTO> merge(List<SearchResponseDTO.HotelDTO> offers) {
+        return merge(offers, 0);
+    }
+    
+    /**
+     * Merges provider offers into catalog rows. The result starts with every catalog row, in
+     * order, each having absorbed the offers matching it; the offers matching no catalog row
+     * follow, merged among themselves in first-seen order. Catalog rows are never merged with
+     * each other.
+     */
+    public static List<SearchResponseDTO.HotelDTO> merge(List<SearchResponseDTO.HotelDTO> catalog,
+                                                         List<SearchResponseDTO.HotelDTO> offers) {
+        List<SearchResponseDTO.HotelDTO> all = new ArrayList<>(catalog.size() + offers.size());
+        all.addAll(catalog);
+        all.addAll(offers);
+        return merge(all, catalog.size());
+    }
+    
+    /**
+     * Merges duplicates, except that each of the first {@code pinned} offers keeps a slot of its
+     * own even when it matches an earlier one.
+     */
+    private static List<SearchResponseDTO.HotelDTO> merge(List<SearchResponseDTO.HotelDTO> offers, int pinned) {
+        List<SearchResponseDTO.HotelDTO> merged = new ArrayList<>(offers.size());
+        Map<CellKey, Integer> located = new HashMap<>();
+        Map<String, Integer> byName = new HashMap<>();
+        
+        for (SearchResponseDTO.HotelDTO offer : offers) {
+            String name = nameKey(offer.getName());
+            if (name.isEmpty()) {
+                merged.add(offer);
+                continue;
+            }
+            
+            CellKey cell = CellKey.of(name, offer.getLatitude(), offer.getLongitude());
+            boolean isPinned = merged.size() < pinned;
+            Integer slot = cell != null && !isPinned ? findNear(located, cell) : null;
+            if (slot == null) {
+                // Coordinates on one side only: the name alone decides
+                Integer named = isPinned ? null : byName.get(name);
+                if (named != null && (cell == null || !hasCell(merged.get(named)))) {
+                    slot = named;
+                }
+            }
+            
+            if (slot != null) {
+                merged.set(slot, pick(merged.get(slot), offer));
+                continue;
+            }
+            merged.add(offer);
+            byName.putIfAbsent(name, merged.size() - 1);
+            if (cell != null) {
+                located.putIfAbsent(cell, merged.size() - 1);
+            }
+        }
+        return merged;
+    }
+    
+    static String nameKey(String name) {
+        // Word order is dropped too: providers list "Budget Inn Paris" for "Paris Budget Inn"
+        String[] words = NON_ALPHANUMERIC.split(TextNormalizer.fold(name));
+        Arrays.sort(words);
+        return String.join("", words);
+    }
+    
+    private static Integer findNear(Map<CellKey, Integer> located, CellKey cell) {
+        // A property on a cell border can be placed on either side by different providers
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                Integer slot = located.get(new CellKey(cell.name, cell.lat + dLat, cell.lon + dLon));
+                if (slot != null) {
+                    return slot;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static boolean hasCell(SearchResponseDTO.HotelDTO offer) {
+        return offer.getLatitude() != null && offer.getLongitude() != null;
+    }
+    
+    private static SearchResponseDTO.HotelDTO pick(SearchResponseDTO.HotelDTO kept, SearchResponseDTO.HotelDTO offer) {
+        Set<String> sources = new LinkedHashSet<>();
+        if (kept.getSources() != null) {
+            sources.addAll(kept.getSources());
+        }
+        if (offer.getSources() != null) {
+            sources.addAll(offer.getSources());
+        }
+        SearchResponseDTO.HotelDTO.HotelDTOBuilder merged = kept.toBuilder().sources(List.copyOf(sources));
+        if (isCheaper(offer, kept)) {
+            merged.pricePerNight(offer.getPricePerNight());
+        }
+        return merged.build();
+    }
+    
+    private static boolean isCheaper(SearchResponseDTO.HotelDTO offer, SearchResponseDTO.HotelDTO than) {
+        BigDecimal price = offer.getPricePerNight();
+        BigDecimal other = than.getPricePerNight();
+        if (price == null || other == null || !Objects.equals(offer.getCurrency(), than.getCurrency())) {
+            return false;
+        }
+        return price.compareTo(other) < 0;
+    }
+    
+    @Value
+    private static class CellKey {
+        String name;
+        long lat;
+        long lon;
+        
+        private static CellKey of(String name, BigDecimal latitude, BigDecimal longitude) {
+            if (latitude == null || longitude == null) {
+                return null;
+            }
+            return new CellKey(name,
+                    (long) Math.floor(latitude.doubleValue() / CELL_DEGREES),
+                    (long) Math.floor(longitude.doubleValue() / CELL_DEGREES));
+        }
+    }
+}
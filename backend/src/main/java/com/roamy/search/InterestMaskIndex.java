@@ -0,0 +1,305 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.entity.User;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Travel-interest bitmaps for active attractions and destinations. {@link User.TravelInterest}
+ * has fewer than 32 values, so each entity's interests fit in one {@code int}: "matches any of
+ * the requested interests" is a non-zero AND and "how many interests match" is a popcount,
+ * with no join over the interest tables and no string comparisons.
+ *
+ * The maps are swapped copy-on-write when an attraction or destination changes; an attraction
+ * change only rebuilds the postings of the destinations it left or joined. The listeners run
+ * before those of other components, so indexes built from the destination masks see them current.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InterestMaskIndex {
+    
+    private static final long[] NO_ATTRACTIONS = new long[0];
+    
+    private final AttractionRepository attractionRepository;
+    private final DestinationRepository destinationRepository;
+    
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void rebuild() {
+        Map<Long, AttractionMask> attractions = new HashMap<>();
+        for (Attraction attraction : attractionRepository.findByActiveTrue()) {
+            if (attraction.getDestination() != null) {
+                attractions.put(attraction.getId(), new AttractionMask(
+                        attraction.getDestination().getId(), mask(attraction.getMatchingInterests())));
+            }
+        }
+        
+        Map<Long, Integer> destinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findByActiveTrue()) {
+            destinations.put(destination.getId(), mask(destination.getPopularInterests()));
+        }
+        
+        snapshot = new Snapshot(attractions, Postings.byDestination(attractions), destinations);
+        log.info("Interest mask index built with {} attractions and {} destinations",
+                attractions.size(), destinations.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntity() instanceof Attraction attraction && attraction.getId() != null) {
+            applyAttraction(attraction, event.isRemoval());
+        } else if (event.getEntity() instanceof Destination destination && destination.getId() != null) {
+            Snapshot current = snapshot;
+            Map<Long, Integer> destinations = new HashMap<>(current.destinations);
+            destinations.remove(destination.getId());
+            if (!event.isRemoval() && Boolean.TRUE.equals(destination.getActive())) {
+                destinations.put(destination.getId(), mask(destination.getPopularInterests()));
+            }
+            snapshot = new Snapshot(current.attractions, current.postings, destinations);
+        }
+    }
+    
+    /**
+     * Returns the ids (ascending) of the destination's active attractions matching at least one
+     * interest in the mask.
+     */
+    public long[] attractionsWithAny(Long destinationId, int interestMask) {
+        Postings postings = destinationId != null ? snapshot.postings.get(destinationId) : null;
+        if (postings == null) {
+            return NO_ATTRACTIONS;
+        }
+        
+        long[] matches = new long[postings.attractionIds.length];
+        int count = 0;
+        for (int i = 0; i < postings.masks.length; i++) {
+            if ((postings.masks[i] & interestMask) != 0) {
+                matches[count++] = postings.attractionIds[i];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+    
+    /**
+     * Returns the ids (ascending) of all the destination's active attractions.
+     */
+    public long[] attractionsOf(Long destinationId) {
+        Postings postings = destinationId != null ? snapshot.postings.get(destinationId) : null;
+        return postings != null ? postings.attractionIds.clone() : NO_ATTRACTIONS;
+    }
+    
+    /**
+     * Returns active destination ids sharing at least one interest with the mask, most shared
+     * interests first, then by id.
+     */
+    public List<Long> destinationsWithAny(int interestMask) {
+        Map<Long, Integer> destinations = snapshot.destinations;
+        List<Long> matches = new ArrayList<>();
+        destinations.forEach((id, mask) -> {
+            if ((mask & interestMask) != 0) {
+                matches.add(id);
+            }
+        });
+        matches.sort(Comparator.comparing((Long id) -> matchCount(destinations.get(id), interestMask)).reversed()
+                .thenComparing(id -> id));
+        return matches;
+    }
+    
+    /**
+     * The popular-interest mask of an active destination, or 0 if it is not indexed.
+     */
+    public int destinationMask(Long destinationId) {
+        Integer mask = destinationId != null ? snapshot.destinations.get(destinationId) : null;
+        return mask != null ? mask : 0;
+    }
+    
+    public int attractionMask(Long attractionId) {
+        AttractionMask attraction = attractionId != null ? snapshot.attractions.get(attractionId) : null;
+        return attraction != null ? attraction.mask : 0;
+    }
+    
+    public static int mask(Collection<User.TravelInterest> interests) {
+        int mask = 0;
+        if (interests != null) {
+            for (User.TravelInterest interest : interests) {
+                mask |= 1 << interest.ordinal();
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Builds a mask from interest names as they arrive in requests, ignoring case and skipping
+     * names that are not known interests.
+     */
+    public static int lenientMask(Collection<String> interestNames) {
+        int mask = 0;
+        if (interestNames != null) {
+            for (String name : interestNames) {
+                if (name == null) {
+                    continue;
+                }
+                try {
+                    mask |= 1 << User.TravelInterest.valueOf(name.trim().toUpperCase(Locale.ROOT)).ordinal();
+                } catch (IllegalArgumentException e) {
+                    // Not an interest we track
+                }
+            }
+        }
+        return mask;
+    }
+    
+    public static int matchCount(int mask, int otherMask) {
+        return Integer.bitCount(mask & otherMask);
+    }
+    
+    private void applyAttraction(Attraction attraction, boolean removal) {
+        Snapshot current = snapshot;
+        long id = attraction.getId();
+        Map<Long, AttractionMask> attractions = new HashMap<>(current.attractions);
+        AttractionMask previous = attractions.remove(id);
+        AttractionMask updated = null;
+        if (!removal && Boolean.TRUE.equals(attraction.getActive()) && attraction.getDestination() != null) {
+            updated = new AttractionMask(attraction.getDestination().getId(), mask(attraction.getMatchingInterests()));
+            attractions.put(id, updated);
+        }
+        
+        Map<Long, Postings> postings = new HashMap<>(current.postings);
+        if (previous != null) {
+            Postings remaining = postings.get(previous.destinationId).without(id);
+            if (remaining != null) {
+                postings.put(previous.destinationId, remaining);
+            } else {
+                postings.remove(previous.destinationId);
+            }
+        }
+        if (updated != null) {
+            Postings existing = postings.get(updated.destinationId);
+            postings.put(updated.destinationId, existing != null ? existing.with(id, updated.mask)
+                    : new Postings(new long[]{id}, new int[]{updated.mask}));
+        }
+        snapshot = new Snapshot(attractions, postings, current.destinations);
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<Long, AttractionMask> attractions;
+        private final Map<Long, Postings> postings;
+        private final Map<Long, Integer> destinations;
+        
+        private Snapshot(Map<Long, AttractionMask> attractions, Map<Long, Postings> postings,
+                         Map<Long, Integer> destinations) {
+            this.attractions = attractions;
+            this.postings = postings;
+            this.destinations = destinations;
+        }
+    }
+    
+    private static final class AttractionMask {
+        
+        private final Long destinationId;
+        private final int mask;
+        
+        private AttractionMask(Long destinationId, int mask) {
+            this.destinationId = destinationId;
+            this.mask = mask;
+        }
+    }
+    
+    /**
+     * Parallel arrays of attraction ids (ascending) and their interest masks for one destination.
+     */
+    private static final class Postings {
+        
+        private final long[] attractionIds;
+        private final int[] masks;
+        
+        private Postings(long[] attractionIds, int[] masks) {
+            this.attractionIds = attractionIds;
+            this.masks = masks;
+        }
+        
+        /**
+         * A copy with the attraction added, or its mask replaced, keeping the ids ascending.
+         */
+        private Postings with(long attractionId, int mask) {
+            int at = Arrays.binarySearch(attractionIds, attractionId);
+            if (at >= 0) {
+                int[] updatedMasks = masks.clone();
+                updatedMasks[at] = mask;
+                return new Postings(attractionIds, updatedMasks);
+            }
+            
+            int insert = -at - 1;
+            long[] ids = new long[attractionIds.length + 1];
+            int[] updatedMasks = new int[masks.length + 1];
+            System.arraycopy(attractionIds, 0, ids, 0, insert);
+            System.arraycopy(masks, 0, updatedMasks, 0, insert);
+            ids[insert] = attractionId;
+            updatedMasks[insert] = mask;
+            System.arraycopy(attractionIds, insert, ids, insert + 1, attractionIds.length - insert);
+            System.arraycopy(masks, insert, updatedMasks, insert + 1, masks.length - insert);
+            return new Postings(ids, updatedMasks);
+        }
+        
+        /**
+         * A copy without the attraction; null when none would remain.
+         */
+        private Postings without(long attractionId) {
+            int at = Arrays.binarySearch(attractionIds, attractionId);
+            if (at < 0) {
+                return this;
+            }
+            if (attractionIds.length == 1) {
+                return null;
+            }
+            
+            long[] ids = new long[attractionIds.length - 1];
+            int[] updatedMasks = new int[masks.length - 1];
+            System.arraycopy(attractionIds, 0, ids, 0, at);
+            System.arraycopy(masks, 0, updatedMasks, 0, at);
+            System.arraycopy(attractionIds, at + 1, ids, at, ids.length - at);
+            System.arraycopy(masks, at + 1, updatedMasks, at, updatedMasks.length - at);
+            return new Postings(ids, updatedMasks);
+        }
+        
+        private static Map<Long, Postings> byDestination(Map<Long, AttractionMask> attractions) {
+            Map<Long, List<Long>> idsByDestination = new HashMap<>();
+            attractions.forEach((id, attraction) ->
+                    idsByDestination.computeIfAbsent(attraction.destinationId, key -> new ArrayList<>()).add(id));
+            
+            Map<Long, Postings> postings = new HashMap<>();
+            idsByDestination.forEach((destinationId, ids) -> {
+                long[] attractionIds = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+                int[] masks = new int[attractionIds.length];
+                for (int i = 0; i < attractionIds.length; i++) {
+                    masks[i] = attractions.get(attractionIds[i]).mask;
+                }
+                postings.put(destinationId, new Postings(attractionIds, masks));
+            });
+            return postings;
+        }
+    }
+}
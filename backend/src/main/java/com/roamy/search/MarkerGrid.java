@@ -0,0 +1,212 @@
+package com.roamy.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Groups map points into square grid cells for one viewport. Cells are aligned to a global grid
+ * whose size follows the zoom level, so clusters stay put while the map is panned. When the
+ * viewport spans more than {@link #MAX_CELLS_PER_SIDE} cells on either side the cells are
+ * doubled until it fits, which caps the number of clusters however many points the viewport
+ * holds. Prices are never compared across currencies: each cluster keeps its lowest price per
+ * currency.
+ */
+public final class MarkerGrid {
+    
+    public static final int MIN_ZOOM = 0;
+    public static final int MAX_ZOOM = 22;
+    public static final int MAX_CELLS_PER_SIDE = 16;
+    
+    // A cell is a quarter of a 256 px map tile, so clusters sit about 64 px apart on screen
+    private static final int CELLS_PER_TILE = 4;
+    
+    private final double cellDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    
+    private MarkerGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+    
+    /**
+     * An empty grid sized for the viewport at the zoom level.
+     */
+    public static MarkerGrid forViewport(Viewport viewport, int zoom) {
+        double cell = 360.0 / (1L << zoom) / CELLS_PER_TILE;
+        double span = Math.max(viewport.widthDegrees(), viewport.getMaxLat() - viewport.getMinLat());
+        while (span / cell > MAX_CELLS_PER_SIDE) {
+            cell *= 2;
+        }
+        return new MarkerGrid(cell);
+    }
+    
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+    
+    /**
+     * Adds a point; a price without an amount or a currency does not count towards the cell's
+     * minimums.
+     */
+    public void add(long id, double lat, double lon, BigDecimal price, String currency) {
+        long row = (long) Math.floor((lat + 90) / cellDegrees);
+        long column = (long) Math.floor((lon + 180) / cellDegrees);
+        cells.computeIfAbsent((row << 32) | column, key -> new Cell()).add(id, lat, lon, price, currency);
+    }
+    
+    /**
+     * The non-empty cells, south-west first.
+     */
+    public List<Cluster> clusters() {
+        List<Map.Entry<Long, Cell>> entries = new ArrayList<>(cells.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        
+        List<Cluster> clusters = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Cell> entry : entries) {
+            Cell cell = entry.getValue();
+            clusters.add(new Cluster(cell.count == 1 ? cell.id : null, cell.count,
+                    cell.latSum / cell.count, cell.lonSum / cell.count, cell.minPrices));
+        }
+        return clusters;
+    }
+    
+    /**
+     * A latitude/longitude box; {@code minLon} greater than {@code maxLon} crosses the antimeridian.
+     */
+    public static final class Viewport {
+        
+        private final double minLat;
+        private final double maxLat;
+        private final double minLon;
+        private final double maxLon;
+        
+        private Viewport(double minLat, double maxLat, double minLon, double maxLon) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+        }
+        
+        /**
+         * Parses a {@code west,south,east,north} box as sent by web map libraries.
+         */
+        public static Viewport parse(String bbox) {
+            String[] parts = bbox != null ? bbox.split(",") : new String[0];
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("bbox must be west,south,east,north");
+            }
+            
+            double[] values = new double[4];
+            for (int i = 0; i < 4; i++) {
+                try {
+                    values[i] = Double.parseDouble(parts[i].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("bbox must be west,south,east,north");
+                }
+                if (!Double.isFinite(values[i])) {
+                    throw new IllegalArgumentException("bbox must be west,south,east,north");
+                }
+            }
+            
+            double west = values[0], south = values[1], east = values[2], north = values[3];
+            if (south < -90 || north > 90 || south > north) {
+                throw new IllegalArgumentException("bbox latitudes must be between -90 and 90, south first");
+            }
+            if (west < -180 || west > 180 || east < -180 || east > 180) {
+                throw new IllegalArgumentException("bbox longitudes must be between -180 and 180");
+            }
+            return new Viewport(south, north, west, east);
+        }
+        
+        public double widthDegrees() {
+            return minLon <= maxLon ? maxLon - minLon : maxLon - minLon + 360;
+        }
+        
+        public double getMinLat() {
+            return minLat;
+        }
+        
+        public double getMaxLat() {
+            return maxLat;
+        }
+        
+        public double getMinLon() {
+            return minLon;
+        }
+        
+        public double getMaxLon() {
+            return maxLon;
+        }
+    }
+    
+    /**
+     * The points of one cell: how many, their centroid and their lowest price in each currency.
+     * The id is only set for a single point, which the map shows as a plain marker.
+     */
+    public static final class Cluster {
+        
+        private final Long id;
+        private final int count;
+        private final double latitude;
+        private final double longitude;
+        private final Map<String, BigDecimal> minPrices;
+        
+        private Cluster(Long id, int count, double latitude, double longitude, Map<String, BigDecimal> minPrices) {
+            this.id = id;
+            this.count = count;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.minPrices = minPrices != null ? Collections.unmodifiableMap(minPrices) : Map.of();
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public double getLatitude() {
+            return latitude;
+        }
+        
+        public double getLongitude() {
+            return longitude;
+        }
+        
+        /**
+         * Lowest price by currency code, in code order; empty when no point has a price.
+         */
+        public Map<String, BigDecimal> getMinPrices() {
+            return minPrices;
+        }
+    }
+    
+    private static final class Cell {
+        
+        private long id;
+        private int count;
+        private double latSum;
+        private double lonSum;
+        private TreeMap<String, BigDecimal> minPrices;
+        
+        private void add(long id, double lat, double lon, BigDecimal price, String currency) {
+            this.id = id;
+            count++;
+            latSum += lat;
+            lonSum += lon;
+            if (price != null && currency != null) {
+                if (minPrices == null) {
+                    minPrices = new TreeMap<>();
+                }
+                minPrices.merge(currency, price, (a, b) -> b.compareTo(a) < 0 ? b : a);
+            }
+        }
+    }
+}
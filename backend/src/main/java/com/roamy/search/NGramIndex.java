@@ -0,0 +1,151 @@
+package com.roamy.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index answering case-insensitive substring queries ("LIKE %term%") over a few
+ * short text fields per entry. Entries are addressed by their database id and stored in
+ * dense slots so posting lists can be plain bitsets that are intersected word-wise.
+ *
+ * Not thread-safe: callers must guard concurrent reads and writes.
+ */
+public class NGramIndex {
+    
+    private static final int GRAM_LENGTH = 3;
+    
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<Long> idsBySlot = new ArrayList<>();
+    private final List<String[]> fieldsBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet liveSlots = new BitSet();
+    
+    /**
+     * Indexes (or re-indexes) the given fields under the entry id.
+     */
+    public void put(long id, String... fields) {
+        remove(id);
+        
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        
+        int slot = allocateSlot(id, normalized);
+        for (String field : normalized) {
+            for (String gram : grams(field)) {
+                postings.computeIfAbsent(gram, g -> new BitSet()).set(slot);
+            }
+        }
+    }
+    
+    public void remove(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        
+        for (String field : fieldsBySlot.get(slot)) {
+            for (String gram : grams(field)) {
+                BitSet posting = postings.get(gram);
+                if (posting != null) {
+                    posting.clear(slot);
+                    if (posting.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        
+        liveSlots.clear(slot);
+        fieldsBySlot.set(slot, null);
+        idsBySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+    
+    /**
+     * Returns the ids of all entries having at least one field that contains the query,
+     * ignoring case. Queries shorter than a trigram fall back to scanning the stored fields.
+     */
+    public List<Long> search(String query) {
+        String term = normalize(query);
+        List<Long> matches = new ArrayList<>();
+        if (term.isEmpty()) {
+            return matches;
+        }
+        
+        BitSet candidates = term.length() < GRAM_LENGTH ? (BitSet) liveSlots.clone() : intersectPostings(term);
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            if (containsTerm(fieldsBySlot.get(slot), term)) {
+                matches.add(idsBySlot.get(slot));
+            }
+        }
+        return matches;
+    }
+    
+    public int size() {
+        return slotsById.size();
+    }
+    
+    static String normalize(String value) {
+        return TextNormalizer.fold(value);
+    }
+    
+    private BitSet intersectPostings(String term) {
+        BitSet result = null;
+        for (String gram : grams(term)) {
+            BitSet posting = postings.get(gram);
+            if (posting == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+    
+    private int allocateSlot(long id, String[] fields) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = idsBySlot.size();
+            idsBySlot.add(id);
+            fieldsBySlot.add(fields);
+        } else {
+            slot = freeSlots.pop();
+            idsBySlot.set(slot, id);
+            fieldsBySlot.set(slot, fields);
+        }
+        slotsById.put(id, slot);
+        liveSlots.set(slot);
+        return slot;
+    }
+    
+    private static boolean containsTerm(String[] fields, String term) {
+        for (String field : fields) {
+            if (field.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static List<String> grams(String value) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
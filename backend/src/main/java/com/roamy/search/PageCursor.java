@@ -0,0 +1,58 @@
+package com.roamy.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. It records the sort it was issued for
+ * together with the sort key and id of the last row returned, so the next page starts
+ * strictly after that row instead of skipping an offset.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PageCursor {
+    
+    private static final String VERSION = "v1";
+    
+    private final String sort;
+    private final BigDecimal sortKey;
+    private final long id;
+    
+    public String encode() {
+        String raw = String.join("|", VERSION, sort, sortKey.toPlainString(), Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a token previously produced by {@link #encode()}. Returns null for a blank token
+     * (first page) and rejects tokens that are malformed or were issued for a different sort.
+     */
+    public static PageCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (!parts[1].equals(expectedSort)) {
+            throw new IllegalArgumentException("Page cursor was issued for a different sort order");
+        }
+        
+        try {
+            return new PageCursor(parts[1], new BigDecimal(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.roamy.search;
+
+import java.util.Arrays;
+
+/**
+ * Skyline of items with one cost to minimise and two benefits to maximise: the items no other
+ * item beats on all three at once. For hotels that is "nothing is cheaper, better rated and
+ * higher starred", i.e. the best-value choices at every price.
+ *
+ * Items are swept cheapest first, so an item is dominated exactly when some earlier item is at
+ * least as good on both benefits. The best first benefit seen so far at or above each level of
+ * the second benefit is kept in a Fenwick tree of prefix maxima, which answers that question in
+ * O(log n). Together with the sort the whole frontier costs O(n log n), on primitive arrays.
+ */
+public final class ParetoFrontier {
+    
+    private ParetoFrontier() {
+    }
+    
+    /**
+     * Returns the indexes of the non-dominated items, cheapest first. Missing values must be
+     * passed as the worst possible value: positive infinity for the cost, negative infinity for
+     * the benefits. Items equal on all three values do not dominate each other.
+     */
+    public static int[] of(double[] cost, double[] benefitA, double[] benefitB) {
+        int n = cost.length;
+        if (benefitA.length != n || benefitB.length != n) {
+            throw new IllegalArgumentException("cost and benefits must have the same length");
+        }
+        
+        // Cheapest first; equal costs best-first, so a dominating item is always seen earlier
+        int[] order = sortedIndexes(n, (x, y) -> {
+            int byCost = Double.compare(cost[x], cost[y]);
+            if (byCost != 0) {
+                return byCost;
+            }
+            int byA = Double.compare(benefitA[y], benefitA[x]);
+            return byA != 0 ? byA : Double.compare(benefitB[y], benefitB[x]);
+        });
+        
+        // Benefits as dense ranks: the first from 1 for its lowest value, the second from 1 for
+        // its highest, so 0 can stand for "no item seen yet" in the tree
+        double[] distinctA = Arrays.stream(benefitA).distinct().sorted().toArray();
+        double[] distinctB = Arrays.stream(benefitB).distinct().sorted().toArray();
+        int[] bestA = new int[distinctB.length + 1];
+        
+        int[] frontier = new int[n];
+        int size = 0;
+        int group = 0;
+        while (group < n) {
+            // Items equal on every value are judged together, so they cannot knock each other out
+            int end = group + 1;
+            while (end < n && same(order[group], order[end], cost, benefitA, benefitB)) {
+                end++;
+            }
+            
+            int item = order[group];
+            int rankA = Arrays.binarySearch(distinctA, benefitA[item]) + 1;
+            int rankB = distinctB.length - Arrays.binarySearch(distinctB, benefitB[item]);
+            if (maxUpTo(bestA, rankB) < rankA) {
+                for (int i = group; i < end; i++) {
+                    frontier[size++] = order[i];
+                }
+            }
+            update(bestA, rankB, rankA);
+            group = end;
+        }
+        return Arrays.copyOf(frontier, size);
+    }
+    
+    private static boolean same(int x, int y, double[] cost, double[] benefitA, double[] benefitB) {
+        return cost[x] == cost[y] && benefitA[x] == benefitA[y] && benefitB[x] == benefitB[y];
+    }
+    
+    /**
+     * Highest first-benefit rank among items whose second benefit ranks at {@code rank} or
+     * better; 0 when there are none.
+     */
+    private static int maxUpTo(int[] tree, int rank) {
+        int max = 0;
+        for (int i = rank; i > 0; i -= i & -i) {
+            max = Math.max(max, tree[i]);
+        }
+        return max;
+    }
+    
+    private static void update(int[] tree, int rank, int value) {
+        for (int i = rank; i < tree.length; i += i & -i) {
+            tree[i] = Math.max(tree[i], value);
+        }
+    }
+    
+    private static int[] sortedIndexes(int n, IndexComparator comparator) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        mergeSort(indexes, new int[n], 0, n, comparator);
+        return indexes;
+    }
+    
+    private static void mergeSort(int[] a, int[] buffer, int from, int to, IndexComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(a, buffer, from, middle, comparator);
+        mergeSort(a, buffer, middle, to, comparator);
+        if (comparator.compare(a[middle - 1], a[middle]) <= 0) {
+            return;
+        }
+        
+        System.arraycopy(a, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                a[i] = buffer[left++];
+            } else {
+                a[i] = buffer[right++];
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int x, int y);
+    }
+}
@@ -0,0 +1,95 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchRequestDTO;
+import com.roamy.dto.SearchResponseDTO;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A place search whose destination has been resolved and whose remaining sections are still
+ * running. Callers either wait for everything with {@link #toResponse()} or stream each
+ * section as its future completes.
+ */
+@Getter
+public class PlaceSearch {
+    
+    private final String searchId = UUID.randomUUID().toString();
+    private final SearchRequestDTO request;
+    private final int pageSize;
+    private final SearchFanOut fanOut;
+    private final long startTime;
+    private final SearchResponseDTO.DestinationDTO destination;
+    private final CompletableFuture<CursorPage<SearchResponseDTO.HotelDTO>> hotels;
+    private final CompletableFuture<List<SearchResponseDTO.AttractionDTO>> attractions;
+    private final CompletableFuture<List<SearchResponseDTO.TransportOptionDTO>> transportOptions;
+    private final CompletableFuture<SearchResponseDTO.FacetsDTO> facets;
+    
+    public PlaceSearch(SearchRequestDTO request, int pageSize, SearchFanOut fanOut, long startTime,
+                       SearchResponseDTO.DestinationDTO destination,
+                       CompletableFuture<CursorPage<SearchResponseDTO.HotelDTO>> hotels,
+                       CompletableFuture<List<SearchResponseDTO.AttractionDTO>> attractions,
+                       CompletableFuture<List<SearchResponseDTO.TransportOptionDTO>> transportOptions,
+                       CompletableFuture<SearchResponseDTO.FacetsDTO> facets) {
+        this.request = request;
+        this.pageSize = pageSize;
+        this.fanOut = fanOut;
+        this.startTime = startTime;
+        this.destination = destination;
+        this.hotels = hotels;
+        this.attractions = attractions;
+        this.transportOptions = transportOptions;
+        this.facets = facets;
+    }
+    
+    /**
+     * Metadata for the finished search; waits for any section that is still running. Sections
+     * never fail - a late or failed section completes with its empty fallback (null for facets).
+     */
+    public SearchResponseDTO.SearchMetaDataDTO metadata() {
+        CursorPage<SearchResponseDTO.HotelDTO> hotelPage = hotels.join();
+        return SearchResponseDTO.SearchMetaDataDTO.builder()
+                .totalResults(hotelPage.getItems().size() + attractions.join().size())
+                .currentPage(request.getPage())
+                .pageSize(pageSize)
+                .nextCursor(hotelPage.getNextCursor())
+                .sortBy(request.getSortBy())
+                .sortOrder(request.getSortOrder())
+                .searchTimeMs(System.currentTimeMillis() - startTime)
+                .searchId(searchId)
+                .degradedSections(fanOut.getDegradedSections())
+                .sectionTimingsMs(fanOut.getSectionTimingsMs())
+                .build();
+    }
+    
+    /**
+     * Milliseconds until the slowest running section reaches its deadline.
+     */
+    public long millisUntilLastDeadline() {
+        return fanOut.millisUntilLastDeadline();
+    }
+    
+    /**
+     * Stops the sections that are still running, e.g. because the client went away; each
+     * completes with its empty fallback.
+     */
+    public void cancel() {
+        fanOut.cancel();
+    }
+    
+    /**
+     * Waits for all sections and assembles the complete response.
+     */
+    public SearchResponseDTO toResponse() {
+        return SearchResponseDTO.builder()
+                .destinations(List.of(destination))
+                .hotels(hotels.join().getItems())
+                .attractions(attractions.join())
+                .transportOptions(transportOptions.join())
+                .facets(facets.join())
+                .metadata(metadata())
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.roamy.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie where every node carries the ids of its best-scored entries.
+ * A lookup walks at most {@code prefix.length()} nodes and returns a precomputed list,
+ * so the cost of a suggestion does not depend on how many entries share the prefix.
+ *
+ * Instances are built once through {@link Builder} and are safe to share between threads.
+ */
+public class PrefixTrie {
+    
+    private static final long[] NO_IDS = new long[0];
+    
+    private final Node root;
+    private final int capacity;
+    
+    private PrefixTrie(Node root, int capacity) {
+        this.root = root;
+        this.capacity = capacity;
+    }
+    
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+    
+    public static PrefixTrie empty(int capacity) {
+        return builder(capacity).build();
+    }
+    
+    /**
+     * Returns up to {@code limit} entry ids whose keys start with the prefix, best score first.
+     */
+    public long[] lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return NO_IDS;
+        }
+        
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return NO_IDS;
+        }
+        return Arrays.copyOf(node.topIds, Math.min(Math.max(limit, 0), node.topIds.length));
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    static String normalize(String value) {
+        return TextNormalizer.fold(value);
+    }
+    
+    private static final class Node {
+        
+        private final char[] labels;
+        private final Node[] children;
+        private final long[] topIds;
+        
+        private Node(char[] labels, Node[] children, long[] topIds) {
+            this.labels = labels;
+            this.children = children;
+            this.topIds = topIds;
+        }
+        
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+    
+    public static final class Builder {
+        
+        private final int capacity;
+        private final MutableNode root;
+        
+        private Builder(int capacity) {
+            this.capacity = capacity;
+            this.root = new MutableNode(capacity);
+        }
+        
+        /**
+         * Adds a key for the entry. Every word start inside the key is indexed too, so
+         * "new york" is reachable from both "new" and "york".
+         */
+        public Builder add(String key, long id, long score) {
+            String normalized = normalize(key);
+            for (int start = 0; start < normalized.length(); start++) {
+                if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                    insert(normalized, start, id, score);
+                }
+            }
+            return this;
+        }
+        
+        public PrefixTrie build() {
+            return new PrefixTrie(root.freeze(), capacity);
+        }
+        
+        private void insert(String key, int start, long id, long score) {
+            MutableNode node = root;
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new MutableNode(capacity));
+                node.offer(id, score);
+            }
+        }
+    }
+    
+    private static final class MutableNode {
+        
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private final long[] ids;
+        private final long[] scores;
+        private int size;
+        
+        private MutableNode(int capacity) {
+            this.ids = new long[capacity];
+            this.scores = new long[capacity];
+        }
+        
+        /**
+         * Keeps the node's ids ordered by descending score (ties by ascending id), bounded by capacity.
+         */
+        private void offer(long id, long score) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    if (scores[i] >= score) {
+                        return;
+                    }
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(scores, i + 1, scores, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+            
+            int position = size;
+            while (position > 0 && ranksBefore(id, score, ids[position - 1], scores[position - 1])) {
+                position--;
+            }
+            if (position >= ids.length) {
+                return;
+            }
+            
+            int moved = Math.min(size, ids.length - 1) - position;
+            System.arraycopy(ids, position, ids, position + 1, moved);
+            System.arraycopy(scores, position, scores, position + 1, moved);
+            ids[position] = id;
+            scores[position] = score;
+            size = Math.min(size + 1, ids.length);
+        }
+        
+        private static boolean ranksBefore(long id, long score, long otherId, long otherScore) {
+            return score > otherScore || (score == otherScore && id < otherId);
+        }
+        
+        private Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node(labels, frozen, Arrays.copyOf(ids, size));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.roamy.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weighted combination of {@link Scorer}s. Each signal is evaluated into a primitive array,
+ * min-max scaled to [0, 1] across the candidates so signals with different units can be mixed,
+ * and added to the total with its weight. Items missing a signal score -1 for it, which keeps
+ * them behind every item that has one.
+ *
+ * Rankers are immutable; {@link #and} returns a new ranker with one more signal.
+ */
+public final class Ranker<T> {
+    
+    private final List<Scorer<T>> scorers;
+    private final double[] weights;
+    
+    private Ranker(List<Scorer<T>> scorers, double[] weights) {
+        this.scorers = scorers;
+        this.weights = weights;
+    }
+    
+    public static <T> Ranker<T> by(Scorer<T> scorer) {
+        return new Ranker<T>(List.of(), new double[0]).and(scorer, 1.0);
+    }
+    
+    public Ranker<T> and(Scorer<T> scorer, double weight) {
+        List<Scorer<T>> combined = new ArrayList<>(scorers);
+        combined.add(scorer);
+        double[] combinedWeights = Arrays.copyOf(weights, weights.length + 1);
+        combinedWeights[weights.length] = weight;
+        return new Ranker<>(List.copyOf(combined), combinedWeights);
+    }
+    
+    /**
+     * Combined score of every item, aligned with the input list.
+     */
+    public double[] score(List<T> items) {
+        int n = items.size();
+        double[] total = new double[n];
+        double[] raw = new double[n];
+        for (int s = 0; s < scorers.size(); s++) {
+            Scorer<T> scorer = scorers.get(s);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                raw[i] = scorer.score(items.get(i));
+                if (raw[i] != Double.NEGATIVE_INFINITY) {
+                    min = Math.min(min, raw[i]);
+                    max = Math.max(max, raw[i]);
+                }
+            }
+            double range = max - min;
+            for (int i = 0; i < n; i++) {
+                double scaled;
+                if (raw[i] == Double.NEGATIVE_INFINITY) {
+                    scaled = -1;
+                } else {
+                    scaled = range > 0 ? (raw[i] - min) / range : 0;
+                }
+                total[i] += weights[s] * scaled;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * The {@code k} best items, best first. Equal scores keep input order.
+     */
+    public List<T> top(List<T> items, int k) {
+        int[] indexes = TopK.select(score(items), k);
+        List<T> picked = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            picked.add(items.get(index));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,79 @@
+package com.roamy.search;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * One ranking signal. A scorer maps an item to a raw score where higher is always better, so
+ * "cheapest first" is expressed as a negated price. {@link Ranker} scales each signal before
+ * weighting, so raw scores only need to be comparable among themselves.
+ */
+@FunctionalInterface
+public interface Scorer<T> {
+    
+    double score(T item);
+    
+    /**
+     * Reverses the preference, e.g. to rank the most expensive items first. Items missing the
+     * value still rank last.
+     */
+    default Scorer<T> reversed() {
+        return item -> {
+            double score = score(item);
+            return score == Double.NEGATIVE_INFINITY ? score : -score;
+        };
+    }
+    
+    /**
+     * Lower values rank first; missing values rank last.
+     */
+    static <T> Scorer<T> lowest(Function<T, BigDecimal> value) {
+        return item -> {
+            BigDecimal v = value.apply(item);
+            return v != null ? -v.doubleValue() : Double.NEGATIVE_INFINITY;
+        };
+    }
+    
+    /**
+     * Higher values rank first; missing values rank last.
+     */
+    static <T> Scorer<T> highest(Function<T, BigDecimal> value) {
+        return item -> {
+            BigDecimal v = value.apply(item);
+            return v != null ? v.doubleValue() : Double.NEGATIVE_INFINITY;
+        };
+    }
+    
+    /**
+     * Closest to the given point first; items without coordinates rank last.
+     */
+    static <T> Scorer<T> nearest(double latitude, double longitude,
+                                 Function<T, BigDecimal> itemLatitude, Function<T, BigDecimal> itemLongitude) {
+        return item -> {
+            BigDecimal lat = itemLatitude.apply(item);
+            BigDecimal lon = itemLongitude.apply(item);
+            if (lat == null || lon == null) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return -GeoIndex.distanceKm(latitude, longitude, lat.doubleValue(), lon.doubleValue());
+        };
+    }
+    
+    /**
+     * Review volume on a log scale, so a few thousand extra reviews do not drown every other signal.
+     */
+    static <T> Scorer<T> popularity(Function<T, Integer> reviewCount) {
+        return item -> {
+            Integer reviews = reviewCount.apply(item);
+            return Math.log1p(reviews != null ? Math.max(0, reviews) : 0);
+        };
+    }
+    
+    /**
+     * Number of the requested interests the item matches.
+     */
+    static <T> Scorer<T> interestMatches(int interestMask, ToIntFunction<T> itemMask) {
+        return item -> InterestMaskIndex.matchCount(itemMask.applyAsInt(item), interestMask);
+    }
+}
@@ -0,0 +1,127 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchRequestDTO;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical cache keys for the sections of a place search and for price calendars. Each
+ * section only keys on the request fields that influence its result, strings are trimmed and
+ * case-folded and lists are treated as sets, so requests that differ only in casing, ordering
+ * or unrelated fields share a cache entry.
+ */
+public final class SearchCacheKey {
+    
+    private SearchCacheKey() {
+    }
+    
+    /**
+     * Keys the hotels section on the resolved stay, whose party size filters the rooms, and on
+     * the adults count that provider searches are sent.
+     */
+    public static String forHotels(SearchRequestDTO request, HotelAvailabilityIndex.Stay stay, int pageSize) {
+        return new Joiner()
+                .add("to", text(request.getToLocation()))
+                .add("in", stay != null ? stay.getCheckIn() : null)
+                .add("out", stay != null ? stay.getCheckOut() : null)
+                .add("guests", stay != null ? stay.getGuests() : null)
+                .add("adults", request.getNumberOfAdults())
+                .add("minBudget", request.getMinBudget())
+                .add("maxBudget", request.getMaxBudget())
+                .add("currency", code(request.getBudgetCurrency()))
+                .add("minRating", request.getMinHotelRating())
+                .add("amenities", set(request.getRequiredAmenities()))
+                .add("sort", text(request.getSortBy()) + ":" + text(request.getSortOrder()))
+                .add("origin", origin(request))
+                .add("size", pageSize)
+                .add("cursor", request.getCursor())
+                .toString();
+    }
+    
+    public static String forAttractions(SearchRequestDTO request, int pageSize) {
+        return new Joiner()
+                .add("to", text(request.getToLocation()))
+                .add("interests", set(request.getInterests()))
+                .add("sort", text(request.getSortBy()) + ":" + text(request.getSortOrder()))
+                .add("origin", origin(request))
+                .add("size", pageSize)
+                .toString();
+    }
+    
+    public static String forTransport(SearchRequestDTO request) {
+        return new Joiner()
+                .add("from", text(request.getFromLocation()))
+                .add("to", text(request.getToLocation()))
+                .toString();
+    }
+    
+    /**
+     * Keys a price calendar on the availability index version it was computed from, so a room
+     * or booking change makes every cached month miss instead of offering a taken night.
+     */
+    public static String forPriceCalendar(Long destinationId, Long hotelId, YearMonth month, int nights, int guests,
+                                          String currency, long availabilityVersion) {
+        return new Joiner()
+                .add("availability", availabilityVersion)
+                .add("destination", destinationId)
+                .add("hotel", hotelId)
+                .add("month", month)
+                .add("nights", nights)
+                .add("guests", guests)
+                .add("currency", code(currency))
+                .toString();
+    }
+    
+    private static String text(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+    
+    private static String origin(SearchRequestDTO request) {
+        // The reference point only changes the result of distance sorts
+        if (!"distance".equals(text(request.getSortBy())) || request.getLatitude() == null || request.getLongitude() == null) {
+            return null;
+        }
+        return request.getLatitude() + "," + request.getLongitude();
+    }
+    
+    private static String code(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    private static String set(Collection<?> values) {
+        if (values == null) {
+            return "";
+        }
+        TreeSet<String> canonical = values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> text(value.toString()))
+                .collect(Collectors.toCollection(TreeSet::new));
+        return canonical.isEmpty() ? "" : canonical.toString();
+    }
+    
+    private static final class Joiner {
+        
+        private final StringBuilder key = new StringBuilder();
+        
+        private Joiner add(String name, Object value) {
+            if (value == null || "".equals(value)) {
+                return this;
+            }
+            if (key.length() > 0) {
+                key.append('|');
+            }
+            key.append(name).append('=').append(value);
+            return this;
+        }
+        
+        @Override
+        public String toString() {
+            return key.toString();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.roamy.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool shared by all search fan-outs. The queue is bounded too, so under
+ * overload new sections are rejected (and reported as degraded) instead of piling up.
+ *
+ * The pool is owned here rather than exposed as an {@code Executor} bean so it does not
+ * replace Spring Boot's default application task executor.
+ */
+@Component
+@Slf4j
+public class SearchExecutor implements DisposableBean {
+    
+    private final ThreadPoolExecutor executor;
+    
+    public SearchExecutor(@Value("${search.fanout.pool-size:16}") int poolSize,
+                          @Value("${search.fanout.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    public SearchFanOut newFanOut() {
+        return new SearchFanOut(executor);
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Search executor shut down");
+    }
+}
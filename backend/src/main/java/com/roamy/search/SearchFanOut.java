@@ -0,0 +1,224 @@
+package com.roamy.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of one search request concurrently. Every section gets its
+ * own deadline; a section that times out, fails or is rejected by a saturated pool completes
+ * with its fallback value and is reported as degraded instead of failing the whole search.
+ * A section past its deadline is also cancelled, and {@link #cancel()} cancels every unfinished
+ * section at once when nobody is waiting for the results any more.
+ *
+ * Cancelling never interrupts cache or database I/O: a Redis client or JDBC connection
+ * interrupted mid-call may be left unusable. Only calls wrapped in {@link #interruptibly}, such
+ * as requests to external providers, are interrupted, so the section gives its pool thread back
+ * instead of waiting for a slow provider. Everywhere else the section runs on until its next
+ * interruptible call, which then stops it.
+ */
+@Slf4j
+public class SearchFanOut {
+    
+    private final ExecutorService executor;
+    private final Map<String, Long> sectionTimingsMs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<String> degradedSections = Collections.synchronizedList(new ArrayList<>());
+    private final List<CompletableFuture<?>> sections = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong lastDeadlineNanos = new AtomicLong(System.nanoTime());
+    
+    SearchFanOut(ExecutorService executor) {
+        this.executor = executor;
+    }
+    
+    public <T> CompletableFuture<T> fork(String section, Supplier<T> task, long timeoutMs, T fallback) {
+        long startNanos = System.nanoTime();
+        lastDeadlineNanos.accumulateAndGet(startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMs), Math::max);
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        sections.add(future);
+        Cancellation cancellation = new Cancellation();
+        try {
+            cancellation.setTask(executor.submit(() -> {
+                cancellation.start();
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    cancellation.finish();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        
+        return future
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((value, error) -> {
+                    sectionTimingsMs.put(section, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    if (error == null) {
+                        return value;
+                    }
+                    // Only a deadline or cancel() fails the future while the task still runs; it is
+                    // stopped before anyone sees the fallback
+                    cancellation.cancel();
+                    degradedSections.add(section);
+                    log.warn("Search section '{}' degraded: {}", section, describe(error));
+                    return fallback;
+                });
+    }
+    
+    /**
+     * Stops every section that has not finished yet; each completes with its fallback. Sections
+     * that already finished are not affected, so this is safe to call more than once.
+     */
+    public void cancel() {
+        List<CompletableFuture<?>> running;
+        synchronized (sections) {
+            running = new ArrayList<>(sections);
+        }
+        running.forEach(future -> future.completeExceptionally(new CancellationException("search cancelled")));
+    }
+    
+    /**
+     * Runs a call that is safe to abandon mid-way, typically a request to an external provider.
+     * While a section is inside the call, cancelling the section interrupts its thread; once the
+     * section is cancelled, the call throws {@link CancellationException} instead of returning a
+     * result the provider may have cut short. Outside a section the call simply runs.
+     */
+    public static <T> T interruptibly(Supplier<T> call) {
+        Cancellation cancellation = Cancellation.CURRENT.get();
+        if (cancellation == null) {
+            return call.get();
+        }
+        cancellation.enterInterruptible();
+        try {
+            return call.get();
+        } finally {
+            cancellation.leaveInterruptible();
+        }
+    }
+    
+    /**
+     * Milliseconds until the last forked section reaches its deadline, 0 once all have passed.
+     */
+    public long millisUntilLastDeadline() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(lastDeadlineNanos.get() - System.nanoTime()));
+    }
+    
+    /**
+     * Records the duration of a section that ran synchronously on the request thread.
+     */
+    public <T> T time(String section, Supplier<T> task) {
+        long startNanos = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            sectionTimingsMs.put(section, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+    
+    public Map<String, Long> getSectionTimingsMs() {
+        synchronized (sectionTimingsMs) {
+            return new LinkedHashMap<>(sectionTimingsMs);
+        }
+    }
+    
+    public List<String> getDegradedSections() {
+        synchronized (degradedSections) {
+            return new ArrayList<>(degradedSections);
+        }
+    }
+    
+    /**
+     * Cancellation state of one running section. The thread is only interrupted while it is
+     * inside an {@link #interruptibly} call; entering and leaving such a call are the points
+     * at which a cancelled section stops.
+     */
+    private static final class Cancellation {
+        
+        private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+        
+        private Future<?> task;
+        private Thread thread;
+        private boolean interruptible;
+        private boolean cancelled;
+        
+        private synchronized void setTask(Future<?> task) {
+            this.task = task;
+            if (cancelled) {
+                task.cancel(false);
+            }
+        }
+        
+        private void start() {
+            synchronized (this) {
+                thread = Thread.currentThread();
+            }
+            CURRENT.set(this);
+        }
+        
+        private void finish() {
+            CURRENT.remove();
+            synchronized (this) {
+                thread = null;
+                interruptible = false;
+            }
+        }
+        
+        private synchronized void cancel() {
+            cancelled = true;
+            if (interruptible && thread != null) {
+                thread.interrupt();
+            }
+            if (task != null) {
+                // Drops the task if it is still queued; a running task is never interrupted here
+                task.cancel(false);
+            }
+        }
+        
+        private synchronized void enterInterruptible() {
+            if (cancelled) {
+                throw new CancellationException("search section cancelled");
+            }
+            interruptible = true;
+        }
+        
+        private synchronized void leaveInterruptible() {
+            interruptible = false;
+            if (cancelled) {
+                // Clears the interrupt, if it arrived, before the section reaches cache or database I/O
+                Thread.interrupted();
+                throw new CancellationException("search section cancelled");
+            }
+        }
+    }
+    
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "deadline exceeded";
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return "search pool saturated";
+        }
+        if (cause instanceof CancellationException) {
+            return "cancelled";
+        }
+        return cause.toString();
+    }
+}
@@ -0,0 +1,280 @@
+package com.roamy.search;
+
+import com.roamy.entity.SearchHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for {@link SearchHistory}. Searches only enqueue a row into a bounded
+ * in-memory queue; a single background thread drains it and writes whole batches with JDBC
+ * batch inserts, so recording history never adds a database round trip to the search path.
+ *
+ * When the queue is full the configured {@link OverflowPolicy} decides what happens, and
+ * whatever is still queued is flushed when the application shuts down.
+ */
+@Component
+@Slf4j
+public class SearchHistoryWriter implements DisposableBean {
+    
+    private static final String INSERT_SEARCH =
+            "INSERT INTO search_history (user_id, from_location, to_location, check_in_date, check_out_date, " +
+            "number_of_guests, number_of_adults, number_of_children, min_budget, max_budget, budget_currency, " +
+            "hotel_min_rating, hotel_max_rating, room_type, results_count, search_date, converted_to_booking) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingSearch> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final long blockTimeoutMs;
+    private final Thread writerThread;
+    private final AtomicLong dropped = new AtomicLong();
+    
+    private volatile boolean running = true;
+    
+    public SearchHistoryWriter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${search.history.queue-capacity:10000}") int queueCapacity,
+                               @Value("${search.history.batch-size:200}") int batchSize,
+                               @Value("${search.history.flush-interval:1s}") Duration flushInterval,
+                               @Value("${search.history.overflow-policy:SAMPLE}") OverflowPolicy overflowPolicy,
+                               @Value("${search.history.sample-rate:10}") int sampleRate,
+                               @Value("${search.history.block-timeout:50ms}") Duration blockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushInterval.toMillis();
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.blockTimeoutMs = blockTimeout.toMillis();
+        
+        this.writerThread = new Thread(this::drainLoop, "search-history-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    
+    /**
+     * Queues a search for writing. Never touches the database; depending on the overflow policy
+     * it may wait briefly for space (BLOCK) or discard the row (DROP, SAMPLE).
+     *
+     * @param userEmail email of the authenticated user, or null for anonymous searches
+     */
+    public void enqueue(SearchHistory history, String userEmail) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        
+        PendingSearch pending = new PendingSearch(history, userEmail);
+        boolean accepted;
+        switch (overflowPolicy) {
+            case BLOCK -> accepted = offerWithTimeout(pending);
+            case SAMPLE -> {
+                // Past three quarters full, keep only one search in every sampleRate
+                boolean underPressure = queue.remainingCapacity() < queue.size() / 3;
+                accepted = (!underPressure || ThreadLocalRandom.current().nextInt(sampleRate) == 0) && queue.offer(pending);
+            }
+            default -> accepted = queue.offer(pending);
+        }
+        if (!accepted) {
+            dropped.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Searches discarded so far because the queue was full or the writer had stopped.
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    @Override
+    public void destroy() throws InterruptedException {
+        // The writer notices within one flush interval, then flushes what is left in the queue
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        log.info("Search history writer stopped ({} searches dropped in total)", dropped.get());
+    }
+    
+    private boolean offerWithTimeout(PendingSearch pending) {
+        try {
+            return queue.offer(pending, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void drainLoop() {
+        List<PendingSearch> batch = new ArrayList<>(batchSize);
+        long reportedDrops = 0;
+        while (running) {
+            try {
+                PendingSearch first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} search history rows: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+            
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                log.warn("Search history queue full, {} searches dropped so far", drops);
+                reportedDrops = drops;
+            }
+        }
+        
+        // Flush whatever is still queued
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} search history rows on shutdown: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+    
+    private void writeBatch(List<PendingSearch> batch) {
+        Map<String, Long> userIds = resolveUserIds(batch);
+        transactionTemplate.executeWithoutResult(status -> {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SEARCH, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bindSearch(ps, batch.get(i), userIds);
+                        }
+                        
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            List<Object[]> interests = new ArrayList<>();
+            List<Object[]> amenities = new ArrayList<>();
+            List<Object[]> transportTypes = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                long id = ((Number) keyList.get(i).values().iterator().next()).longValue();
+                SearchHistory history = batch.get(i).history;
+                history.getSelectedInterests().forEach(value -> interests.add(new Object[]{id, value.name()}));
+                history.getRequiredAmenities().forEach(value -> amenities.add(new Object[]{id, value.name()}));
+                history.getPreferredTransportTypes().forEach(value -> transportTypes.add(new Object[]{id, value.name()}));
+            }
+            if (!interests.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO search_interests (search_history_id, interest) VALUES (?, ?)", interests);
+            }
+            if (!amenities.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO search_amenities (search_history_id, amenity) VALUES (?, ?)", amenities);
+            }
+            if (!transportTypes.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO search_transport_types (search_history_id, transport_type) VALUES (?, ?)", transportTypes);
+            }
+        });
+        log.debug("Wrote {} search history rows", batch.size());
+    }
+    
+    private Map<String, Long> resolveUserIds(List<PendingSearch> batch) {
+        Set<String> emails = new HashSet<>();
+        for (PendingSearch pending : batch) {
+            if (pending.userEmail != null) {
+                emails.add(pending.userEmail);
+            }
+        }
+        Map<String, Long> userIds = new HashMap<>();
+        if (!emails.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)", Map.of("emails", emails),
+                    rs -> {
+                        userIds.put(rs.getString("email"), rs.getLong("id"));
+                    });
+        }
+        return userIds;
+    }
+    
+    private static void bindSearch(PreparedStatement ps, PendingSearch pending, Map<String, Long> userIds) throws SQLException {
+        SearchHistory history = pending.history;
+        Long userId = pending.userEmail != null ? userIds.get(pending.userEmail) : null;
+        
+        ps.setObject(1, userId, Types.BIGINT);
+        ps.setString(2, history.getFromLocation());
+        ps.setString(3, history.getToLocation());
+        ps.setDate(4, history.getCheckInDate() != null ? Date.valueOf(history.getCheckInDate()) : null);
+        ps.setDate(5, history.getCheckOutDate() != null ? Date.valueOf(history.getCheckOutDate()) : null);
+        ps.setObject(6, history.getNumberOfGuests(), Types.INTEGER);
+        ps.setObject(7, history.getNumberOfAdults(), Types.INTEGER);
+        ps.setObject(8, history.getNumberOfChildren(), Types.INTEGER);
+        ps.setObject(9, history.getMinBudget(), Types.DOUBLE);
+        ps.setObject(10, history.getMaxBudget(), Types.DOUBLE);
+        ps.setString(11, history.getBudgetCurrency());
+        ps.setObject(12, history.getHotelMinRating(), Types.INTEGER);
+        ps.setObject(13, history.getHotelMaxRating(), Types.INTEGER);
+        ps.setString(14, history.getPreferredRoomType() != null ? history.getPreferredRoomType().name() : null);
+        ps.setObject(15, history.getResultsCount(), Types.INTEGER);
+        ps.setTimestamp(16, Timestamp.valueOf(history.getSearchDate()));
+        ps.setBoolean(17, Boolean.TRUE.equals(history.getConvertedToBooking()));
+    }
+    
+    public enum OverflowPolicy {
+        /** Discard new searches while the queue is full. */
+        DROP,
+        /** Keep accepting a sample of searches once the queue is mostly full, then drop. */
+        SAMPLE,
+        /** Wait up to the block timeout for space, then drop. */
+        BLOCK
+    }
+    
+    private static final class PendingSearch {
+        
+        private final SearchHistory history;
+        private final String userEmail;
+        
+        private PendingSearch(SearchHistory history, String userEmail) {
+            this.history = history;
+            this.userEmail = userEmail;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.roamy.search;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roamy.dto.SearchResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for the sections of a place search: a size-bounded local Caffeine tier in
+ * front of the shared Redis tier. Every section has its own TTL, since hotel prices go stale
+ * much faster than attraction listings.
+ *
+ * Redis is optional. When it is disabled or unreachable the cache keeps serving from the
+ * local tier and only retries Redis after a back-off, so an outage never slows searches down.
+ * Price calendars stay in the local tier only: they are keyed on this instance's availability
+ * index, which other instances do not share.
+ *
+ * Cached values are shared between requests and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+    
+    private static final String REDIS_KEY_PREFIX = "roamy:search:";
+    
+    private final Map<Section, Cache<String, Object>> localTiers = new EnumMap<>(Section.class);
+    private final Map<Section, Duration> ttls = new EnumMap<>(Section.class);
+    private final Map<Section, JavaType> valueTypes = new EnumMap<>(Section.class);
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final long redisRetryAfterMs;
+    
+    private volatile long redisUnavailableUntil;
+    
+    public SearchResultCache(ObjectProvider<StringRedisTemplate> redisTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${search.cache.redis-enabled:false}") boolean redisEnabled,
+                             @Value("${search.cache.redis-retry-after:30s}") Duration redisRetryAfter,
+                             @Value("${search.cache.local-max-entries:10000}") long localMaxEntries,
+                             @Value("${search.cache.hotels-ttl:5m}") Duration hotelsTtl,
+                             @Value("${search.cache.attractions-ttl:30m}") Duration attractionsTtl,
+                             @Value("${search.cache.transport-ttl:2m}") Duration transportTtl,
+                             @Value("${search.cache.price-calendar-ttl:5m}") Duration priceCalendarTtl) {
+        this.redis = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.objectMapper = objectMapper;
+        this.redisRetryAfterMs = redisRetryAfter.toMillis();
+        
+        ttls.put(Section.HOTELS, hotelsTtl);
+        ttls.put(Section.ATTRACTIONS, attractionsTtl);
+        ttls.put(Section.TRANSPORT, transportTtl);
+        ttls.put(Section.PRICE_CALENDAR, priceCalendarTtl);
+        for (Section section : Section.values()) {
+            localTiers.put(section, Caffeine.newBuilder()
+                    .maximumSize(localMaxEntries)
+                    .expireAfterWrite(ttls.get(section))
+                    .build());
+        }
+        
+        valueTypes.put(Section.HOTELS, objectMapper.getTypeFactory()
+                .constructParametricType(CursorPage.class, SearchResponseDTO.HotelDTO.class));
+        valueTypes.put(Section.ATTRACTIONS, objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, SearchResponseDTO.AttractionDTO.class));
+        valueTypes.put(Section.TRANSPORT, objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, SearchResponseDTO.TransportOptionDTO.class));
+        valueTypes.put(Section.PRICE_CALENDAR, objectMapper.getTypeFactory()
+                .constructType(SearchResponseDTO.PriceCalendarDTO.class));
+    }
+    
+    /**
+     * Returns the cached value for the key, consulting the local tier and then Redis, or
+     * computes it with the loader and stores it in both tiers. Failed loads are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Section section, String key, Supplier<T> loader) {
+        Cache<String, Object> local = localTiers.get(section);
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        
+        T value = readRedis(section, key);
+        if (value == null) {
+            value = loader.get();
+            writeRedis(section, key, value);
+        }
+        if (value != null) {
+            local.put(key, value);
+        }
+        return value;
+    }
+    
+    private <T> T readRedis(Section section, String key) {
+        if (!section.shared || !redisAvailable()) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(REDIS_KEY_PREFIX + section.key + ":" + key);
+            return json != null ? objectMapper.readValue(json, valueTypes.get(section)) : null;
+        } catch (Exception e) {
+            markRedisUnavailable(e);
+            return null;
+        }
+    }
+    
+    private void writeRedis(Section section, String key, Object value) {
+        if (value == null || !section.shared || !redisAvailable()) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(REDIS_KEY_PREFIX + section.key + ":" + key,
+                    objectMapper.writeValueAsString(value), ttls.get(section));
+        } catch (Exception e) {
+            markRedisUnavailable(e);
+        }
+    }
+    
+    private boolean redisAvailable() {
+        return redis != null && System.currentTimeMillis() >= redisUnavailableUntil;
+    }
+    
+    private void markRedisUnavailable(Exception e) {
+        redisUnavailableUntil = System.currentTimeMillis() + redisRetryAfterMs;
+        log.warn("Redis search cache unavailable, using local tier only for {} ms: {}", redisRetryAfterMs, e.getMessage());
+    }
+    
+    public enum Section {
+        HOTELS("hotels", true), ATTRACTIONS("attractions", true), TRANSPORT("transport", true),
+        PRICE_CALENDAR("price-calendar", false);
+        
+        private final String key;
+        // Whether entries are also stored in Redis for other instances
+        private final boolean shared;
+        
+        Section(String key, boolean shared) {
+            this.key = key;
+            this.shared = shared;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.entity.User;
+import com.roamy.repository.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * "Places like this" for active destinations. Each destination is embedded as a feature vector
+ * of its daily cost tiers, climate, popular interests, rating and position, and its nearest
+ * neighbours in that space are precomputed on a background thread. Requests only read the
+ * precomputed lists, so they never compare destinations pairwise.
+ *
+ * A destination change schedules one rebuild after a short delay, so a burst of catalog edits
+ * is folded into a single recomputation. Until the first build finishes there are no neighbours.
+ */
+@Component
+@Slf4j
+public class SimilarDestinationIndex implements DisposableBean {
+    
+    private static final TravelClimate[] CLIMATES = TravelClimate.values();
+    private static final int INTERESTS = User.TravelInterest.values().length;
+    
+    // Feature weights, chosen so that each of these differences moves two destinations apart by
+    // about the same amount: a tenfold cost gap, another climate, four differing interests, two
+    // rating stars, or opposite sides of the globe
+    private static final double CLIMATE_WEIGHT = Math.sqrt(0.5);
+    private static final double INTEREST_WEIGHT = 0.5;
+    private static final double RATING_WEIGHT = 0.5;
+    private static final double POSITION_WEIGHT = 0.5;
+    
+    private final DestinationRepository destinationRepository;
+    private final InterestMaskIndex interestMaskIndex;
+    private final int neighbours;
+    private final long rebuildDelayMs;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    
+    private volatile Map<Long, long[]> similar = Map.of();
+    
+    public SimilarDestinationIndex(DestinationRepository destinationRepository,
+                                   InterestMaskIndex interestMaskIndex,
+                                   @Value("${search.similar.neighbours:10}") int neighbours,
+                                   @Value("${search.similar.rebuild-delay:5s}") Duration rebuildDelay) {
+        this.destinationRepository = destinationRepository;
+        this.interestMaskIndex = interestMaskIndex;
+        this.neighbours = neighbours;
+        this.rebuildDelayMs = rebuildDelay.toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similar-destinations");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild(0);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntity() instanceof Destination) {
+            scheduleRebuild(rebuildDelayMs);
+        }
+    }
+    
+    /**
+     * Returns the ids of up to {@code limit} destinations most similar to the given one, most
+     * similar first; empty for unknown or inactive destinations.
+     */
+    public List<Long> similarTo(Long destinationId, int limit) {
+        long[] ids = destinationId != null ? similar.get(destinationId) : null;
+        if (ids == null) {
+            return List.of();
+        }
+        return Arrays.stream(ids).limit(limit).boxed().toList();
+    }
+    
+    public int getNeighbours() {
+        return neighbours;
+    }
+    
+    void rebuild() {
+        rebuildPending.set(false);
+        List<Destination> destinations = destinationRepository.findByActiveTrue();
+        double[][] vectors = embed(destinations, destination -> interestMaskIndex.destinationMask(destination.getId()));
+        
+        Map<Long, long[]> rebuilt = new HashMap<>();
+        double[] scores = new double[destinations.size()];
+        for (int i = 0; i < destinations.size(); i++) {
+            for (int j = 0; j < destinations.size(); j++) {
+                scores[j] = -squaredDistance(vectors[i], vectors[j]);
+            }
+            int self = i;
+            int[] nearest = TopK.select(scores, neighbours, j -> j != self);
+            long[] ids = new long[nearest.length];
+            for (int n = 0; n < nearest.length; n++) {
+                ids[n] = destinations.get(nearest[n]).getId();
+            }
+            rebuilt.put(destinations.get(i).getId(), ids);
+        }
+        
+        similar = rebuilt;
+        log.info("Similar destinations computed for {} destinations", rebuilt.size());
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private void scheduleRebuild(long delayMs) {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.schedule(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Similar destinations rebuild failed, keeping the previous neighbours: {}", e.getMessage());
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * One feature vector per destination. Missing costs and ratings take the catalog average,
+     * so a gap in the data neither attracts nor repels other destinations.
+     */
+    static double[][] embed(List<Destination> destinations, ToIntFunction<Destination> interestMask) {
+        double budget = averageLog(destinations, Destination::getBudgetDailyCost);
+        double midRange = averageLog(destinations, Destination::getMidRangeDailyCost);
+        double luxury = averageLog(destinations, Destination::getLuxuryDailyCost);
+        double rating = average(destinations, Destination::getAverageRating);
+        
+        double[][] vectors = new double[destinations.size()][];
+        for (int i = 0; i < destinations.size(); i++) {
+            Destination destination = destinations.get(i);
+            double[] vector = new double[3 + CLIMATES.length + INTERESTS + 1 + 3];
+            int f = 0;
+            
+            vector[f++] = log(destination.getBudgetDailyCost(), budget);
+            vector[f++] = log(destination.getMidRangeDailyCost(), midRange);
+            vector[f++] = log(destination.getLuxuryDailyCost(), luxury);
+            
+            TravelClimate climate = TravelClimate.of(destination.getClimate());
+            if (climate != null) {
+                vector[f + climate.ordinal()] = CLIMATE_WEIGHT;
+            }
+            f += CLIMATES.length;
+            
+            int interests = interestMask.applyAsInt(destination);
+            for (int bit = 0; bit < INTERESTS; bit++) {
+                vector[f++] = (interests & (1 << bit)) != 0 ? INTEREST_WEIGHT : 0;
+            }
+            
+            vector[f++] = RATING_WEIGHT * (destination.getAverageRating() != null
+                    ? destination.getAverageRating().doubleValue() : rating);
+            
+            // Position on the unit sphere, so longitudes wrap around the antimeridian
+            if (destination.getLatitude() != null && destination.getLongitude() != null) {
+                double lat = Math.toRadians(destination.getLatitude().doubleValue());
+                double lon = Math.toRadians(destination.getLongitude().doubleValue());
+                vector[f++] = POSITION_WEIGHT * Math.cos(lat) * Math.cos(lon);
+                vector[f++] = POSITION_WEIGHT * Math.cos(lat) * Math.sin(lon);
+                vector[f] = POSITION_WEIGHT * Math.sin(lat);
+            }
+            vectors[i] = vector;
+        }
+        return vectors;
+    }
+    
+    static double squaredDistance(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            double d = a[i] - b[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+    
+    private static double log(BigDecimal cost, double fallback) {
+        return cost != null && cost.signum() > 0 ? Math.log10(cost.doubleValue()) : fallback;
+    }
+    
+    private static double averageLog(List<Destination> destinations, Function<Destination, BigDecimal> cost) {
+        return destinations.stream()
+                .map(cost)
+                .filter(value -> value != null && value.signum() > 0)
+                .mapToDouble(value -> Math.log10(value.doubleValue()))
+                .average()
+                .orElse(0);
+    }
+    
+    private static double average(List<Destination> destinations, Function<Destination, BigDecimal> value) {
+        return destinations.stream()
+                .map(value)
+                .filter(Objects::nonNull)
+                .mapToDouble(BigDecimal::doubleValue)
+                .average()
+                .orElse(0);
+    }
+    
+    /**
+     * Broad climate families; the free-text climate of a destination is matched by keyword.
+     */
+    enum TravelClimate {
+        // Checked in order, so "subtropical" is not taken for "tropical"
+        SUBTROPICAL("subtropical"),
+        TROPICAL("tropical"),
+        DESERT("desert", "arid"),
+        MEDITERRANEAN("mediterranean"),
+        CONTINENTAL("continental"),
+        TEMPERATE("temperate", "oceanic"),
+        ALPINE("alpine", "highland", "cold", "polar", "subarctic");
+        
+        private final String[] keywords;
+        
+        TravelClimate(String... keywords) {
+            this.keywords = keywords;
+        }
+        
+        static TravelClimate of(String climate) {
+            String folded = TextNormalizer.fold(climate);
+            for (TravelClimate family : values()) {
+                for (String keyword : family.keywords) {
+                    if (folded.contains(keyword)) {
+                        return family;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.roamy.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally et al.) over {@code long} items. It tracks at most
+ * {@code capacity} counters; when a new item arrives and all counters are taken, the item with
+ * the smallest count is replaced and the newcomer inherits that count. Any item occurring more
+ * than {@code n / capacity} times in a stream of {@code n} events is guaranteed to be tracked,
+ * and counts are overestimated by at most the inherited amount.
+ *
+ * Counters sharing a count are grouped in buckets kept in a doubly linked list ordered by count
+ * (the "stream-summary" layout), so every {@link #offer} is O(1). Not thread-safe.
+ */
+public class SpaceSavingSketch {
+    
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private Bucket minBucket;
+    
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+    
+    public void offer(long item) {
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+        
+        if (counters.size() < capacity) {
+            counter = new Counter(item);
+            counters.put(item, counter);
+            if (minBucket == null || minBucket.count != 1) {
+                Bucket ones = new Bucket(1);
+                ones.next = minBucket;
+                if (minBucket != null) {
+                    minBucket.prev = ones;
+                }
+                minBucket = ones;
+            }
+            minBucket.add(counter);
+            return;
+        }
+        
+        // Evict an item with the smallest count; the newcomer takes over its counter
+        Counter evicted = minBucket.head;
+        counters.remove(evicted.item);
+        evicted.item = item;
+        counters.put(item, evicted);
+        increment(evicted);
+    }
+    
+    public long count(long item) {
+        Counter counter = counters.get(item);
+        return counter != null ? counter.bucket.count : 0;
+    }
+    
+    public int size() {
+        return counters.size();
+    }
+    
+    public void clear() {
+        counters.clear();
+        minBucket = null;
+    }
+    
+    /**
+     * Visits every tracked item with its (over-)estimated count.
+     */
+    public void forEach(ObjLongConsumer<Long> consumer) {
+        for (Bucket bucket = minBucket; bucket != null; bucket = bucket.next) {
+            for (Counter counter = bucket.head; counter != null; counter = counter.next) {
+                consumer.accept(counter.item, bucket.count);
+            }
+        }
+    }
+    
+    private void increment(Counter counter) {
+        Bucket current = counter.bucket;
+        long newCount = current.count + 1;
+        
+        Bucket target = current.next;
+        if (target == null || target.count != newCount) {
+            target = new Bucket(newCount);
+            target.prev = current;
+            target.next = current.next;
+            if (current.next != null) {
+                current.next.prev = target;
+            }
+            current.next = target;
+        }
+        
+        current.remove(counter);
+        target.add(counter);
+        
+        if (current.head == null) {
+            unlink(current);
+        }
+    }
+    
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            minBucket = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+    
+    private static final class Counter {
+        
+        private long item;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+        
+        private Counter(long item) {
+            this.item = item;
+        }
+    }
+    
+    private static final class Bucket {
+        
+        private final long count;
+        private Counter head;
+        private Bucket prev;
+        private Bucket next;
+        
+        private Bucket(long count) {
+            this.count = count;
+        }
+        
+        private void add(Counter counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = head;
+            if (head != null) {
+                head.prev = counter;
+            }
+            head = counter;
+        }
+        
+        private void remove(Counter counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                head = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+        }
+    }
+}
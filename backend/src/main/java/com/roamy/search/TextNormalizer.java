@@ -0,0 +1,28 @@
+package com.roamy.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds free text to the form the in-memory search indexes are keyed by: compatibility
+ * decomposition (NFKD) with the combining marks dropped, so "Malé" and "Male" or "Gaudí" and
+ * "Gaudi" compare equal, then root-locale lower case with runs of whitespace collapsed.
+ */
+public final class TextNormalizer {
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private TextNormalizer() {
+    }
+    
+    public static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        String unmarked = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(unmarked.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+}
@@ -0,0 +1,96 @@
+package com.roamy.search;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Selects the indexes of the {@code k} highest scores with a bounded min-heap: O(n log k) time
+ * and O(k) space instead of sorting every candidate. Equal scores keep the lower index first,
+ * so callers that pass candidates in id order get a stable, id-tie-broken ranking.
+ */
+public final class TopK {
+    
+    private TopK() {
+    }
+    
+    public static int[] select(double[] scores, int k) {
+        return select(scores, k, index -> true);
+    }
+    
+    /**
+     * Like {@link #select(double[], int)} but only considers indexes accepted by {@code eligible}.
+     *
+     * @return the selected indexes, best first
+     */
+    public static int[] select(double[] scores, int k, IntPredicate eligible) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        
+        // heap[0] is the worst of the current best k
+        int[] heap = new int[Math.min(k, scores.length)];
+        int size = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (!eligible.test(i)) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++, scores);
+            } else if (size > 0 && better(i, heap[0], scores)) {
+                heap[0] = i;
+                siftDown(heap, size, scores);
+            }
+        }
+        
+        // Pop the worst repeatedly, filling the result from the back
+        int[] result = new int[size];
+        for (int n = size; n > 0; n--) {
+            result[n - 1] = heap[0];
+            heap[0] = heap[n - 1];
+            siftDown(heap, n - 1, scores);
+        }
+        return result;
+    }
+    
+    private static boolean better(int a, int b, double[] scores) {
+        int cmp = Double.compare(scores[a], scores[b]);
+        return cmp > 0 || (cmp == 0 && a < b);
+    }
+    
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], scores)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+    
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && better(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (right < size && better(heap[worst], heap[right], scores)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+    
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,186 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.SearchHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sliding-window trending destinations, maintained in memory from search events.
+ *
+ * The window is split into fixed time buckets held in a ring, each with its own
+ * {@link SpaceSavingSketch}. Recording a search is O(1). Totals of the closed buckets are
+ * merged once whenever the ring rotates, so a top-K read only combines that aggregate with
+ * the live bucket and never touches the database.
+ */
+@Component
+@Slf4j
+public class TrendingTracker {
+    
+    private static final int SEED_PAGE_SIZE = 1_000;
+    
+    private final DestinationNameIndex destinationNameIndex;
+    private final SearchHistoryRepository searchHistoryRepository;
+    private final long bucketMs;
+    private final SpaceSavingSketch[] buckets;
+    private final long[] bucketIndexes;
+    
+    private long currentIndex = Long.MIN_VALUE;
+    private boolean aggregateStale = true;
+    private Map<Long, Long> closedTotals = Map.of();
+    private List<Long> closedTop = List.of();
+    private int closedTopSize;
+    
+    public TrendingTracker(DestinationNameIndex destinationNameIndex,
+                           SearchHistoryRepository searchHistoryRepository,
+                           @Value("${search.trending.window:7d}") Duration window,
+                           @Value("${search.trending.bucket:1h}") Duration bucket,
+                           @Value("${search.trending.capacity:200}") int capacity) {
+        this.destinationNameIndex = destinationNameIndex;
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.bucketMs = bucket.toMillis();
+        
+        int bucketCount = (int) Math.max(1, window.toMillis() / bucketMs);
+        this.buckets = new SpaceSavingSketch[bucketCount];
+        this.bucketIndexes = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new SpaceSavingSketch(capacity);
+            bucketIndexes[i] = Long.MIN_VALUE;
+        }
+    }
+    
+    /**
+     * Replays the searches still inside the window so trending survives a restart. History is
+     * read a page at a time, and searched names resolve to active destinations the way a search
+     * would, through {@link DestinationNameIndex} (accents, case, cities and aliases).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(bucketMs * buckets.length));
+        Map<String, Optional<Long>> idsByName = new HashMap<>();
+        int replayed = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = searchHistoryRepository.findSearchTimesSince(since, afterId, PageRequest.of(0, SEED_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                Optional<Long> destinationId = row[1] != null
+                        ? idsByName.computeIfAbsent((String) row[1], this::activeDestinationId) : Optional.empty();
+                if (destinationId.isPresent()) {
+                    record(destinationId.get(), ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    replayed++;
+                }
+            }
+        } while (page.size() == SEED_PAGE_SIZE);
+        log.info("Trending tracker seeded with {} searches from the last {} hours",
+                replayed, Duration.ofMillis(bucketMs * buckets.length).toHours());
+    }
+    
+    public void record(long destinationId) {
+        record(destinationId, System.currentTimeMillis());
+    }
+    
+    public synchronized void record(long destinationId, long timestampMs) {
+        long index = Math.floorDiv(timestampMs, bucketMs);
+        if (index > currentIndex) {
+            rotate(index);
+        }
+        if (index <= currentIndex - buckets.length) {
+            return; // Older than the window
+        }
+        
+        int slot = slot(index);
+        if (bucketIndexes[slot] != index) {
+            if (bucketIndexes[slot] > index) {
+                return; // Slot already reused by a newer bucket
+            }
+            buckets[slot].clear();
+            bucketIndexes[slot] = index;
+        }
+        buckets[slot].offer(destinationId);
+        if (index != currentIndex) {
+            aggregateStale = true;
+        }
+    }
+    
+    /**
+     * Returns up to {@code limit} destination ids with the most searches in the window, most searched first.
+     */
+    public synchronized List<Long> top(int limit) {
+        rotate(Math.floorDiv(System.currentTimeMillis(), bucketMs));
+        if (aggregateStale || closedTopSize < limit) {
+            rebuildAggregate(limit);
+        }
+        
+        // The overall top-K can only contain the closed buckets' top-K or items seen in the live bucket
+        SpaceSavingSketch live = buckets[slot(currentIndex)];
+        Set<Long> candidates = new LinkedHashSet<>(closedTop);
+        live.forEach((id, count) -> candidates.add(id));
+        
+        List<Long> ranked = new ArrayList<>(candidates);
+        Map<Long, Long> totals = new HashMap<>();
+        for (Long id : ranked) {
+            totals.put(id, closedTotals.getOrDefault(id, 0L) + live.count(id));
+        }
+        ranked.sort(Comparator.comparing((Long id) -> totals.get(id)).reversed().thenComparing(id -> id));
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+    
+    private Optional<Long> activeDestinationId(String name) {
+        return destinationNameIndex.find(name)
+                .filter(destination -> Boolean.TRUE.equals(destination.getActive()))
+                .map(Destination::getId);
+    }
+    
+    private void rotate(long index) {
+        if (index <= currentIndex) {
+            return;
+        }
+        currentIndex = index;
+        int slot = slot(index);
+        if (bucketIndexes[slot] != index) {
+            buckets[slot].clear();
+            bucketIndexes[slot] = index;
+        }
+        aggregateStale = true;
+    }
+    
+    private void rebuildAggregate(int limit) {
+        Map<Long, Long> totals = new HashMap<>();
+        for (int slot = 0; slot < buckets.length; slot++) {
+            long index = bucketIndexes[slot];
+            if (index == currentIndex || index <= currentIndex - buckets.length) {
+                continue;
+            }
+            buckets[slot].forEach((id, count) -> totals.merge(id, count, Long::sum));
+        }
+        
+        List<Long> ranked = new ArrayList<>(totals.keySet());
+        ranked.sort(Comparator.comparing((Long id) -> totals.get(id)).reversed().thenComparing(id -> id));
+        closedTotals = totals;
+        closedTop = new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size())));
+        closedTopSize = limit;
+        aggregateStale = false;
+    }
+    
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) buckets.length);
+    }
+}
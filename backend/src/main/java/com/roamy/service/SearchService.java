@@ -5,13 +5,46 @@ import com.roamy.dto.SearchResponseDTO;
 import com.roamy.entity.*;
 import com.roamy.repository.*;
 import com.roamy.external.ExternalAPIService;
+import com.roamy.search.AttractionFilterIndex;
+import com.roamy.search.AttractionTextIndex;
+import com.roamy.search.CatalogReadModel;
+import com.roamy.search.CursorPage;
+import com.roamy.search.DestinationResolver;
+import com.roamy.search.DestinationNameIndex;
+import com.roamy.search.DestinationSearchIndex;
+import com.roamy.search.DestinationSuggestIndex;
+import com.roamy.search.DestinationSpellIndex;
+import com.roamy.search.FacetCounter;
+import com.roamy.search.GeoSearchIndex;
+import com.roamy.search.HotelAmenityIndex;
+import com.roamy.search.HotelAvailabilityIndex;
+import com.roamy.search.HotelOfferMerger;
+import com.roamy.search.InterestMaskIndex;
+import com.roamy.search.MarkerGrid;
+import com.roamy.search.PageCursor;
+import com.roamy.search.ParetoFrontier;
+import com.roamy.search.PlaceSearch;
+import com.roamy.search.Ranker;
+import com.roamy.search.Scorer;
+import com.roamy.search.SearchCacheKey;
+import com.roamy.search.SearchExecutor;
+import com.roamy.search.SearchFanOut;
+import com.roamy.search.SearchHistoryWriter;
+import com.roamy.search.SearchResultCache;
+import com.roamy.search.SimilarDestinationIndex;
+import com.roamy.search.TrendingTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,66 +52,126 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SearchService {
     
+    private static final int MAX_NEARBY_RESULTS = 100;
+    private static final int MAX_TEXT_SEARCH_RESULTS = 100;
+    private static final int MAX_FILTER_RESULTS = 100;
+    private static final int MAX_CALENDAR_NIGHTS = 30;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int TRENDING_LIMIT = 10;
+    private static final int DEFAULT_TRENDING_LIMIT = 6;
+    // Placeholder for the unused IN list when no amenity restriction applies; an empty IN is not valid JPQL
+    private static final List<Long> NO_ID_RESTRICTION = List.of(-1L);
+    
     private final DestinationRepository destinationRepository;
+    private final HotelRepository hotelRepository;
     private final AttractionRepository attractionRepository;
-    private final SearchHistoryRepository searchHistoryRepository;
     private final ExternalAPIService externalAPIService;
+    private final DestinationSearchIndex destinationSearchIndex;
+    private final DestinationSuggestIndex destinationSuggestIndex;
+    private final DestinationNameIndex destinationNameIndex;
+    private final AttractionTextIndex attractionTextIndex;
+    private final AttractionFilterIndex attractionFilterIndex;
+    private final HotelAvailabilityIndex hotelAvailabilityIndex;
+    private final DestinationSpellIndex destinationSpellIndex;
+    private final SimilarDestinationIndex similarDestinationIndex;
+    private final SearchExecutor searchExecutor;
+    private final GeoSearchIndex geoSearchIndex;
+    private final SearchResultCache searchResultCache;
+    private final TrendingTracker trendingTracker;
+    private final SearchHistoryWriter searchHistoryWriter;
+    private final HotelAmenityIndex hotelAmenityIndex;
+    private final InterestMaskIndex interestMaskIndex;
+    private final CatalogReadModel catalogReadModel;
+    private final DestinationResolver destinationResolver;
+    
+    @Value("${search.fanout.hotels-timeout-ms:3000}")
+    private long hotelsTimeoutMs;
+    
+    @Value("${search.fanout.attractions-timeout-ms:3000}")
+    private long attractionsTimeoutMs;
+    
+    @Value("${search.fanout.transport-timeout-ms:2000}")
+    private long transportTimeoutMs;
     
-    public SearchResponseDTO searchPlaces(SearchRequestDTO searchRequest) {
+    public SearchResponseDTO searchPlaces(SearchRequestDTO searchRequest, String userEmail) {
+        // Timed-out sections complete with empty results and are reported in the metadata
+        return startPlaceSearch(searchRequest, userEmail).toResponse();
+    }
+    
+    /**
+     * Resolves the destination and starts the hotel, attraction and transport sections without
+     * waiting for them, so callers can stream each section as soon as it is ready.
+     */
+    public PlaceSearch startPlaceSearch(SearchRequestDTO searchRequest, String userEmail) {
         log.info("Searching places for destination: {}", searchRequest.getToLocation());
         
         long startTime = System.currentTimeMillis();
+        // Rejects inconsistent dates, cursors and amenities up front rather than degrading the hotels section
+        HotelAvailabilityIndex.Stay stay = HotelAvailabilityIndex.Stay.of(searchRequest);
+        PageCursor after = PageCursor.decode(searchRequest.getCursor(),
+                hotelCursorSort(searchRequest.getSortBy(), searchRequest.getSortOrder()));
+        long requiredAmenities = HotelAmenityIndex.parseMask(searchRequest.getRequiredAmenities());
+        SearchFanOut fanOut = searchExecutor.newFanOut();
+        
+        // Transport options do not depend on the destination record, so start them right away
+        CompletableFuture<List<SearchResponseDTO.TransportOptionDTO>> transportFuture = fanOut.fork("transport",
+                () -> searchResultCache.get(SearchResultCache.Section.TRANSPORT, SearchCacheKey.forTransport(searchRequest),
+                        () -> getTransportOptions(searchRequest.getFromLocation(), searchRequest.getToLocation())),
+                transportTimeoutMs, List.of());
+        
+        // Find or create destination; if that fails, nobody will read the transport section
+        Destination destination;
+        try {
+            destination = fanOut.time("destination", () -> findOrCreateDestination(searchRequest.getToLocation()));
+        } catch (RuntimeException e) {
+            fanOut.cancel();
+            throw e;
+        }
+        if (destination.getId() != null) {
+            trendingTracker.record(destination.getId());
+        }
         
-        // Find or create destination
-        Destination destination = findOrCreateDestination(searchRequest.getToLocation());
-        
-        // Get hotels from database and external APIs
-        List<SearchResponseDTO.HotelDTO> hotels = getHotelsForSearch(destination, searchRequest);
-        
-        // Get attractions based on interests
-        List<SearchResponseDTO.AttractionDTO> attractions = getAttractionsForSearch(destination, searchRequest.getInterests());
-        
-        // Get transport options (mock data for now)
-        List<SearchResponseDTO.TransportOptionDTO> transportOptions = getTransportOptions(
-                searchRequest.getFromLocation(), searchRequest.getToLocation());
-        
-        // Save search history (if user is authenticated)
-        saveSearchHistory(searchRequest);
-        
-        long searchTime = System.currentTimeMillis() - startTime;
-        
-        return SearchResponseDTO.builder()
-                .destinations(List.of(convertDestinationToDTO(destination)))
-                .hotels(hotels)
-                .attractions(attractions)
-                .transportOptions(transportOptions)
-                .metadata(SearchResponseDTO.SearchMetaDataDTO.builder()
-                        .totalResults(hotels.size() + attractions.size())
-                        .currentPage(searchRequest.getPage())
-                        .pageSize(searchRequest.getSize())
-                        .sortBy(searchRequest.getSortBy())
-                        .sortOrder(searchRequest.getSortOrder())
-                        .searchTimeMs(searchTime)
-                        .searchId(UUID.randomUUID().toString())
-                        .build())
-                .build();
+        // Hotels and attractions (database + external APIs) run concurrently, each with its own deadline
+        int pageSize = resolvePageSize(searchRequest.getSize());
+        CompletableFuture<CursorPage<SearchResponseDTO.HotelDTO>> hotelsFuture = fanOut.fork("hotels",
+                () -> searchResultCache.get(SearchResultCache.Section.HOTELS, SearchCacheKey.forHotels(searchRequest, stay, pageSize),
+                        () -> getHotelsForSearch(destination, searchRequest, stay, requiredAmenities, after, pageSize)),
+                hotelsTimeoutMs, new CursorPage<>(List.of(), null));
+        CompletableFuture<List<SearchResponseDTO.AttractionDTO>> attractionsFuture = fanOut.fork("attractions",
+                () -> searchResultCache.get(SearchResultCache.Section.ATTRACTIONS, SearchCacheKey.forAttractions(searchRequest, pageSize),
+                        () -> getAttractionsForSearch(destination, searchRequest, pageSize)),
+                attractionsTimeoutMs, List.of());
+        // Facets are counted from the in-memory indexes and read model after a single id query
+        CompletableFuture<SearchResponseDTO.FacetsDTO> facetsFuture = fanOut.fork("facets",
+                () -> getFacetsForSearch(destination, searchRequest, stay, requiredAmenities), hotelsTimeoutMs, null);
+        
+        // Search history is recorded once the result counts are known, off the request thread
+        CompletableFuture.allOf(hotelsFuture, attractionsFuture).thenRun(() -> saveSearchHistory(searchRequest, userEmail,
+                hotelsFuture.join().getItems().size() + attractionsFuture.join().size()));
+        
+        return new PlaceSearch(searchRequest, pageSize, fanOut, startTime, convertDestinationToDTO(destination),
+                hotelsFuture, attractionsFuture, transportFuture, facetsFuture);
     }
     
-    @Cacheable("destinations")
     public List<SearchResponseDTO.DestinationDTO> getAllDestinations() {
         log.info("Fetching all active destinations");
         
-        return destinationRepository.findByActiveTrue().stream()
-                .map(this::convertDestinationToDTO)
-                .collect(Collectors.toList());
+        // Pre-built and kept current by the catalog read model
+        return catalogReadModel.activeDestinations();
     }
     
     public List<SearchResponseDTO.DestinationDTO> searchDestinations(String query) {
         log.info("Searching destinations with query: {}", query);
         
-        List<Destination> destinations = destinationRepository.searchByNameCityOrCountry(query);
+        List<Destination> destinations = destinationSearchIndex.search(query);
         
-        // If no local results, try external API
+        // Probably a typo - offer close catalog names before paying for a geocoder round-trip
+        if (destinations.isEmpty()) {
+            destinations = destinationSpellIndex.didYouMean(query, DestinationSpellIndex.MAX_SUGGESTIONS);
+        }
+        
+        // If nothing local is close enough, try external API
         if (destinations.isEmpty()) {
             destinations = searchDestinationsFromExternalAPI(query);
         }
@@ -88,73 +181,171 @@ public class SearchService {
                 .collect(Collectors.toList());
     }
     
-    public List<SearchResponseDTO.HotelDTO> getHotelsByDestination(
-            Long destinationId, String sortBy, String sortOrder, Double minPrice, Double maxPrice, Integer minRating) {
+    public List<SearchResponseDTO.DestinationDTO> suggestDestinations(String prefix, int limit) {
+        log.debug("Suggesting destinations for prefix: {}", prefix);
         
-        Destination destination = destinationRepository.findById(destinationId)
-                .orElseThrow(() -> new RuntimeException("Destination not found"));
+        // Served entirely from the in-memory trie - no database or external calls per keystroke
+        return destinationSuggestIndex.suggest(prefix, limit).stream()
+                .map(this::convertDestinationToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    public List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.DestinationDTO>> findNearbyDestinations(
+            double latitude, double longitude, Double radiusKm, int limit) {
+        validateNearbyQuery(latitude, longitude, radiusKm, limit);
+        log.info("Finding destinations near {}, {} (radius: {} km, limit: {})", latitude, longitude, radiusKm, limit);
+        
+        return geoSearchIndex.nearbyDestinations(latitude, longitude, Math.min(limit, MAX_NEARBY_RESULTS),
+                        radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY).stream()
+                .map(nearby -> SearchResponseDTO.NearbyResultDTO.<SearchResponseDTO.DestinationDTO>builder()
+                        .item(convertDestinationToDTO(nearby.getItem()))
+                        .distanceKm(roundDistance(nearby.getDistanceKm()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    public List<SearchResponseDTO.NearbyResultDTO<SearchResponseDTO.AttractionDTO>> findNearbyAttractions(
+            double latitude, double longitude, Double radiusKm, int limit) {
+        validateNearbyQuery(latitude, longitude, radiusKm, limit);
+        log.info("Finding attractions near {}, {} (radius: {} km, limit: {})", latitude, longitude, radiusKm, limit);
+        
+        return geoSearchIndex.nearbyAttractions(latitude, longitude, Math.min(limit, MAX_NEARBY_RESULTS),
+                        radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY).stream()
+                .map(nearby -> SearchResponseDTO.NearbyResultDTO.<SearchResponseDTO.AttractionDTO>builder()
+                        .item(convertAttractionToDTO(nearby.getItem()))
+                        .distanceKm(roundDistance(nearby.getDistanceKm()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    public SearchResponseDTO.MapViewDTO getMapClusters(String bbox, int zoom) {
+        if (zoom < MarkerGrid.MIN_ZOOM || zoom > MarkerGrid.MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be within [" + MarkerGrid.MIN_ZOOM + ", " + MarkerGrid.MAX_ZOOM + "]");
+        }
+        MarkerGrid.Viewport viewport = MarkerGrid.Viewport.parse(bbox);
+        log.info("Clustering map markers in {} at zoom {}", bbox, zoom);
+        
+        // Clusters are capped per layer, so the payload does not grow with the number of places
+        return SearchResponseDTO.MapViewDTO.builder()
+                .cellDegrees(MarkerGrid.forViewport(viewport, zoom).getCellDegrees())
+                .hotels(geoSearchIndex.clusterHotels(viewport, zoom).stream().map(this::convertClusterToDTO).collect(Collectors.toList()))
+                .attractions(geoSearchIndex.clusterAttractions(viewport, zoom).stream().map(this::convertClusterToDTO).collect(Collectors.toList()))
+                .build();
+    }
+    
+    public List<SearchResponseDTO.AttractionDTO> searchAttractions(String query, Long destinationId, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query is required");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        log.info("Searching attractions for '{}' (destination: {}, limit: {})", query, destinationId, limit);
         
-        // Hotel repository functionality temporarily disabled
-        List<Hotel> hotels = new ArrayList<>(); // hotelRepository.findByDestinationAndAvailableTrue(destination);
+        // Ranked in memory by BM25; the read model turns the ids into DTOs without a query per row
+        return catalogReadModel.attractions(
+                attractionTextIndex.search(query, destinationId, Math.min(limit, MAX_TEXT_SEARCH_RESULTS)));
+    }
+    
+    public List<SearchResponseDTO.AttractionDTO> filterAttractions(Long destinationId, List<String> types,
+                                                                   boolean freeEntry, boolean kidsFriendly,
+                                                                   boolean wheelchairAccessible, boolean featured,
+                                                                   int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
         
-        // Apply filters
-        if (minPrice != null || maxPrice != null) {
-            hotels = hotels.stream()
-                    .filter(hotel -> {
-                        double price = hotel.getPricePerNight().doubleValue();
-                        return (minPrice == null || price >= minPrice) && 
-                               (maxPrice == null || price <= maxPrice);
-                    })
-                    .collect(Collectors.toList());
+        // Every filter is a bitmap intersection in memory; only the surviving page is turned into DTOs
+        long[] ids = attractionFilterIndex.matching(AttractionFilterIndex.Criteria.builder()
+                .destinationId(destinationId)
+                .types(AttractionFilterIndex.parseTypes(types))
+                .freeEntry(freeEntry)
+                .kidsFriendly(kidsFriendly)
+                .wheelchairAccessible(wheelchairAccessible)
+                .featured(featured)
+                .build());
+        return catalogReadModel.attractions(Arrays.stream(ids)
+                .limit(Math.min(limit, MAX_FILTER_RESULTS))
+                .boxed()
+                .collect(Collectors.toList()));
+    }
+    
+    public CursorPage<SearchResponseDTO.HotelDTO> getHotelsByDestination(
+            Long destinationId, String sortBy, String sortOrder, Double minPrice, Double maxPrice, Integer minRating,
+            List<String> amenities, Double latitude, Double longitude, String cursor, Integer size) {
+        
+        if (!destinationRepository.existsById(destinationId)) {
+            throw new RuntimeException("Destination not found");
         }
         
-        if (minRating != null) {
-            hotels = hotels.stream()
-                    .filter(hotel -> hotel.getAverageRating() != null && 
-                                   hotel.getAverageRating().doubleValue() >= minRating)
-                    .collect(Collectors.toList());
+        // Filtering, sorting and the page bound are all applied by the query
+        return findHotelPage(destinationId, sortBy, sortOrder,
+                minPrice != null ? BigDecimal.valueOf(minPrice) : null,
+                maxPrice != null ? BigDecimal.valueOf(maxPrice) : null,
+                minRating != null ? BigDecimal.valueOf(minRating) : null,
+                HotelAmenityIndex.parseMask(amenities), null, latitude, longitude,
+                PageCursor.decode(cursor, hotelCursorSort(sortBy, sortOrder)), resolvePageSize(size));
+    }
+    
+    /**
+     * Lowest nightly room price for every check-in date of the month, for one hotel or the whole
+     * destination, from the room inventory and booking occupancy held in memory.
+     */
+    public SearchResponseDTO.PriceCalendarDTO getPriceCalendar(Long destinationId, Long hotelId, String month,
+                                                               int nights, int guests, String currency) {
+        if (!destinationRepository.existsById(destinationId)) {
+            throw new RuntimeException("Destination not found");
         }
+        if (nights < 1 || nights > MAX_CALENDAR_NIGHTS) {
+            throw new IllegalArgumentException("Nights must be within [1, " + MAX_CALENDAR_NIGHTS + "]");
+        }
+        if (guests < 1) {
+            throw new IllegalArgumentException("Guests must be positive");
+        }
+        YearMonth yearMonth;
+        try {
+            yearMonth = month != null ? YearMonth.parse(month.trim()) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Month must be formatted as yyyy-MM");
+        }
+        String currencyCode = currency != null ? currency.trim().toUpperCase(Locale.ROOT) : "USD";
         
-        // Apply sorting
-        if ("price".equals(sortBy)) {
-            hotels.sort(Comparator.comparing(Hotel::getPricePerNight));
-            if ("desc".equals(sortOrder)) {
-                Collections.reverse(hotels);
-            }
-        } else if ("rating".equals(sortBy)) {
-            hotels.sort((h1, h2) -> {
-                if (h1.getAverageRating() == null) return 1;
-                if (h2.getAverageRating() == null) return -1;
-                return h2.getAverageRating().compareTo(h1.getAverageRating());
-            });
-            if ("asc".equals(sortOrder)) {
-                Collections.reverse(hotels);
-            }
+        return searchResultCache.get(SearchResultCache.Section.PRICE_CALENDAR,
+                SearchCacheKey.forPriceCalendar(destinationId, hotelId, yearMonth, nights, guests, currencyCode,
+                        hotelAvailabilityIndex.getVersion()),
+                () -> computePriceCalendar(destinationId, hotelId, yearMonth, nights, guests, currencyCode));
+    }
+    
+    public List<SearchResponseDTO.DestinationDTO> getSimilarDestinations(Long destinationId, int limit) {
+        if (!destinationRepository.existsById(destinationId)) {
+            throw new RuntimeException("Destination not found");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
         }
         
-        return hotels.stream()
-                .map(this::convertHotelToDTO)
-                .collect(Collectors.toList());
+        // Neighbours are precomputed in the background; this is a lookup, not a comparison
+        return catalogReadModel.destinations(
+                similarDestinationIndex.similarTo(destinationId, Math.min(limit, similarDestinationIndex.getNeighbours())));
     }
     
-    public List<SearchResponseDTO.AttractionDTO> getAttractionsByDestination(Long destinationId, List<String> interests) {
+    public List<SearchResponseDTO.AttractionDTO> getAttractionsByDestination(Long destinationId, List<String> interests,
+                                                                       String sortBy, String sortOrder,
+                                                                       Double latitude, Double longitude) {
         Destination destination = destinationRepository.findById(destinationId)
                 .orElseThrow(() -> new RuntimeException("Destination not found"));
         
-        List<Attraction> attractions;
-        
-        if (interests != null && !interests.isEmpty()) {
-            List<User.TravelInterest> travelInterests = interests.stream()
-                    .map(User.TravelInterest::valueOf)
-                    .collect(Collectors.toList());
-            attractions = attractionRepository.findByDestinationAndInterests(destination, travelInterests);
-        } else {
-            attractions = attractionRepository.findByDestinationAndActiveTrue(destination);
-        }
-        
-        return attractions.stream()
-                .map(this::convertAttractionToDTO)
+        List<User.TravelInterest> travelInterests = interests == null ? List.of() : interests.stream()
+                .map(User.TravelInterest::valueOf)
                 .collect(Collectors.toList());
+        List<SearchResponseDTO.AttractionDTO> attractions = travelInterests.isEmpty()
+                ? attractionRepository.findByDestinationAndActiveTrue(destination).stream()
+                        .map(this::convertAttractionToDTO)
+                        .collect(Collectors.toList())
+                : findAttractionsWithAnyInterest(destination, travelInterests);
+        
+        return rankAttractions(attractions, destination, InterestMaskIndex.mask(travelInterests),
+                sortBy, sortOrder, latitude, longitude, attractions.size());
     }
     
     public List<SearchResponseDTO.TransportOptionDTO> searchTransport(String from, String to, String date, List<String> transportTypes) {
@@ -167,7 +358,7 @@ public class SearchService {
     public SearchResponseDTO getRecommendations(String destination, List<String> interests, String budgetLevel) {
         log.info("Getting recommendations for destination: {}", destination);
         
-        Destination dest = destinationRepository.findByNameIgnoreCase(destination)
+        Destination dest = destinationNameIndex.find(destination)
                 .orElseGet(() -> findOrCreateDestination(destination));
         
         List<SearchResponseDTO.HotelDTO> recommendedHotels = getRecommendedHotels(dest, budgetLevel);
@@ -181,35 +372,23 @@ public class SearchService {
                 .build();
     }
     
-    @Cacheable("trendingDestinations")
     public List<SearchResponseDTO.DestinationDTO> getTrendingDestinations() {
         log.info("Fetching trending destinations");
         
-        // Get destinations based on recent search history
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        List<Object[]> trendingData = searchHistoryRepository.getTrendingDestinations(oneWeekAgo);
-        
-        List<SearchResponseDTO.DestinationDTO> trendingDestinations = new ArrayList<>();
-        
-        for (Object[] data : trendingData) {
-            String destinationName = (String) data[0];
-            destinationRepository.findByNameIgnoreCase(destinationName)
-                    .ifPresent(dest -> trendingDestinations.add(convertDestinationToDTO(dest)));
-            
-            if (trendingDestinations.size() >= 10) break; // Limit to top 10
-        }
+        // Served from the in-memory sliding window fed by search events - no database access
+        List<SearchResponseDTO.DestinationDTO> trendingDestinations = trendingTracker.top(TRENDING_LIMIT).stream()
+                .map(destinationSearchIndex::get)
+                .flatMap(Optional::stream)
+                .filter(dest -> Boolean.TRUE.equals(dest.getActive()))
+                .map(this::convertDestinationToDTO)
+                .collect(Collectors.toList());
         
         // If no trending data found (e.g., new app with no search history), return popular destinations
         if (trendingDestinations.isEmpty()) {
-            log.info("No search history found, returning default trending destinations");
-            String[] defaultTrendingNames = {"Goa", "Paris", "Tokyo", "New Delhi", "Mumbai", "Dubai"};
-            
-            for (String name : defaultTrendingNames) {
-                destinationRepository.findByNameIgnoreCase(name)
-                        .ifPresent(dest -> trendingDestinations.add(convertDestinationToDTO(dest)));
-                
-                if (trendingDestinations.size() >= 6) break; // Limit to top 6 for default
-            }
+            log.info("No search history found, returning most popular destinations");
+            trendingDestinations = destinationSearchIndex.mostPopular(DEFAULT_TRENDING_LIMIT).stream()
+                    .map(this::convertDestinationToDTO)
+                    .collect(Collectors.toList());
         }
         
         return trendingDestinations;
@@ -218,65 +397,464 @@ public class SearchService {
     // Private helper methods
     
     private Destination findOrCreateDestination(String locationName) {
-        return destinationRepository.findByNameIgnoreCase(locationName)
-                .orElseGet(() -> {
-                    // Try to get destination info from external API
-                    Optional<Destination> externalDestination = externalAPIService.getDestinationInfo(locationName);
-                    if (externalDestination.isPresent()) {
-                        return destinationRepository.save(externalDestination.get());
-                    }
-                    
-                    // Create a basic destination entry
-                    return destinationRepository.save(Destination.builder()
-                            .name(locationName)
-                            .city(locationName)
-                            .country("Unknown")
-                            .active(true)
-                            .build());
-                });
-    }
-    
-    private List<SearchResponseDTO.HotelDTO> getHotelsForSearch(Destination destination, SearchRequestDTO searchRequest) {
-        // Hotel repository functionality temporarily disabled
-        List<Hotel> localHotels = new ArrayList<>(); // hotelRepository.findByDestinationAndAvailableTrue(destination);
-        List<SearchResponseDTO.HotelDTO> hotelDTOs = localHotels.stream()
-                .map(this::convertHotelToDTO)
-                .collect(Collectors.toList());
+        // Single-flight per name, with unknown names remembered so they are not geocoded again
+        return destinationResolver.resolve(locationName);
+    }
+    
+    private CursorPage<SearchResponseDTO.HotelDTO> getHotelsForSearch(Destination destination, SearchRequestDTO searchRequest,
+                                                                      HotelAvailabilityIndex.Stay stay, long requiredAmenities,
+                                                                      PageCursor after, int pageSize) {
+        CursorPage<SearchResponseDTO.HotelDTO> localPage = destination.getId() == null ? new CursorPage<>(List.of(), null)
+                : findHotelPage(destination.getId(), searchRequest.getSortBy(), searchRequest.getSortOrder(),
+                        searchRequest.getMinBudget() != null ? BigDecimal.valueOf(searchRequest.getMinBudget()) : null,
+                        searchRequest.getMaxBudget() != null ? BigDecimal.valueOf(searchRequest.getMaxBudget()) : null,
+                        searchRequest.getMinHotelRating() != null ? BigDecimal.valueOf(searchRequest.getMinHotelRating()) : null,
+                        requiredAmenities, stay, searchRequest.getLatitude(), searchRequest.getLongitude(),
+                        after, pageSize);
+        List<SearchResponseDTO.HotelDTO> hotelDTOs = new ArrayList<>(localPage.getItems());
+        
+        // External offers cannot be resumed from a cursor, so they only fill the last local page
+        if (!localPage.hasNext() && hotelDTOs.size() < pageSize) {
+            int localCount = hotelDTOs.size();
+            // Provider calls are the only part of a section a deadline may interrupt
+            List<SearchResponseDTO.HotelDTO> offers = SearchFanOut.interruptibly(() -> externalAPIService.searchHotels(destination, searchRequest))
+                    .stream()
+                    .filter(hotel -> (HotelAmenityIndex.lenientMask(hotel.getAmenities()) & requiredAmenities) == requiredAmenities)
+                    .collect(Collectors.toList());
+            // The same property listed by the catalog and a provider is shown once, at its best price,
+            // in the catalog row's place; every catalog row stays, and the remaining provider offers
+            // fill the free slots in the requested order
+            List<SearchResponseDTO.HotelDTO> merged = HotelOfferMerger.merge(hotelDTOs, offers);
+            Scorer<SearchResponseDTO.HotelDTO> order = hotelScorer(searchRequest.getSortBy(), searchRequest.getSortOrder(),
+                    searchRequest.getLatitude(), searchRequest.getLongitude(),
+                    destination.getLatitude(), destination.getLongitude());
+            hotelDTOs = new ArrayList<>(merged.subList(0, localCount));
+            hotelDTOs.addAll(Ranker.by(order).top(merged.subList(localCount, merged.size()), pageSize - localCount));
+        }
+        
+        return new CursorPage<>(hotelDTOs, localPage.getNextCursor());
+    }
+    
+    /**
+     * Reads one page of available hotels for a destination. Prices sort cheapest first and
+     * ratings best first unless the caller asks for the opposite order. Required amenities are
+     * resolved against the in-memory bitmaps first, so the query only sees matching hotel ids.
+     * Distance and popularity sorts are ranked in memory, see {@link #rankHotelPage}. The value
+     * sort only returns the Pareto frontier over price, rating and stars, cheapest first.
+     */
+    private CursorPage<SearchResponseDTO.HotelDTO> findHotelPage(Long destinationId, String sortBy, String sortOrder,
+                                                                 BigDecimal minPrice, BigDecimal maxPrice, BigDecimal minRating,
+                                                                 long requiredAmenities, HotelAvailabilityIndex.Stay stay,
+                                                                 Double latitude, Double longitude,
+                                                                 PageCursor after, int pageSize) {
+        if ("distance".equals(sortBy) || "popularity".equals(sortBy)) {
+            List<SearchResponseDTO.HotelDTO> candidates = catalogReadModel.hotels(
+                    findMatchingHotelIds(destinationId, minPrice, maxPrice, minRating, requiredAmenities, stay));
+            return rankHotelPage(candidates, sortBy, sortOrder, latitude, longitude, after, pageSize);
+        }
+        if ("value".equals(sortBy)) {
+            List<SearchResponseDTO.HotelDTO> candidates = catalogReadModel.hotels(
+                    findMatchingHotelIds(destinationId, minPrice, maxPrice, minRating, requiredAmenities, stay));
+            return rankHotelPage(bestValueHotels(candidates), sortBy, sortOrder, latitude, longitude, after, pageSize);
+        }
+        
+        long[] allowed = allowedHotelIds(destinationId, requiredAmenities, stay);
+        boolean restrictToIds = allowed != null;
+        List<Long> hotelIds = NO_ID_RESTRICTION;
+        if (restrictToIds) {
+            if (allowed.length == 0) {
+                return new CursorPage<>(List.of(), null);
+            }
+            hotelIds = Arrays.stream(allowed).boxed().collect(Collectors.toList());
+        }
         
-        // Get additional hotels from external APIs
-        List<SearchResponseDTO.HotelDTO> externalHotels = externalAPIService.searchHotels(destination, searchRequest);
-        hotelDTOs.addAll(externalHotels);
+        boolean byRating = "rating".equals(sortBy);
+        String sort = hotelCursorSort(sortBy, sortOrder);
+        boolean descending = sort.endsWith(":desc");
         
-        return hotelDTOs;
+        BigDecimal afterKey = after != null ? after.getSortKey() : null;
+        Long afterId = after != null ? after.getId() : null;
+        
+        // One extra row tells us whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Long> rows;
+        if (byRating) {
+            rows = descending
+                    ? hotelRepository.findPageOrderByRatingDesc(destinationId, minPrice, maxPrice, minRating, restrictToIds, hotelIds, afterKey, afterId, limit)
+                    : hotelRepository.findPageOrderByRatingAsc(destinationId, minPrice, maxPrice, minRating, restrictToIds, hotelIds, afterKey, afterId, limit);
+        } else {
+            rows = descending
+                    ? hotelRepository.findPageOrderByPriceDesc(destinationId, minPrice, maxPrice, minRating, restrictToIds, hotelIds, afterKey, afterId, limit)
+                    : hotelRepository.findPageOrderByPriceAsc(destinationId, minPrice, maxPrice, minRating, restrictToIds, hotelIds, afterKey, afterId, limit);
+        }
+        
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(catalogReadModel.hotels(rows), null);
+        }
+        
+        List<SearchResponseDTO.HotelDTO> page = catalogReadModel.hotels(rows.subList(0, pageSize));
+        if (page.isEmpty()) {
+            return new CursorPage<>(page, null);
+        }
+        SearchResponseDTO.HotelDTO last = page.get(page.size() - 1);
+        BigDecimal lastKey = byRating ? last.getAverageRating() : last.getPricePerNight();
+        return new CursorPage<>(page,
+                new PageCursor(sort, lastKey != null ? lastKey : BigDecimal.ZERO, last.getId()).encode());
     }
     
-    private List<SearchResponseDTO.AttractionDTO> getAttractionsForSearch(Destination destination, List<User.TravelInterest> interests) {
-        List<Attraction> localAttractions;
+    /**
+     * Ids (ascending) of every available hotel of the destination matching the filters.
+     */
+    private List<Long> findMatchingHotelIds(Long destinationId, BigDecimal minPrice, BigDecimal maxPrice,
+                                            BigDecimal minRating, long requiredAmenities, HotelAvailabilityIndex.Stay stay) {
+        long[] allowed = allowedHotelIds(destinationId, requiredAmenities, stay);
+        if (allowed == null) {
+            return hotelRepository.findAvailableIds(destinationId, minPrice, maxPrice, minRating, false, NO_ID_RESTRICTION);
+        }
+        if (allowed.length == 0) {
+            return List.of();
+        }
+        return hotelRepository.findAvailableIds(destinationId, minPrice, maxPrice, minRating, true,
+                Arrays.stream(allowed).boxed().collect(Collectors.toList()));
+    }
+    
+    /**
+     * Ids (ascending) of the destination's hotels that have the required amenities and a room
+     * for the stay, answered from the in-memory indexes; null when neither filter applies.
+     */
+    private long[] allowedHotelIds(Long destinationId, long requiredAmenities, HotelAvailabilityIndex.Stay stay) {
+        if (requiredAmenities == 0 && stay == null) {
+            return null;
+        }
+        long[] matches = hotelAmenityIndex.hotelsWithAll(destinationId, requiredAmenities);
+        return stay != null && matches.length > 0 ? hotelAvailabilityIndex.withRoomFor(matches, stay) : matches;
+    }
+    
+    private SearchResponseDTO.PriceCalendarDTO computePriceCalendar(Long destinationId, Long hotelId, YearMonth month,
+                                                                    int nights, int guests, String currency) {
+        List<Long> available = hotelRepository.findAvailableIds(destinationId, null, null, null, false, NO_ID_RESTRICTION);
+        if (hotelId != null && !available.contains(hotelId)) {
+            throw new RuntimeException("Hotel not found");
+        }
+        long[] hotelIds = hotelId != null ? new long[]{hotelId} : available.stream().mapToLong(Long::longValue).toArray();
+        
+        BigDecimal[] rates = hotelAvailabilityIndex.lowestRates(hotelIds, month.atDay(1), month.lengthOfMonth(),
+                nights, guests, currency);
+        List<SearchResponseDTO.PriceCalendarDayDTO> days = new ArrayList<>(rates.length);
+        BigDecimal lowest = null;
+        for (int day = 0; day < rates.length; day++) {
+            days.add(SearchResponseDTO.PriceCalendarDayDTO.builder()
+                    .checkInDate(month.atDay(day + 1))
+                    .price(rates[day])
+                    .build());
+            if (rates[day] != null && (lowest == null || rates[day].compareTo(lowest) < 0)) {
+                lowest = rates[day];
+            }
+        }
+        
+        return SearchResponseDTO.PriceCalendarDTO.builder()
+                .destinationId(destinationId)
+                .hotelId(hotelId)
+                .month(month.toString())
+                .nights(nights)
+                .guests(guests)
+                .currency(currency)
+                .lowestPrice(lowest)
+                .days(days)
+                .build();
+    }
+    
+    /**
+     * The candidates that no other candidate beats on price, average rating and star rating at
+     * once, still in id order.
+     */
+    private static List<SearchResponseDTO.HotelDTO> bestValueHotels(List<SearchResponseDTO.HotelDTO> candidates) {
+        int n = candidates.size();
+        double[] prices = new double[n];
+        double[] ratings = new double[n];
+        double[] stars = new double[n];
+        for (int i = 0; i < n; i++) {
+            SearchResponseDTO.HotelDTO hotel = candidates.get(i);
+            prices[i] = hotel.getPricePerNight() != null ? hotel.getPricePerNight().doubleValue() : Double.POSITIVE_INFINITY;
+            ratings[i] = hotel.getAverageRating() != null ? hotel.getAverageRating().doubleValue() : Double.NEGATIVE_INFINITY;
+            stars[i] = hotel.getStarRating() != null ? hotel.getStarRating() : Double.NEGATIVE_INFINITY;
+        }
+        
+        int[] frontier = ParetoFrontier.of(prices, ratings, stars);
+        Arrays.sort(frontier);
+        List<SearchResponseDTO.HotelDTO> hotels = new ArrayList<>(frontier.length);
+        for (int index : frontier) {
+            hotels.add(candidates.get(index));
+        }
+        return hotels;
+    }
+    
+    /**
+     * Ranks every candidate by the requested sort and returns the page after the cursor.
+     * Candidates must be in id order, which breaks ties.
+     */
+    private CursorPage<SearchResponseDTO.HotelDTO> rankHotelPage(List<SearchResponseDTO.HotelDTO> candidates,
+                                                                 String sortBy, String sortOrder,
+                                                                 Double latitude, Double longitude,
+                                                                 PageCursor after, int pageSize) {
+        SearchResponseDTO.DestinationDTO centre = candidates.isEmpty() ? null : candidates.get(0).getDestination();
+        Scorer<SearchResponseDTO.HotelDTO> scorer = hotelScorer(sortBy, sortOrder, latitude, longitude,
+                centre != null ? centre.getLatitude() : null, centre != null ? centre.getLongitude() : null);
+        return CursorPage.ranked(candidates, scorer, SearchResponseDTO.HotelDTO::getId,
+                hotelCursorSort(sortBy, sortOrder), after, pageSize);
+    }
+    
+    /**
+     * The sort a hotel page cursor is issued for. Nearest, cheapest and cheapest best-value come
+     * first by default, highest rated and most popular otherwise; other sorts fall back to price.
+     */
+    private static String hotelCursorSort(String sortBy, String sortOrder) {
+        if ("distance".equals(sortBy) || "value".equals(sortBy)) {
+            return sortBy + ("desc".equals(sortOrder) ? ":desc" : ":asc");
+        }
+        if ("rating".equals(sortBy) || "popularity".equals(sortBy)) {
+            return sortBy + ("asc".equals(sortOrder) ? ":asc" : ":desc");
+        }
+        return "price" + ("desc".equals(sortOrder) ? ":desc" : ":asc");
+    }
+    
+    /**
+     * Scores hotels so that higher comes first in the requested sort, the same order the page
+     * queries and {@link #rankHotelPage} return. Like the page queries, a missing price or rating
+     * counts as zero. Distances are measured from the given point, or from the destination centre
+     * when none is given.
+     */
+    private static Scorer<SearchResponseDTO.HotelDTO> hotelScorer(String sortBy, String sortOrder,
+                                                                  Double latitude, Double longitude,
+                                                                  BigDecimal centreLatitude, BigDecimal centreLongitude) {
+        Scorer<SearchResponseDTO.HotelDTO> scorer;
+        boolean reversed;
+        if ("distance".equals(sortBy)) {
+            scorer = Scorer.nearest(origin(latitude, centreLatitude), origin(longitude, centreLongitude),
+                    SearchResponseDTO.HotelDTO::getLatitude, SearchResponseDTO.HotelDTO::getLongitude);
+            reversed = "desc".equals(sortOrder);
+        } else if ("popularity".equals(sortBy)) {
+            scorer = Scorer.popularity(SearchResponseDTO.HotelDTO::getTotalReviews);
+            reversed = "asc".equals(sortOrder);
+        } else if ("rating".equals(sortBy)) {
+            scorer = Scorer.highest(hotel -> orZero(hotel.getAverageRating()));
+            reversed = "asc".equals(sortOrder);
+        } else if ("value".equals(sortBy)) {
+            scorer = Scorer.lowest(SearchResponseDTO.HotelDTO::getPricePerNight);
+            reversed = "desc".equals(sortOrder);
+        } else {
+            scorer = Scorer.lowest(hotel -> orZero(hotel.getPricePerNight()));
+            reversed = "desc".equals(sortOrder);
+        }
+        return reversed ? scorer.reversed() : scorer;
+    }
+    
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
+    private static double origin(Double requested, BigDecimal fallback) {
+        if (requested != null) {
+            return requested;
+        }
+        if (fallback == null) {
+            throw new IllegalArgumentException("Sorting by distance needs latitude and longitude");
+        }
+        return fallback.doubleValue();
+    }
+    
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    private List<SearchResponseDTO.AttractionDTO> getAttractionsForSearch(Destination destination, SearchRequestDTO searchRequest, int limit) {
+        List<User.TravelInterest> interests = searchRequest.getInterests();
+        List<SearchResponseDTO.AttractionDTO> localAttractions;
         
         if (interests != null && !interests.isEmpty()) {
-            localAttractions = attractionRepository.findByDestinationAndInterests(destination, interests);
+            localAttractions = findAttractionsWithAnyInterest(destination, interests);
+        } else if (destination.getId() == null) {
+            localAttractions = List.of(); // Placeholder for a place that is not in the catalog
         } else {
-            localAttractions = attractionRepository.findByDestinationAndActiveTrue(destination);
+            localAttractions = attractionRepository.findByDestinationAndActiveTrue(destination).stream()
+                    .map(this::convertAttractionToDTO)
+                    .collect(Collectors.toList());
         }
         
-        List<SearchResponseDTO.AttractionDTO> attractionDTOs = localAttractions.stream()
-                .map(this::convertAttractionToDTO)
-                .collect(Collectors.toList());
+        List<SearchResponseDTO.AttractionDTO> attractionDTOs = new ArrayList<>(rankAttractions(localAttractions, destination,
+                InterestMaskIndex.mask(interests), searchRequest.getSortBy(), searchRequest.getSortOrder(),
+                searchRequest.getLatitude(), searchRequest.getLongitude(), limit));
         
-        // Get additional attractions from external APIs
-        List<SearchResponseDTO.AttractionDTO> externalAttractions = externalAPIService.searchAttractions(destination, interests);
-        attractionDTOs.addAll(externalAttractions);
+        // Get additional attractions from external APIs, keeping the section within the page size
+        if (attractionDTOs.size() < limit) {
+            List<SearchResponseDTO.AttractionDTO> externalAttractions = SearchFanOut.interruptibly(
+                    () -> externalAPIService.searchAttractions(destination, interests));
+            attractionDTOs.addAll(externalAttractions.subList(0, Math.min(externalAttractions.size(), limit - attractionDTOs.size())));
+        }
         
         return attractionDTOs;
     }
     
+    /**
+     * Keeps the best {@code limit} attractions. With interests, the number of requested interests
+     * matched leads and the sort signal is blended in at half weight; without interests or a sort,
+     * the candidates keep their order.
+     */
+    private List<SearchResponseDTO.AttractionDTO> rankAttractions(List<SearchResponseDTO.AttractionDTO> candidates,
+                                                                  Destination destination, int interestMask,
+                                                                  String sortBy, String sortOrder,
+                                                                  Double latitude, Double longitude, int limit) {
+        if (interestMask == 0 && sortBy == null) {
+            return candidates.subList(0, Math.min(limit, candidates.size()));
+        }
+        
+        Scorer<SearchResponseDTO.AttractionDTO> signal;
+        if ("price".equals(sortBy)) {
+            signal = Scorer.lowest(attraction -> Boolean.TRUE.equals(attraction.getFreeEntry()) ? BigDecimal.ZERO : attraction.getEntryFee());
+            signal = "desc".equals(sortOrder) ? signal.reversed() : signal;
+        } else if ("distance".equals(sortBy)) {
+            signal = Scorer.nearest(origin(latitude, destination.getLatitude()), origin(longitude, destination.getLongitude()),
+                    SearchResponseDTO.AttractionDTO::getLatitude, SearchResponseDTO.AttractionDTO::getLongitude);
+            signal = "desc".equals(sortOrder) ? signal.reversed() : signal;
+        } else if ("popularity".equals(sortBy)) {
+            signal = Scorer.popularity(SearchResponseDTO.AttractionDTO::getTotalReviews);
+            signal = "asc".equals(sortOrder) ? signal.reversed() : signal;
+        } else {
+            signal = Scorer.highest(SearchResponseDTO.AttractionDTO::getAverageRating);
+            signal = "rating".equals(sortBy) && "asc".equals(sortOrder) ? signal.reversed() : signal;
+        }
+        
+        Ranker<SearchResponseDTO.AttractionDTO> ranker = interestMask == 0 ? Ranker.by(signal)
+                : Ranker.by(Scorer.<SearchResponseDTO.AttractionDTO>interestMatches(interestMask,
+                        attraction -> interestMaskIndex.attractionMask(attraction.getId()))).and(signal, 0.5);
+        return ranker.top(candidates, limit);
+    }
+    
+    /**
+     * Active attractions of the destination matching at least one interest, resolved against the
+     * in-memory interest masks and served from the catalog read model.
+     */
+    private List<SearchResponseDTO.AttractionDTO> findAttractionsWithAnyInterest(Destination destination, Collection<User.TravelInterest> interests) {
+        long[] ids = interestMaskIndex.attractionsWithAny(destination.getId(), InterestMaskIndex.mask(interests));
+        return catalogReadModel.attractions(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+    }
+    
+    /**
+     * Filter counts over every catalog hotel and attraction matching the request, computed in
+     * one pass over each candidate set. External offers are not counted.
+     */
+    private SearchResponseDTO.FacetsDTO getFacetsForSearch(Destination destination, SearchRequestDTO searchRequest,
+                                                           HotelAvailabilityIndex.Stay stay, long requiredAmenities) {
+        FacetCounter counter = new FacetCounter();
+        if (destination.getId() == null) {
+            return counter.toDTO();
+        }
+        
+        List<Long> hotelIds = findMatchingHotelIds(destination.getId(),
+                searchRequest.getMinBudget() != null ? BigDecimal.valueOf(searchRequest.getMinBudget()) : null,
+                searchRequest.getMaxBudget() != null ? BigDecimal.valueOf(searchRequest.getMaxBudget()) : null,
+                searchRequest.getMinHotelRating() != null ? BigDecimal.valueOf(searchRequest.getMinHotelRating()) : null,
+                requiredAmenities, stay);
+        for (SearchResponseDTO.HotelDTO hotel : catalogReadModel.hotels(hotelIds)) {
+            counter.addHotel(hotel.getStarRating(), hotelAmenityIndex.maskOf(hotel.getId()), hotel.getPricePerNight());
+        }
+        
+        List<User.TravelInterest> interests = searchRequest.getInterests();
+        long[] attractionIds = interests == null || interests.isEmpty()
+                ? interestMaskIndex.attractionsOf(destination.getId())
+                : interestMaskIndex.attractionsWithAny(destination.getId(), InterestMaskIndex.mask(interests));
+        for (SearchResponseDTO.AttractionDTO attraction : catalogReadModel.attractions(
+                Arrays.stream(attractionIds).boxed().collect(Collectors.toList()))) {
+            counter.addAttraction(attraction.getType());
+        }
+        return counter.toDTO();
+    }
+    
     private List<SearchResponseDTO.TransportOptionDTO> getTransportOptions(String from, String to) {
-        return externalAPIService.getTransportOptions(from, to, null, null);
+        return SearchFanOut.interruptibly(() -> externalAPIService.getTransportOptions(from, to, null, null));
+    }
+    
+    private void saveSearchHistory(SearchRequestDTO searchRequest, String userEmail, int resultsCount) {
+        SearchHistory history = SearchHistory.builder()
+                .fromLocation(searchRequest.getFromLocation())
+                .toLocation(searchRequest.getToLocation())
+                .checkInDate(searchRequest.getCheckInDate())
+                .checkOutDate(searchRequest.getCheckOutDate())
+                .numberOfGuests(searchRequest.getNumberOfGuests())
+                .numberOfAdults(searchRequest.getNumberOfAdults())
+                .numberOfChildren(searchRequest.getNumberOfChildren())
+                .minBudget(searchRequest.getMinBudget())
+                .maxBudget(searchRequest.getMaxBudget())
+                .budgetCurrency(searchRequest.getBudgetCurrency())
+                .selectedInterests(searchRequest.getInterests() != null ? searchRequest.getInterests() : new ArrayList<>())
+                .hotelMinRating(searchRequest.getMinHotelRating())
+                .hotelMaxRating(searchRequest.getMaxHotelRating())
+                .requiredAmenities(parseEnums(Hotel.Amenity.class, searchRequest.getRequiredAmenities()))
+                .preferredRoomType(parseEnum(Room.RoomType.class, searchRequest.getPreferredRoomType()))
+                .preferredTransportTypes(parseEnums(Booking.TransportType.class, searchRequest.getPreferredTransportTypes()))
+                .resultsCount(resultsCount)
+                .searchDate(LocalDateTime.now())
+                .build();
+        
+        // Anonymous searches are recorded too - they feed trending and conversion analytics
+        searchHistoryWriter.enqueue(history, userEmail);
+    }
+    
+    private <E extends Enum<E>> List<E> parseEnums(Class<E> type, List<String> values) {
+        List<E> parsed = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                E constant = parseEnum(type, value);
+                if (constant != null) {
+                    parsed.add(constant);
+                }
+            }
+        }
+        return parsed;
+    }
+    
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring unknown {} value in search history: {}", type.getSimpleName(), value);
+            return null;
+        }
+    }
+    
+    private void validateNearbyQuery(double latitude, double longitude, Double radiusKm, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
     }
     
-    private void saveSearchHistory(SearchRequestDTO searchRequest) {
-        // This would save search history for authenticated users
-        // Implementation depends on security context
+    private SearchResponseDTO.MapClusterDTO convertClusterToDTO(MarkerGrid.Cluster cluster) {
+        return SearchResponseDTO.MapClusterDTO.builder()
+                .id(cluster.getId())
+                .count(cluster.getCount())
+                .latitude(cluster.getLatitude())
+                .longitude(cluster.getLongitude())
+                .minPrices(cluster.getMinPrices())
+                .build();
+    }
+    
+    private Double roundDistance(double distanceKm) {
+        return Math.round(distanceKm * 100) / 100.0;
     }
     
     private List<Destination> searchDestinationsFromExternalAPI(String query) {
@@ -308,91 +886,32 @@ public class SearchService {
     }
     
     private List<SearchResponseDTO.AttractionDTO> getRecommendedAttractions(Destination destination, List<String> interests) {
-        List<Attraction> attractions = attractionRepository.findByDestinationOrderByPopularity(destination)
-                .stream()
-                .limit(10)
-                .collect(Collectors.toList());
+        int interestMask = InterestMaskIndex.lenientMask(interests);
+        if (destination.getId() == null) {
+            return new ArrayList<>();
+        }
         
-        return attractions.stream()
+        // Attractions sharing more of the requested interests come first, popularity order breaks ties
+        List<SearchResponseDTO.AttractionDTO> attractions = attractionRepository.findByDestinationOrderByPopularity(destination)
+                .stream()
                 .map(this::convertAttractionToDTO)
                 .collect(Collectors.toList());
+        
+        return Ranker.by(Scorer.<SearchResponseDTO.AttractionDTO>interestMatches(interestMask,
+                attraction -> interestMaskIndex.attractionMask(attraction.getId()))).top(attractions, 10);
     }
     
     // DTO Conversion methods
     
     private SearchResponseDTO.DestinationDTO convertDestinationToDTO(Destination destination) {
-        return SearchResponseDTO.DestinationDTO.builder()
-                .id(destination.getId())
-                .name(destination.getName())
-                .city(destination.getCity())
-                .country(destination.getCountry())
-                .countryCode(destination.getCountryCode())
-                .latitude(destination.getLatitude())
-                .longitude(destination.getLongitude())
-                .description(destination.getDescription())
-                .imageUrl(destination.getImageUrl())
-                .popularInterests(destination.getPopularInterests().stream()
-                        .map(Enum::name).collect(Collectors.toList()))
-                .averageRating(destination.getAverageRating())
-                .totalReviews(destination.getTotalReviews())
-                .timeZone(destination.getTimeZone())
-                .climate(destination.getClimate())
-                .bestTimeToVisit(destination.getBestTimeToVisit())
-                .pricing(SearchResponseDTO.PricingDTO.builder()
-                        .budgetDailyCost(destination.getBudgetDailyCost())
-                        .midRangeDailyCost(destination.getMidRangeDailyCost())
-                        .luxuryDailyCost(destination.getLuxuryDailyCost())
-                        .currency("USD")
-                        .build())
-                .build();
+        return catalogReadModel.destination(destination);
     }
     
     private SearchResponseDTO.HotelDTO convertHotelToDTO(Hotel hotel) {
-        return SearchResponseDTO.HotelDTO.builder()
-                .id(hotel.getId())
-                .name(hotel.getName())
-                .address(hotel.getAddress())
-                .latitude(hotel.getLatitude())
-                .longitude(hotel.getLongitude())
-                .description(hotel.getDescription())
-                .imageUrls(hotel.getImageUrls())
-                .starRating(hotel.getStarRating() != null ? hotel.getStarRating().getValue() : null)
-                .amenities(hotel.getAmenities().stream()
-                        .map(Enum::name).collect(Collectors.toList()))
-                .pricePerNight(hotel.getPricePerNight())
-                .currency(hotel.getCurrency())
-                .averageRating(hotel.getAverageRating())
-                .totalReviews(hotel.getTotalReviews())
-                .phoneNumber(hotel.getPhoneNumber())
-                .website(hotel.getWebsite())
-                .featured(hotel.getFeatured())
-                .destination(convertDestinationToDTO(hotel.getDestination()))
-                .build();
+        return catalogReadModel.hotel(hotel);
     }
     
     private SearchResponseDTO.AttractionDTO convertAttractionToDTO(Attraction attraction) {
-        return SearchResponseDTO.AttractionDTO.builder()
-                .id(attraction.getId())
-                .name(attraction.getName())
-                .description(attraction.getDescription())
-                .address(attraction.getAddress())
-                .latitude(attraction.getLatitude())
-                .longitude(attraction.getLongitude())
-                .type(attraction.getType() != null ? attraction.getType().name() : null)
-                .matchingInterests(attraction.getMatchingInterests().stream()
-                        .map(Enum::name).collect(Collectors.toList()))
-                .imageUrls(attraction.getImageUrls())
-                .entryFee(attraction.getEntryFee())
-                .currency(attraction.getCurrency())
-                .freeEntry(attraction.getFreeEntry())
-                .openingHours(attraction.getOpeningHours())
-                .operatingDays(attraction.getOperatingDays())
-                .averageRating(attraction.getAverageRating())
-                .totalReviews(attraction.getTotalReviews())
-                .wheelchairAccessible(attraction.getWheelchairAccessible())
-                .kidsFriendly(attraction.getKidsFriendly())
-                .recommendedDurationHours(attraction.getRecommendedDurationHours())
-                .bestTimeToVisit(attraction.getBestTimeToVisit())
-                .build();
+        return catalogReadModel.attraction(attraction);
     }
 }
\ No newline at end of file
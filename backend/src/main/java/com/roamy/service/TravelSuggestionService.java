@@ -4,6 +4,10 @@ import com.roamy.dto.TravelSuggestionRequestDTO;
 import com.roamy.dto.TravelSuggestionResponseDTO;
 import com.roamy.entity.*;
 import com.roamy.repository.*;
+import com.roamy.search.AttractionFilterIndex;
+import com.roamy.search.DestinationNameIndex;
+import com.roamy.search.DestinationSearchIndex;
+import com.roamy.search.InterestMaskIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +24,10 @@ public class TravelSuggestionService {
     private final DestinationRepository destinationRepository;
     private final AttractionRepository attractionRepository;
     private final HotelRepository hotelRepository;
+    private final DestinationNameIndex destinationNameIndex;
+    private final DestinationSearchIndex destinationSearchIndex;
+    private final InterestMaskIndex interestMaskIndex;
+    private final AttractionFilterIndex attractionFilterIndex;
     
     @SuppressWarnings("unused") // Will be used in future search functionality
     private final SearchService searchService;
@@ -38,7 +46,7 @@ public class TravelSuggestionService {
         long startTime = System.currentTimeMillis();
         
         // Find or create destination
-        Destination destination = findDestination(request.getToLocation());
+        Destination destination = findDestination(request.getToLocation(), InterestMaskIndex.lenientMask(request.getInterests()));
         
         // Generate all suggestion components
         TravelSuggestionResponseDTO.DestinationOverviewDTO overview = generateDestinationOverview(destination);
@@ -101,38 +109,29 @@ public class TravelSuggestionService {
                 .build();
     }
     
-    private Destination findDestination(String locationName) {
+    private Destination findDestination(String locationName, int interestMask) {
         try {
             log.info("Searching for destination: {}", locationName);
             
-            // First try exact match (case insensitive)
-            Optional<Destination> existing = destinationRepository.findByNameIgnoreCase(locationName);
+            // First try exact match on name, city or alias, ignoring case and accents
+            Optional<Destination> existing = destinationNameIndex.find(locationName);
             if (existing.isPresent()) {
                 Destination dest = existing.get();
                 log.info("Found exact match for destination: {} (ID: {})", dest.getName(), dest.getId());
                 return dest;
             }
             
-            // Try partial match on city or country
-            List<Destination> searchResults = destinationRepository.searchByNameCityOrCountry(locationName);
+            // Try partial match on city or country, preferring the match that shares most of the
+            // traveller's interests (the sort is stable, so ties keep the search order)
+            List<Destination> searchResults = new ArrayList<>(destinationSearchIndex.search(locationName));
             if (!searchResults.isEmpty()) {
+                searchResults.sort(Comparator.comparingInt((Destination dest) -> InterestMaskIndex.matchCount(
+                        interestMaskIndex.destinationMask(dest.getId()), interestMask)).reversed());
                 Destination dest = searchResults.get(0);
                 log.info("Found partial match for destination: {} -> {} (ID: {})", locationName, dest.getName(), dest.getId());
                 return dest; // Return first match
             }
             
-            // Try case-sensitive exact name match as fallback
-            List<Destination> allDestinations = destinationRepository.findAll();
-            log.info("Total destinations in database: {}", allDestinations.size());
-            
-            for (Destination dest : allDestinations) {
-                if (dest.getName().equalsIgnoreCase(locationName) || 
-                    dest.getCity().equalsIgnoreCase(locationName)) {
-                    log.info("Found case-insensitive match: {} -> {} (ID: {})", locationName, dest.getName(), dest.getId());
-                    return dest;
-                }
-            }
-            
             log.warn("No existing destination found for: {}, will return fallback", locationName);
             // Return fallback destination instead of creating new one
             return createMinimalDestination(locationName);
@@ -152,9 +151,16 @@ public class TravelSuggestionService {
                             return dest;
                         }
                     }
-                    // If no match found, return first active destination as fallback
-                    log.info("Using first active destination as fallback: {}", allDestinations.get(0).getName());
-                    return allDestinations.get(0);
+                    // If no match found, fall back to the active destination sharing most of the
+                    // traveller's interests, or the first one
+                    List<Long> byInterest = interestMaskIndex.destinationsWithAny(interestMask);
+                    Long preferred = byInterest.isEmpty() ? null : byInterest.get(0);
+                    Destination fallback = allDestinations.stream()
+                            .filter(dest -> dest.getId().equals(preferred))
+                            .findFirst()
+                            .orElse(allDestinations.get(0));
+                    log.info("Using active destination as fallback: {}", fallback.getName());
+                    return fallback;
                 }
             } catch (Exception fallbackEx) {
                 log.error("Fallback destination lookup failed", fallbackEx);
@@ -246,28 +252,26 @@ public class TravelSuggestionService {
             Destination destination, TravelSuggestionRequestDTO request) {
         
         List<Attraction> attractions = new ArrayList<>();
+        int interestMask = InterestMaskIndex.lenientMask(request.getInterests());
         
         // Only query database if destination has a valid ID (was persisted)
         if (destination.getId() != null && destination.getId() > 0) {
             try {
-                attractions = attractionRepository.findByDestinationAndActiveTrue(destination);
+                // Accessibility and family requirements are bitmap intersections with the destination
+                long[] ids = attractionFilterIndex.matching(AttractionFilterIndex.Criteria.builder()
+                        .destinationId(destination.getId())
+                        .wheelchairAccessible(Boolean.TRUE.equals(request.getWheelchairAccessible()))
+                        .kidsFriendly(Boolean.TRUE.equals(request.getFamilyFriendly()))
+                        .build());
+                attractions = new ArrayList<>(attractionRepository.findAllById(
+                        Arrays.stream(ids).boxed().collect(Collectors.toList())));
+                attractions.sort(Comparator.comparing(Attraction::getId));
                 
-                // Filter by interests if provided
-                if (request.getInterests() != null && !request.getInterests().isEmpty()) {
-                    List<User.TravelInterest> interests = request.getInterests().stream()
-                            .map(interest -> {
-                                try {
-                                    return User.TravelInterest.valueOf(interest.toUpperCase());
-                                } catch (IllegalArgumentException e) {
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
+                // Filter by interests if provided, against the in-memory interest masks
+                if (interestMask != 0) {
+                    attractions = attractions.stream()
+                            .filter(attraction -> (interestMaskIndex.attractionMask(attraction.getId()) & interestMask) != 0)
                             .collect(Collectors.toList());
-                    
-                    if (!interests.isEmpty()) {
-                        attractions = attractionRepository.findByDestinationAndInterests(destination, interests);
-                    }
                 }
             } catch (Exception e) {
                 log.warn("Failed to load attractions from database for destination: {}", destination.getName());
@@ -276,7 +280,7 @@ public class TravelSuggestionService {
         }
         
         List<TravelSuggestionResponseDTO.SuggestedAttractionDTO> suggestions = attractions.stream()
-                .map(attraction -> createAttractionSuggestion(attraction, request))
+                .map(attraction -> createAttractionSuggestion(attraction, request, interestMask))
                 .collect(Collectors.toList());
         
         // Always add sample attractions if database results are empty or unavailable
@@ -291,10 +295,10 @@ public class TravelSuggestionService {
     }
     
     private TravelSuggestionResponseDTO.SuggestedAttractionDTO createAttractionSuggestion(
-            Attraction attraction, TravelSuggestionRequestDTO request) {
+            Attraction attraction, TravelSuggestionRequestDTO request, int interestMask) {
         
         String priceRange = calculateAttractionPriceRange(attraction, request.getBudgetLevel());
-        int priorityScore = calculateAttractionPriority(attraction, request);
+        int priorityScore = calculateAttractionPriority(attraction, interestMask);
         
         Map<String, String> practicalInfo = new HashMap<>();
         practicalInfo.put("address", attraction.getAddress());
@@ -799,7 +803,7 @@ public class TravelSuggestionService {
         }
     }
     
-    private int calculateAttractionPriority(Attraction attraction, TravelSuggestionRequestDTO request) {
+    private int calculateAttractionPriority(Attraction attraction, int interestMask) {
         int score = 5; // Base score
         
         // Higher score for better ratings
@@ -808,13 +812,7 @@ public class TravelSuggestionService {
         }
         
         // Higher score for matching interests
-        if (request.getInterests() != null && !attraction.getMatchingInterests().isEmpty()) {
-            long matchingInterests = request.getInterests().stream()
-                    .filter(interest -> attraction.getMatchingInterests().stream()
-                            .anyMatch(ai -> ai.name().equalsIgnoreCase(interest)))
-                    .count();
-            score += (int) matchingInterests * 2;
-        }
+        score += InterestMaskIndex.matchCount(interestMaskIndex.attractionMask(attraction.getId()), interestMask) * 2;
         
         return Math.min(10, score); // Cap at 10
     }
@@ -474,4 +474,8 @@ INSERT INTO users (id, email, password, first_name, last_name, phone_number, rol
 (1, 'steve@gmail.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2uheWG/igi.', 'Steve', 'User', '8210897903', 'USER', true, true, 'INR', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 (2, 'john.doe@gmail.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2uheWG/igi.', 'John', 'Doe', '9876543210', 'USER', true, true, 'USD', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 (3, 'sarah.wilson@gmail.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2uheWG/igi.', 'Sarah', 'Wilson', '8765432109', 'USER', true, true, 'EUR', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(4, 'admin@roamy.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2uheWG/igi.', 'Admin', 'User', '7654321098', 'ADMIN', true, true, 'USD', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
\ No newline at end of file
+(4, 'admin@roamy.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2uheWG/igi.', 'Admin', 'User', '7654321098', 'ADMIN', true, true, 'USD', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+-- Continue generated ids after the explicitly numbered seed destinations, so destinations
+-- created at runtime (geocoded search locations) do not collide with them
+ALTER TABLE destinations ALTER COLUMN id RESTART WITH 1000;
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.roamy.controller;
+
+import com.roamy.dto.SearchRequestDTO;
+import com.roamy.dto.SearchResponseDTO;
+import com.roamy.search.CursorPage;
+import com.roamy.search.PlaceSearch;
+import com.roamy.search.SearchExecutor;
+import com.roamy.search.SearchFanOut;
+import com.roamy.service.SearchService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class SearchControllerTest {
+    
+    private final SearchExecutor executor = new SearchExecutor(4, 16);
+    private final SearchService searchService = mock(SearchService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SearchController(searchService)).build();
+    private final CountDownLatch started = new CountDownLatch(3);
+    private final CountDownLatch interrupted = new CountDownLatch(3);
+    
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+    
+    @Test
+    void streamSendsTheDestinationFirstAndMetadataLast() throws Exception {
+        PlaceSearch search = search(() -> { }, 2000);
+        
+        MvcResult result = stream(search);
+        result.getAsyncResult(5000);
+        
+        String body = result.getResponse().getContentAsString();
+        List<String> events = body.lines().filter(line -> line.startsWith("event:")).toList();
+        assertEquals("event:destination", events.get(0));
+        assertEquals("event:metadata", events.get(events.size() - 1));
+        assertTrue(events.containsAll(List.of("event:hotels", "event:attractions", "event:transport")), body);
+    }
+    
+    @Test
+    void streamTimesOutWithTheSectionDeadlinesAndCancelsTheSections() throws Exception {
+        PlaceSearch search = search(this::blockUntilInterrupted, 10_000);
+        
+        MvcResult result = stream(search);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+        assertTrue(context.getTimeout() > 9_000 && context.getTimeout() <= 11_000, "timeout " + context.getTimeout());
+        
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+        
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(search.getHotels().isDone() && search.getAttractions().isDone() && search.getTransportOptions().isDone());
+    }
+    
+    @Test
+    void clientDisconnectCancelsTheSections() throws Exception {
+        PlaceSearch search = search(this::blockUntilInterrupted, 10_000);
+        
+        MvcResult result = stream(search);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onError(new AsyncEvent(context, new IOException("Broken pipe")));
+        }
+        
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(Set.of("hotels", "attractions", "transport"), new HashSet<>(search.getFanOut().getDegradedSections()));
+    }
+    
+    private MvcResult stream(PlaceSearch search) throws Exception {
+        when(searchService.startPlaceSearch(any(SearchRequestDTO.class), any())).thenReturn(search);
+        return mockMvc.perform(post("/search/places/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toLocation\":\"Lisbon\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+    
+    private PlaceSearch search(Runnable work, long timeoutMs) {
+        SearchFanOut fanOut = executor.newFanOut();
+        SearchRequestDTO request = new SearchRequestDTO();
+        request.setToLocation("Lisbon");
+        return new PlaceSearch(request, 20, fanOut, System.currentTimeMillis(),
+                SearchResponseDTO.DestinationDTO.builder().id(1L).name("Lisbon").build(),
+                fanOut.fork("hotels", after(work, new CursorPage<>(List.of(), null)), timeoutMs, new CursorPage<>(List.of(), null)),
+                fanOut.fork("attractions", after(work, List.of()), timeoutMs, List.of()),
+                fanOut.fork("transport", after(work, List.of()), timeoutMs, List.of()),
+                fanOut.fork("facets", () -> null, timeoutMs, null));
+    }
+    
+    private static <T> Supplier<T> after(Runnable work, T value) {
+        return () -> {
+            work.run();
+            return value;
+        };
+    }
+    
+    private void blockUntilInterrupted() {
+        // A slow provider call, the part of a section that cancelling interrupts
+        SearchFanOut.interruptibly(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.repository.AttractionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttractionFilterIndexTest {
+    
+    private static final Attraction.AttractionType[] TYPES = Attraction.AttractionType.values();
+    
+    @Test
+    void intersectionsAgreeWithFilteringEveryAttraction() {
+        Random random = new Random(19);
+        List<Attraction> catalog = new ArrayList<>();
+        for (long id = 1; id <= 400; id++) {
+            catalog.add(randomAttraction(random, id));
+        }
+        AttractionFilterIndex index = index(catalog);
+        
+        for (int query = 0; query < 500; query++) {
+            AttractionFilterIndex.Criteria criteria = AttractionFilterIndex.Criteria.builder()
+                    .destinationId(random.nextInt(3) == 0 ? null : (long) random.nextInt(6))
+                    .types(randomTypes(random))
+                    .freeEntry(random.nextInt(3) == 0)
+                    .kidsFriendly(random.nextInt(3) == 0)
+                    .wheelchairAccessible(random.nextInt(3) == 0)
+                    .featured(random.nextInt(4) == 0)
+                    .build();
+            
+            assertArrayEquals(filter(catalog, criteria), index.matching(criteria), criteria.toString());
+        }
+    }
+    
+    @Test
+    void changesMoveAttractionsInAndOutOfTheBitmaps() {
+        Attraction museum = attraction(1L, 1L, Attraction.AttractionType.MUSEUM, true, true, false, false);
+        Attraction park = attraction(2L, 1L, Attraction.AttractionType.PARK, true, true, true, false);
+        AttractionFilterIndex index = index(List.of(museum, park));
+        AttractionFilterIndex.Criteria free = AttractionFilterIndex.Criteria.builder().freeEntry(true).build();
+        assertArrayEquals(new long[]{1L, 2L}, index.matching(free));
+        
+        museum.setFreeEntry(false);
+        index.onCatalogChange(new CatalogChangeEvent(museum, CatalogChangeEvent.ChangeType.SAVED));
+        Attraction zoo = attraction(3L, 2L, Attraction.AttractionType.ZOO, true, true, true, true);
+        index.onCatalogChange(new CatalogChangeEvent(zoo, CatalogChangeEvent.ChangeType.SAVED));
+        park.setActive(false);
+        index.onCatalogChange(new CatalogChangeEvent(park, CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertArrayEquals(new long[]{3L}, index.matching(free));
+        assertArrayEquals(new long[]{1L, 3L}, index.matching(AttractionFilterIndex.Criteria.builder().build()));
+        
+        index.onCatalogChange(new CatalogChangeEvent(zoo, CatalogChangeEvent.ChangeType.REMOVED));
+        assertArrayEquals(new long[0], index.matching(free));
+    }
+    
+    @Test
+    void typeNamesParseIgnoringCaseAndRejectTypos() {
+        assertEquals(EnumSet.of(Attraction.AttractionType.MUSEUM, Attraction.AttractionType.PARK),
+                AttractionFilterIndex.parseTypes(List.of(" museum", "PARK", "")));
+        assertEquals(Set.of(), AttractionFilterIndex.parseTypes(null));
+        assertThrows(IllegalArgumentException.class, () -> AttractionFilterIndex.parseTypes(List.of("musem")));
+    }
+    
+    private static long[] filter(List<Attraction> catalog, AttractionFilterIndex.Criteria criteria) {
+        return catalog.stream()
+                .filter(attraction -> Boolean.TRUE.equals(attraction.getActive()))
+                .filter(attraction -> criteria.getDestinationId() == null
+                        || criteria.getDestinationId().equals(attraction.getDestination().getId()))
+                .filter(attraction -> criteria.getTypes().isEmpty() || criteria.getTypes().contains(attraction.getType()))
+                .filter(attraction -> !criteria.isFreeEntry() || attraction.getFreeEntry())
+                .filter(attraction -> !criteria.isKidsFriendly() || attraction.getKidsFriendly())
+                .filter(attraction -> !criteria.isWheelchairAccessible() || attraction.getWheelchairAccessible())
+                .filter(attraction -> !criteria.isFeatured() || attraction.getFeatured())
+                .mapToLong(Attraction::getId)
+                .toArray();
+    }
+    
+    private static Set<Attraction.AttractionType> randomTypes(Random random) {
+        Set<Attraction.AttractionType> types = EnumSet.noneOf(Attraction.AttractionType.class);
+        int count = random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            types.add(TYPES[random.nextInt(TYPES.length)]);
+        }
+        return types;
+    }
+    
+    private static Attraction randomAttraction(Random random, long id) {
+        Attraction attraction = attraction(id, (long) random.nextInt(6), TYPES[random.nextInt(TYPES.length)],
+                random.nextBoolean(), random.nextBoolean(), random.nextBoolean(), random.nextInt(5) == 0);
+        attraction.setActive(random.nextInt(10) != 0);
+        return attraction;
+    }
+    
+    private static Attraction attraction(Long id, Long destinationId, Attraction.AttractionType type, boolean freeEntry,
+                                         boolean kidsFriendly, boolean wheelchairAccessible, boolean featured) {
+        return Attraction.builder()
+                .id(id)
+                .destination(Destination.builder().id(destinationId).build())
+                .type(type)
+                .freeEntry(freeEntry)
+                .kidsFriendly(kidsFriendly)
+                .wheelchairAccessible(wheelchairAccessible)
+                .featured(featured)
+                .build();
+    }
+    
+    private static AttractionFilterIndex index(List<Attraction> catalog) {
+        AttractionRepository repository = mock(AttractionRepository.class);
+        when(repository.findByActiveTrue()).thenReturn(catalog.stream()
+                .filter(attraction -> Boolean.TRUE.equals(attraction.getActive()))
+                .toList());
+        AttractionFilterIndex index = new AttractionFilterIndex(repository);
+        index.rebuild();
+        return index;
+    }
+}
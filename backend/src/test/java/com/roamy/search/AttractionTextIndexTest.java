@@ -0,0 +1,91 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.repository.AttractionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttractionTextIndexTest {
+    
+    private final AttractionRepository repository = mock(AttractionRepository.class);
+    private final AttractionTextIndex index = new AttractionTextIndex(repository);
+    
+    private final Attraction tower = attraction(1L, 1L, "Belem Tower", Attraction.AttractionType.MONUMENT, "Fortified tower on the river");
+    private final Attraction oceanarium = attraction(2L, 1L, "Oceanarium", Attraction.AttractionType.AQUARIUM, "Sharks and sunfish");
+    private final Attraction colosseum = attraction(3L, 2L, "Colosseum", Attraction.AttractionType.MONUMENT, "Roman amphitheatre");
+    
+    @Test
+    void searchRanksByRelevanceWithinTheDestination() {
+        when(repository.findByActiveTrue()).thenReturn(List.of(tower, oceanarium, colosseum));
+        index.rebuild();
+        
+        assertEquals(List.of(1L, 3L), index.search("tower monument", null, 10));
+        assertEquals(List.of(1L), index.search("monument", 1L, 10));
+        assertEquals(List.of(), index.search("castle", null, 10));
+    }
+    
+    @Test
+    void changesFollowTheCatalog() {
+        when(repository.findByActiveTrue()).thenReturn(List.of(tower, oceanarium));
+        index.rebuild();
+        
+        oceanarium.setActive(false);
+        index.onCatalogChange(new CatalogChangeEvent(oceanarium, CatalogChangeEvent.ChangeType.SAVED));
+        index.onCatalogChange(new CatalogChangeEvent(colosseum, CatalogChangeEvent.ChangeType.SAVED));
+        index.onCatalogChange(new CatalogChangeEvent(tower, CatalogChangeEvent.ChangeType.REMOVED));
+        
+        assertEquals(List.of(), index.search("sharks", null, 10));
+        assertEquals(List.of(3L), index.search("monument", null, 10));
+    }
+    
+    @Test
+    void changeCommittedDuringARebuildIsNotLost() throws InterruptedException {
+        when(repository.findByActiveTrue()).thenReturn(List.of(tower));
+        index.rebuild();
+        
+        // The second load returns a catalog read before the colosseum was committed
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByActiveTrue()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(tower);
+        });
+        Thread rebuild = new Thread(index::rebuild);
+        rebuild.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        
+        Thread change = new Thread(() ->
+                index.onCatalogChange(new CatalogChangeEvent(colosseum, CatalogChangeEvent.ChangeType.SAVED)));
+        change.start();
+        // Searches keep answering from the current index while the load runs
+        assertEquals(List.of(1L), index.search("tower", null, 10));
+        release.countDown();
+        rebuild.join(5000);
+        change.join(5000);
+        
+        assertEquals(List.of(3L), index.search("colosseum", null, 10));
+        assertEquals(List.of(1L), index.search("tower", null, 10));
+    }
+    
+    private static Attraction attraction(Long id, Long destinationId, String name, Attraction.AttractionType type,
+                                         String description) {
+        return Attraction.builder()
+                .id(id)
+                .destination(Destination.builder().id(destinationId).build())
+                .name(name)
+                .type(type)
+                .description(description)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BKTreeTest {
+    
+    @Test
+    void levenshteinCountsInsertionsDeletionsAndSubstitutions() {
+        assertEquals(0, BKTree.levenshtein("rome", "rome"));
+        assertEquals(1, BKTree.levenshtein("barcelna", "barcelona"));
+        assertEquals(1, BKTree.levenshtein("paris", "pariss"));
+        assertEquals(3, BKTree.levenshtein("kitten", "sitting"));
+        assertEquals(4, BKTree.levenshtein("", "oslo"));
+    }
+    
+    @Test
+    void findsTyposClosestFirstWithAllTheirIds() {
+        BKTree tree = BKTree.builder()
+                .add("Barcelona", 1L)
+                .add("Barcelona", 7L)
+                .add("Bangkok", 2L)
+                .add("Bali", 3L)
+                .build();
+        
+        List<BKTree.Match> matches = tree.search("Barcelna", 2);
+        
+        assertEquals(1, matches.size());
+        assertEquals("barcelona", matches.get(0).getTerm());
+        assertArrayEquals(new long[]{1L, 7L}, matches.get(0).getIds());
+        assertTrue(tree.search("", 2).isEmpty());
+        assertTrue(BKTree.empty().search("bali", 2).isEmpty());
+    }
+    
+    @Test
+    void matchesALinearScanOnRandomTerms() {
+        Random random = new Random(16);
+        List<String> terms = new ArrayList<>();
+        BKTree.Builder builder = BKTree.builder();
+        for (int i = 0; i < 400; i++) {
+            String term = randomWord(random);
+            terms.add(term);
+            builder.add(term, i);
+        }
+        BKTree tree = builder.build();
+        
+        for (int round = 0; round < 200; round++) {
+            String query = randomWord(random);
+            int maxDistance = random.nextInt(4);
+            
+            List<String> expected = terms.stream()
+                    .distinct()
+                    .filter(term -> BKTree.levenshtein(query, term) <= maxDistance)
+                    .sorted(Comparator.comparingInt((String term) -> BKTree.levenshtein(query, term))
+                            .thenComparing(term -> term))
+                    .toList();
+            assertEquals(expected, tree.search(query, maxDistance).stream().map(BKTree.Match::getTerm).toList());
+        }
+    }
+    
+    private static String randomWord(Random random) {
+        // A small alphabet, so many terms are within a few edits of each other
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BM25IndexTest {
+    
+    private static final int NAME = 3;
+    private static final int DESCRIPTION = 1;
+    
+    @Test
+    void wordInTheNameOutranksTheSameWordInADescription() {
+        BM25Index index = new BM25Index(NAME, DESCRIPTION);
+        index.put(1L, "Old Town Walk", "A tour past the cathedral and the market");
+        index.put(2L, "Cathedral of Our Lady", "Gothic church in the old town");
+        index.put(3L, "Harbour Cruise", "Boats leave every hour");
+        
+        assertEquals(List.of(2L, 1L), ids(index.search("cathedral", 10, id -> true)));
+    }
+    
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        BM25Index index = new BM25Index(1);
+        index.put(1L, "museum art");
+        index.put(2L, "museum history");
+        index.put(3L, "museum science");
+        index.put(4L, "park art");
+        
+        List<BM25Index.Hit> hits = index.search("museum history", 10, id -> true);
+        
+        assertEquals(2L, hits.get(0).getId());
+        assertEquals(List.of(2L, 1L, 3L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+    
+    @Test
+    void equalScoresKeepTheLowerIdFirstAndRespectTheLimit() {
+        BM25Index index = new BM25Index(1);
+        index.put(9L, "beach");
+        index.put(4L, "beach");
+        index.put(6L, "beach");
+        
+        assertEquals(List.of(4L, 6L), ids(index.search("beach", 2, id -> true)));
+        assertEquals(List.of(6L, 9L), ids(index.search("beach", 10, id -> id != 4L)));
+        assertTrue(index.search("beach", 0, id -> true).isEmpty());
+    }
+    
+    @Test
+    void stopWordsAndUnknownTermsMatchNothing() {
+        BM25Index index = new BM25Index(1);
+        index.put(1L, "The Tower of London");
+        
+        assertTrue(index.search("the of", 10, id -> true).isEmpty());
+        assertTrue(index.search("paris", 10, id -> true).isEmpty());
+        assertEquals(List.of("tower", "london"), BM25Index.tokenize("The Tower of London!"));
+    }
+    
+    @Test
+    void reindexingReplacesTheOldTextAndRemovalForgetsIt() {
+        BM25Index index = new BM25Index(1);
+        index.put(1L, "sunset cruise");
+        index.put(1L, "night market");
+        index.put(2L, "sunset viewpoint");
+        index.remove(2L);
+        
+        assertTrue(index.search("sunset", 10, id -> true).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("market", 10, id -> true)));
+        assertEquals(1, index.size());
+    }
+    
+    private static List<Long> ids(List<BM25Index.Hit> hits) {
+        return hits.stream().map(BM25Index.Hit::getId).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogChangeQueueTest {
+    
+    @Test
+    void burstIsAppliedOnceInCommitOrderOffTheCallingThread() throws InterruptedException {
+        BlockingQueue<List<CatalogChangeEvent>> batches = new LinkedBlockingQueue<>();
+        BlockingQueue<Thread> threads = new LinkedBlockingQueue<>();
+        CatalogChangeQueue queue = new CatalogChangeQueue("test", Duration.ofMillis(100), batch -> {
+            threads.add(Thread.currentThread());
+            batches.add(batch);
+        }, () -> {
+        });
+        try {
+            CatalogChangeEvent first = saved(1L);
+            CatalogChangeEvent second = saved(2L);
+            CatalogChangeEvent third = new CatalogChangeEvent(first.getEntity(), CatalogChangeEvent.ChangeType.REMOVED);
+            queue.add(first);
+            queue.add(second);
+            queue.add(third);
+            
+            assertEquals(List.of(first, second, third), batches.poll(5, TimeUnit.SECONDS));
+            assertNotEquals(Thread.currentThread(), threads.poll());
+            assertNull(batches.poll(300, TimeUnit.MILLISECONDS));
+            
+            // A later change starts a new batch
+            CatalogChangeEvent fourth = saved(4L);
+            queue.add(fourth);
+            assertEquals(List.of(fourth), batches.poll(5, TimeUnit.SECONDS));
+        } finally {
+            queue.shutdown();
+        }
+    }
+    
+    @Test
+    void failedBatchFallsBackToARebuildAndDoesNotStopLaterOnes() throws InterruptedException {
+        BlockingQueue<List<CatalogChangeEvent>> batches = new LinkedBlockingQueue<>();
+        BlockingQueue<Thread> rebuilds = new LinkedBlockingQueue<>();
+        CatalogChangeQueue queue = new CatalogChangeQueue("test", Duration.ofMillis(10), batch -> {
+            batches.add(batch);
+            throw new IllegalStateException("index build failed");
+        }, () -> rebuilds.add(Thread.currentThread()));
+        try {
+            queue.add(saved(1L));
+            assertEquals(1, batches.poll(5, TimeUnit.SECONDS).size());
+            assertNotNull(rebuilds.poll(5, TimeUnit.SECONDS));
+            queue.add(saved(2L));
+            assertEquals(1, batches.poll(5, TimeUnit.SECONDS).size());
+            assertNotNull(rebuilds.poll(5, TimeUnit.SECONDS));
+        } finally {
+            queue.shutdown();
+        }
+    }
+    
+    private static CatalogChangeEvent saved(Long id) {
+        return new CatalogChangeEvent(Destination.builder().id(id).build(), CatalogChangeEvent.ChangeType.SAVED);
+    }
+}
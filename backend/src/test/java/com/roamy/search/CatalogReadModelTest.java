@@ -0,0 +1,128 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.entity.Hotel;
+import com.roamy.entity.User;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import com.roamy.repository.HotelRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogReadModelTest {
+    
+    private final DestinationRepository destinationRepository = mock(DestinationRepository.class);
+    private final HotelRepository hotelRepository = mock(HotelRepository.class);
+    private final AttractionRepository attractionRepository = mock(AttractionRepository.class);
+    private final CatalogReadModel readModel = new CatalogReadModel(destinationRepository, hotelRepository, attractionRepository);
+    
+    private final Destination lisbon = destination(2L, "Lisbon", true);
+    private final Destination porto = destination(1L, "Porto", true);
+    private final Destination faro = destination(3L, "Faro", false);
+    private final Hotel riverside = hotel(10L, "Riverside", lisbon);
+    private final Hotel alfama = hotel(11L, "Alfama Rooms", lisbon);
+    
+    @Test
+    void rebuildSharesOneDestinationDtoBetweenItsHotels() {
+        load();
+        
+        assertEquals(List.of(1L, 2L), readModel.activeDestinations().stream()
+                .map(SearchResponseDTO.DestinationDTO::getId).toList());
+        List<SearchResponseDTO.HotelDTO> hotels = readModel.hotels(List.of(11L, 10L));
+        assertEquals(List.of("Alfama Rooms", "Riverside"), hotels.stream().map(SearchResponseDTO.HotelDTO::getName).toList());
+        assertSame(hotels.get(0).getDestination(), hotels.get(1).getDestination());
+        assertSame(readModel.destination(lisbon), hotels.get(0).getDestination());
+        assertEquals(List.of(CatalogReadModel.SOURCE), hotels.get(0).getSources());
+        assertEquals(List.of("CULTURE"), hotels.get(0).getDestination().getPopularInterests());
+        assertThrows(UnsupportedOperationException.class, () -> hotels.get(0).getAmenities().add("SPA"));
+        verify(hotelRepository, never()).findAllById(anyList());
+    }
+    
+    @Test
+    void destinationChangesRePointItsHotelsAndTheActiveList() {
+        load();
+        
+        lisbon.setName("Lisboa");
+        lisbon.setActive(false);
+        readModel.onCatalogChange(new CatalogChangeEvent(lisbon, CatalogChangeEvent.ChangeType.SAVED));
+        faro.setActive(true);
+        readModel.onCatalogChange(new CatalogChangeEvent(faro, CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertEquals(List.of(1L, 3L), readModel.activeDestinations().stream()
+                .map(SearchResponseDTO.DestinationDTO::getId).toList());
+        assertEquals("Lisboa", readModel.hotels(List.of(10L)).get(0).getDestination().getName());
+        assertEquals("Lisboa", readModel.hotel(alfama).getDestination().getName());
+        
+        readModel.onCatalogChange(new CatalogChangeEvent(lisbon, CatalogChangeEvent.ChangeType.REMOVED));
+        assertNull(readModel.hotel(riverside).getDestination());
+        assertEquals(List.of(), readModel.destinations(List.of(2L)));
+    }
+    
+    @Test
+    void hotelAndAttractionChangesReplaceOnlyTheirOwnDtos() {
+        load();
+        SearchResponseDTO.DestinationDTO before = readModel.destination(lisbon);
+        
+        riverside.setName("Riverside Suites");
+        readModel.onCatalogChange(new CatalogChangeEvent(riverside, CatalogChangeEvent.ChangeType.SAVED));
+        readModel.onCatalogChange(new CatalogChangeEvent(alfama, CatalogChangeEvent.ChangeType.REMOVED));
+        Attraction tower = Attraction.builder().id(20L).name("Belem Tower").type(Attraction.AttractionType.MONUMENT).build();
+        readModel.onCatalogChange(new CatalogChangeEvent(tower, CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertEquals("Riverside Suites", readModel.hotel(riverside).getName());
+        assertSame(before, readModel.hotel(riverside).getDestination());
+        assertEquals(List.of("MONUMENT"), readModel.attractions(List.of(20L)).stream()
+                .map(SearchResponseDTO.AttractionDTO::getType).toList());
+    }
+    
+    @Test
+    void idsMissingFromTheSnapshotAreLoadedAndUnknownIdsSkipped() {
+        load();
+        Hotel harbour = hotel(12L, "Harbour Inn", porto);
+        when(hotelRepository.findAllById(List.of(12L, 99L))).thenReturn(List.of(harbour));
+        
+        List<SearchResponseDTO.HotelDTO> hotels = readModel.hotels(List.of(12L, 10L, 99L));
+        
+        assertEquals(List.of(12L, 10L), hotels.stream().map(SearchResponseDTO.HotelDTO::getId).toList());
+        assertSame(readModel.destination(porto), hotels.get(0).getDestination());
+    }
+    
+    private void load() {
+        when(destinationRepository.findAll()).thenReturn(List.of(lisbon, porto, faro));
+        when(hotelRepository.findAll()).thenReturn(List.of(riverside, alfama));
+        when(attractionRepository.findAll()).thenReturn(List.of());
+        readModel.rebuild();
+    }
+    
+    private static Destination destination(Long id, String name, boolean active) {
+        return Destination.builder()
+                .id(id)
+                .name(name)
+                .active(active)
+                .popularInterests(new ArrayList<>(List.of(User.TravelInterest.CULTURE)))
+                .build();
+    }
+    
+    private static Hotel hotel(Long id, String name, Destination destination) {
+        return Hotel.builder()
+                .id(id)
+                .name(name)
+                .destination(destination)
+                .amenities(new ArrayList<>(List.of(Hotel.Amenity.WIFI)))
+                .build();
+    }
+}
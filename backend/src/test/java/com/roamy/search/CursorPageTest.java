@@ -0,0 +1,102 @@
+package com.roamy.search;
+
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorPageTest {
+    
+    private static final String SORT = "price:asc";
+    private static final Scorer<Item> CHEAPEST = Scorer.lowest(Item::getPrice);
+    
+    @Test
+    void pagesFollowTheScoreThenTheId() {
+        List<Item> items = List.of(item(1, "30"), item(2, "10"), item(3, null), item(4, "10"), item(5, "20"));
+        
+        List<Long> seen = new ArrayList<>();
+        PageCursor after = null;
+        do {
+            CursorPage<Item> page = CursorPage.ranked(items, CHEAPEST, Item::getId, SORT, after, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            after = page.hasNext() ? PageCursor.decode(page.getNextCursor(), SORT) : null;
+        } while (after != null);
+        
+        // Missing prices rank last, and still get a cursor before them
+        assertEquals(List.of(2L, 4L, 5L, 1L, 3L), seen);
+    }
+    
+    @Test
+    void catalogChangesBetweenPagesNeitherSkipNorRepeatRows() {
+        Random random = new Random(4);
+        for (int round = 0; round < 50; round++) {
+            TreeMap<Long, Item> catalog = new TreeMap<>();
+            long nextId = 1;
+            for (; nextId <= 40; nextId++) {
+                catalog.put(nextId, item(nextId, random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(500))));
+            }
+            Set<Long> present = new HashSet<>(catalog.keySet());
+            Set<Long> changed = new HashSet<>();
+            
+            List<Item> seen = new ArrayList<>();
+            PageCursor after = null;
+            do {
+                CursorPage<Item> page = CursorPage.ranked(new ArrayList<>(catalog.values()), CHEAPEST, Item::getId, SORT, after, 7);
+                seen.addAll(page.getItems());
+                after = page.hasNext() ? PageCursor.decode(page.getNextCursor(), SORT) : null;
+                
+                // Hotels are added and removed between requests, shifting the cheapest and dearest price
+                for (int change = 0; change < 3; change++) {
+                    if (random.nextBoolean() && !catalog.isEmpty()) {
+                        Long removed = new ArrayList<>(catalog.keySet()).get(random.nextInt(catalog.size()));
+                        catalog.remove(removed);
+                        changed.add(removed);
+                    } else {
+                        long id = nextId++;
+                        catalog.put(id, item(id, Integer.toString(random.nextInt(2000) - 500)));
+                        changed.add(id);
+                    }
+                }
+            } while (after != null);
+            
+            List<Long> seenIds = seen.stream().map(Item::getId).toList();
+            assertEquals(seenIds.size(), new HashSet<>(seenIds).size(), "a row was repeated");
+            for (Long id : present) {
+                assertTrue(changed.contains(id) || seenIds.contains(id), "row " + id + " was skipped");
+            }
+            List<Item> sorted = new ArrayList<>(seen);
+            sorted.sort(Comparator.comparingDouble((Item item) -> -Math.max(CHEAPEST.score(item), -Double.MAX_VALUE))
+                    .thenComparingLong(Item::getId));
+            assertEquals(sorted, seen);
+        }
+    }
+    
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Item> page = CursorPage.ranked(List.of(item(1, "10"), item(2, "20")), CHEAPEST, Item::getId, SORT, null, 2);
+        
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    private static Item item(long id, String price) {
+        return new Item(id, price != null ? new BigDecimal(price) : null);
+    }
+    
+    @Value
+    private static class Item {
+        long id;
+        BigDecimal price;
+    }
+}
@@ -0,0 +1,104 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DestinationNameIndexTest {
+    
+    private static final List<String> ALIASES = List.of(
+            "Bombay=Mumbai", "Saigon=Ho Chi Minh City", "Roma=Rome", "Lisboa=Lisbon", "Gotham=Nowhere", "broken");
+    
+    private final List<Destination> catalog = new ArrayList<>(List.of(
+            destination(1L, "Mumbai", "Mumbai"),
+            destination(2L, "Vietnam South", "Ho Chi Minh City"),
+            destination(3L, "Malé Atolls", "Malé"),
+            destination(4L, "Barcelona", "Barcelona"),
+            destination(5L, "Rome", "Rome"),
+            // Named after another destination's alias and city: the name must win over both
+            destination(6L, "Roma", "Roma Norte"),
+            destination(7L, "Lisbon Coast", "Cascais"),
+            destination(8L, "Lisbon", "Lisbon")));
+    private DestinationNameIndex index;
+    
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.destroy();
+        }
+    }
+    
+    @Test
+    void findsNamesAndCitiesWhateverTheAccentsAndCase() {
+        build();
+        
+        assertEquals(3L, id(index.find("male atolls")));
+        assertEquals(3L, id(index.find("  MALE ")));
+        assertEquals(4L, id(index.find("BARCELONA")));
+        assertTrue(index.find("Gaudí").isEmpty());
+        assertTrue(index.find(null).isEmpty());
+    }
+    
+    @Test
+    void aliasesPointAtTheCanonicalDestination() {
+        build();
+        
+        assertEquals(1L, id(index.find("Bombay")));
+        assertEquals(2L, id(index.find("saigon")));
+        assertEquals(8L, id(index.find("Lisboa")));
+        // An alias whose canonical side is not in the catalog, or is malformed, matches nothing
+        assertTrue(index.find("Gotham").isEmpty());
+        assertTrue(index.find("broken").isEmpty());
+    }
+    
+    @Test
+    void nameWinsOverCityWhichWinsOverAlias() {
+        catalog.add(destination(9L, "Old Town", "Lisbon Coast"));
+        catalog.add(destination(10L, "Harbour", "Bombay"));
+        build();
+        
+        assertEquals(6L, id(index.find("Roma")));
+        assertEquals(7L, id(index.find("Lisbon Coast")));
+        assertEquals(10L, id(index.find("Bombay")));
+    }
+    
+    @Test
+    void appliedChangesAreFoundAndRemovalsForgotten() {
+        build();
+        Destination gaudi = destination(11L, "Gaudí Quarter", "Reus");
+        
+        index.apply(List.of(
+                new CatalogChangeEvent(gaudi, CatalogChangeEvent.ChangeType.SAVED),
+                new CatalogChangeEvent(catalog.get(0), CatalogChangeEvent.ChangeType.REMOVED)));
+        
+        assertEquals(11L, id(index.find("gaudi quarter")));
+        assertTrue(index.find("Mumbai").isEmpty());
+        assertTrue(index.find("Bombay").isEmpty());
+    }
+    
+    private void build() {
+        DestinationRepository repository = mock(DestinationRepository.class);
+        when(repository.findAll()).thenReturn(catalog);
+        index = new DestinationNameIndex(repository, ALIASES, Duration.ofMillis(10));
+        index.rebuild();
+    }
+    
+    private static Long id(Optional<Destination> destination) {
+        return destination.map(Destination::getId).orElse(null);
+    }
+    
+    private static Destination destination(Long id, String name, String city) {
+        return Destination.builder().id(id).name(name).city(city).active(true).build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.external.ExternalAPIService;
+import com.roamy.repository.DestinationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DestinationResolverTest {
+    
+    private static final int CALLERS = 8;
+    
+    private final DestinationRepository repository = mock(DestinationRepository.class);
+    private final DestinationNameIndex nameIndex = mock(DestinationNameIndex.class);
+    private final AtomicInteger geocodes = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    
+    @BeforeEach
+    void setUp() {
+        when(nameIndex.find(anyString())).thenReturn(Optional.empty());
+        when(repository.findByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any(Destination.class))).thenAnswer(invocation -> {
+            Destination destination = invocation.getArgument(0);
+            destination.setId(42L);
+            return destination;
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void concurrentFirstSearchesShareOneGeocodeAndOneInsert() throws Exception {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        DestinationResolver resolver = resolver(name -> {
+            awaitQuietly(started);
+            pause(200);
+            return Optional.of(Destination.builder().name("Lisbon").city("Lisbon").country("Portugal").build());
+        }, Duration.ofMinutes(30));
+        
+        List<Future<Destination>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String spelling = i % 2 == 0 ? "Lisbon" : "  lisbon ";
+            results.add(callers.submit(() -> {
+                started.countDown();
+                return resolver.resolve(spelling);
+            }));
+        }
+        
+        Destination first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Destination> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(42L, first.getId());
+        assertEquals(1, geocodes.get());
+        verify(repository, times(1)).save(any(Destination.class));
+    }
+    
+    @Test
+    void failedNameIsNotGeocodedAgainWithinTheTtl() throws InterruptedException {
+        DestinationResolver resolver = resolver(name -> Optional.empty(), Duration.ofMillis(300));
+        
+        Destination placeholder = resolver.resolve("Atlantis");
+        resolver.resolve("ATLANTIS");
+        resolver.resolve("Atlántis");
+        
+        assertNull(placeholder.getId());
+        assertEquals("Atlantis", placeholder.getName());
+        assertEquals(1, geocodes.get());
+        
+        // Once the negative entry expires the name gets another chance
+        Thread.sleep(500);
+        resolver.resolve("Atlantis");
+        assertEquals(2, geocodes.get());
+    }
+    
+    @Test
+    void geocoderFailureReachesEveryWaiterAndClearsTheFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        DestinationResolver resolver = resolver(name -> {
+            if (geocodes.get() == 1) {
+                awaitQuietly(started);
+                pause(200);
+                throw new IllegalStateException("geocoder down");
+            }
+            return Optional.of(Destination.builder().name("Porto").city("Porto").country("Portugal").build());
+        }, Duration.ofMinutes(30));
+        
+        List<Future<Destination>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                started.countDown();
+                return resolver.resolve("Porto");
+            }));
+        }
+        for (Future<Destination> result : results) {
+            Exception failure = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+        assertEquals(1, geocodes.get());
+        
+        // A failure is not a negative answer: the next search geocodes again, on a new flight
+        assertEquals(42L, resolver.resolve("Porto").getId());
+        assertEquals(2, geocodes.get());
+    }
+    
+    @Test
+    void catalogNamesAreNotGeocoded() {
+        Destination paris = Destination.builder().id(7L).name("Paris").build();
+        when(nameIndex.find("Paris")).thenReturn(Optional.of(paris));
+        DestinationResolver resolver = resolver(name -> Optional.empty(), Duration.ofMinutes(30));
+        
+        assertSame(paris, resolver.resolve(" Paris "));
+        assertEquals(0, geocodes.get());
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(" "));
+    }
+    
+    private DestinationResolver resolver(Geocoder geocoder, Duration negativeTtl) {
+        ExternalAPIService external = mock(ExternalAPIService.class);
+        when(external.getDestinationInfo(anyString())).thenAnswer(invocation -> {
+            geocodes.incrementAndGet();
+            return geocoder.lookup(invocation.getArgument(0));
+        });
+        return new DestinationResolver(repository, nameIndex, external, negativeTtl, 100);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Lets every caller reach the resolver and join the flight before the geocoder answers
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Geocoder {
+        Optional<Destination> lookup(String name);
+    }
+}
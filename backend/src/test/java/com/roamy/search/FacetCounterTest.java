@@ -0,0 +1,164 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FacetCounterTest {
+    
+    private static final Hotel.Amenity[] AMENITIES = Hotel.Amenity.values();
+    
+    @Test
+    void countsMatchABruteForceTally() {
+        Random random = new Random(15);
+        for (int round = 0; round < 200; round++) {
+            FacetCounter counter = new FacetCounter();
+            int hotels = 1 + random.nextInt(60);
+            Map<String, Integer> stars = new LinkedHashMap<>();
+            Map<String, Integer> amenities = new LinkedHashMap<>();
+            BigDecimal[] prices = new BigDecimal[hotels];
+            
+            for (int i = 0; i < hotels; i++) {
+                Integer star = random.nextInt(7) == 0 ? null : random.nextInt(7);
+                long mask = random.nextLong();
+                prices[i] = random.nextInt(8) == 0 ? null : randomPrice(random, round);
+                counter.addHotel(star, mask, prices[i]);
+                
+                if (star != null && star >= 1 && star <= 5) {
+                    stars.merge(Integer.toString(star), 1, Integer::sum);
+                }
+                for (Hotel.Amenity amenity : AMENITIES) {
+                    if ((mask & (1L << amenity.ordinal())) != 0) {
+                        amenities.merge(amenity.name(), 1, Integer::sum);
+                    }
+                }
+            }
+            
+            SearchResponseDTO.FacetsDTO facets = counter.toDTO();
+            assertEquals(hotels, facets.getHotelCount());
+            assertEquals(sortedByStar(stars), facets.getStarRatings());
+            assertEquals(inEnumOrder(amenities), facets.getAmenities());
+            assertHistogramHolds(prices, facets.getPriceHistogram());
+        }
+    }
+    
+    @Test
+    void onePriceAndEqualPricesMakeOneBucket() {
+        FacetCounter single = new FacetCounter();
+        single.addHotel(3, 0, new BigDecimal("149.99"));
+        FacetCounter equal = new FacetCounter();
+        for (int i = 0; i < 5; i++) {
+            equal.addHotel(4, 0, new BigDecimal("80"));
+        }
+        
+        List<SearchResponseDTO.PriceBucketDTO> one = single.toDTO().getPriceHistogram();
+        List<SearchResponseDTO.PriceBucketDTO> same = equal.toDTO().getPriceHistogram();
+        
+        assertEquals(1, one.size());
+        assertEquals(1, one.get(0).getCount());
+        assertEquals(1, same.size());
+        assertEquals(5, same.get(0).getCount());
+        assertEquals(0, new BigDecimal("80").compareTo(same.get(0).getMin()));
+    }
+    
+    @Test
+    void highAmenityBitsAreIgnored() {
+        FacetCounter counter = new FacetCounter();
+        counter.addHotel(null, -1L, null);
+        counter.addHotel(null, 1L << 63, null);
+        
+        Map<String, Integer> amenities = counter.toDTO().getAmenities();
+        
+        assertEquals(AMENITIES.length, amenities.size());
+        assertTrue(amenities.values().stream().allMatch(count -> count == 1));
+        assertEquals(List.of(), counter.toDTO().getPriceHistogram());
+    }
+    
+    @Test
+    void attractionTypesIgnoreUnknownOnes() {
+        FacetCounter counter = new FacetCounter();
+        counter.addAttraction(Attraction.AttractionType.values()[0].name());
+        counter.addAttraction(Attraction.AttractionType.values()[0].name());
+        counter.addAttraction("ZIPLINE_PARK");
+        counter.addAttraction(null);
+        
+        SearchResponseDTO.FacetsDTO facets = counter.toDTO();
+        
+        assertEquals(4, facets.getAttractionCount());
+        assertEquals(Map.of(Attraction.AttractionType.values()[0].name(), 2), facets.getAttractionTypes());
+    }
+    
+    /**
+     * Every price falls in exactly the bucket whose edges hold it, the last bucket including its
+     * upper edge, and the buckets tile the range without gaps.
+     */
+    private static void assertHistogramHolds(BigDecimal[] prices, List<SearchResponseDTO.PriceBucketDTO> buckets) {
+        int[] expected = new int[buckets.size()];
+        int priced = 0;
+        for (BigDecimal price : prices) {
+            if (price == null) {
+                continue;
+            }
+            priced++;
+            int found = -1;
+            for (int b = 0; b < buckets.size(); b++) {
+                SearchResponseDTO.PriceBucketDTO bucket = buckets.get(b);
+                boolean last = b == buckets.size() - 1;
+                if (price.compareTo(bucket.getMin()) >= 0
+                        && (price.compareTo(bucket.getMax()) < 0 || (last && price.compareTo(bucket.getMax()) <= 0))) {
+                    found = b;
+                    break;
+                }
+            }
+            assertTrue(found >= 0, "no bucket holds " + price + " in " + buckets);
+            expected[found]++;
+        }
+        
+        assertEquals(priced == 0, buckets.isEmpty());
+        assertTrue(buckets.size() <= 6, "too many buckets: " + buckets.size());
+        for (int b = 0; b < buckets.size(); b++) {
+            assertEquals(expected[b], buckets.get(b).getCount(), "bucket " + b + " of " + buckets);
+            if (b > 0) {
+                assertEquals(buckets.get(b - 1).getMax(), buckets.get(b).getMin());
+            }
+        }
+    }
+    
+    private static BigDecimal randomPrice(Random random, int round) {
+        // Some rounds use tiny ranges, so the bucket width drops below one
+        int scale = round % 3 == 0 ? 100 : 100_000;
+        return BigDecimal.valueOf(random.nextInt(scale), 2);
+    }
+    
+    private static Map<String, Integer> sortedByStar(Map<String, Integer> stars) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            Integer count = stars.get(Integer.toString(star));
+            if (count != null) {
+                sorted.put(Integer.toString(star), count);
+            }
+        }
+        return sorted;
+    }
+    
+    private static Map<String, Integer> inEnumOrder(Map<String, Integer> amenities) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        for (Hotel.Amenity amenity : AMENITIES) {
+            Integer count = amenities.get(amenity.name());
+            if (count != null) {
+                sorted.put(amenity.name(), count);
+            }
+        }
+        return sorted;
+    }
+}
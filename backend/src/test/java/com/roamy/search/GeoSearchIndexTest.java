@@ -0,0 +1,62 @@
+package com.roamy.search;
+
+import com.roamy.entity.Hotel;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import com.roamy.repository.HotelRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeoSearchIndexTest {
+    
+    private static final MarkerGrid.Viewport PARIS = MarkerGrid.Viewport.parse("2.2,48.8,2.4,48.9");
+    
+    @Test
+    void mapOnlyShowsHotelsSearchCanReturn() {
+        HotelRepository hotelRepository = mock(HotelRepository.class);
+        when(hotelRepository.findAll()).thenReturn(List.of(
+                hotel(1L, Boolean.TRUE, "2.30"),
+                hotel(2L, null, "2.32"),
+                hotel(3L, Boolean.FALSE, "2.34")));
+        GeoSearchIndex index = index(hotelRepository);
+        index.rebuild();
+        
+        assertEquals(List.of(1L), hotelIds(index));
+        
+        index.apply(List.of(
+                new CatalogChangeEvent(hotel(2L, Boolean.TRUE, "2.32"), CatalogChangeEvent.ChangeType.SAVED),
+                new CatalogChangeEvent(hotel(1L, null, "2.30"), CatalogChangeEvent.ChangeType.SAVED),
+                new CatalogChangeEvent(hotel(4L, Boolean.TRUE, "2.36"), CatalogChangeEvent.ChangeType.SAVED),
+                new CatalogChangeEvent(hotel(4L, Boolean.TRUE, "2.36"), CatalogChangeEvent.ChangeType.REMOVED)));
+        
+        assertEquals(List.of(2L), hotelIds(index));
+        index.destroy();
+    }
+    
+    private static List<Long> hotelIds(GeoSearchIndex index) {
+        // At the highest zoom every hotel has a cell of its own
+        return index.clusterHotels(PARIS, MarkerGrid.MAX_ZOOM).stream().map(MarkerGrid.Cluster::getId).toList();
+    }
+    
+    private static GeoSearchIndex index(HotelRepository hotelRepository) {
+        return new GeoSearchIndex(mock(DestinationRepository.class), mock(AttractionRepository.class),
+                hotelRepository, Duration.ofSeconds(1));
+    }
+    
+    private static Hotel hotel(Long id, Boolean available, String longitude) {
+        return Hotel.builder()
+                .id(id)
+                .available(available)
+                .latitude(new BigDecimal("48.85"))
+                .longitude(new BigDecimal(longitude))
+                .pricePerNight(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.entity.Hotel;
+import com.roamy.repository.HotelRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotelAmenityIndexTest {
+    
+    private static final Hotel.Amenity[] AMENITIES = Hotel.Amenity.values();
+    
+    @Test
+    void maskLookupsAgreeWithCheckingEveryHotel() {
+        Random random = new Random(10);
+        List<Hotel> catalog = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            catalog.add(hotel(id, (long) random.nextInt(5), randomAmenities(random, 6)));
+        }
+        HotelAmenityIndex index = index(catalog);
+        
+        for (int query = 0; query < 300; query++) {
+            long destinationId = random.nextInt(6);
+            Set<Hotel.Amenity> required = randomAmenities(random, 3);
+            
+            assertArrayEquals(filter(catalog, destinationId, required),
+                    index.hotelsWithAll(destinationId, HotelAmenityIndex.mask(required)), required.toString());
+        }
+        for (Hotel hotel : catalog) {
+            assertEquals(HotelAmenityIndex.mask(hotel.getAmenities()), index.maskOf(hotel.getId()));
+        }
+    }
+    
+    @Test
+    void changesMoveHotelsBetweenDestinationsAndMasks() {
+        Hotel seaside = hotel(1L, 1L, EnumSet.of(Hotel.Amenity.POOL, Hotel.Amenity.WIFI));
+        Hotel hostel = hotel(2L, 1L, EnumSet.of(Hotel.Amenity.WIFI));
+        HotelAmenityIndex index = index(List.of(seaside, hostel));
+        long wifi = HotelAmenityIndex.mask(List.of(Hotel.Amenity.WIFI));
+        long pool = HotelAmenityIndex.mask(List.of(Hotel.Amenity.POOL));
+        assertArrayEquals(new long[]{1L, 2L}, index.hotelsWithAll(1L, wifi));
+        
+        hostel.setAmenities(new ArrayList<>(List.of(Hotel.Amenity.WIFI, Hotel.Amenity.POOL)));
+        index.onCatalogChange(new CatalogChangeEvent(hostel, CatalogChangeEvent.ChangeType.SAVED));
+        seaside.setDestination(Destination.builder().id(2L).build());
+        index.onCatalogChange(new CatalogChangeEvent(seaside, CatalogChangeEvent.ChangeType.SAVED));
+        Hotel lodge = hotel(3L, 2L, EnumSet.of(Hotel.Amenity.POOL));
+        index.onCatalogChange(new CatalogChangeEvent(lodge, CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertArrayEquals(new long[]{2L}, index.hotelsWithAll(1L, pool));
+        assertArrayEquals(new long[]{1L, 3L}, index.hotelsWithAll(2L, pool));
+        assertArrayEquals(new long[]{1L}, index.hotelsWithAll(2L, pool | wifi));
+        
+        index.onCatalogChange(new CatalogChangeEvent(seaside, CatalogChangeEvent.ChangeType.REMOVED));
+        assertArrayEquals(new long[]{3L}, index.hotelsWithAll(2L, 0));
+        assertEquals(0, index.maskOf(1L));
+        assertArrayEquals(new long[0], index.hotelsWithAll(9L, 0));
+    }
+    
+    @Test
+    void amenityNamesParseStrictlyForRequestsAndLenientlyForProviders() {
+        long expected = HotelAmenityIndex.mask(List.of(Hotel.Amenity.SPA, Hotel.Amenity.GYM));
+        
+        assertEquals(expected, HotelAmenityIndex.parseMask(List.of(" spa", "GYM", "")));
+        assertEquals(0, HotelAmenityIndex.parseMask(null));
+        assertThrows(IllegalArgumentException.class, () -> HotelAmenityIndex.parseMask(List.of("sauna")));
+        assertEquals(expected, HotelAmenityIndex.lenientMask(List.of("Spa", "gym", "sauna")));
+    }
+    
+    private static long[] filter(List<Hotel> catalog, long destinationId, Set<Hotel.Amenity> required) {
+        return catalog.stream()
+                .filter(hotel -> hotel.getDestination().getId() == destinationId)
+                .filter(hotel -> hotel.getAmenities().containsAll(required))
+                .mapToLong(Hotel::getId)
+                .sorted()
+                .toArray();
+    }
+    
+    private static Set<Hotel.Amenity> randomAmenities(Random random, int max) {
+        Set<Hotel.Amenity> amenities = EnumSet.noneOf(Hotel.Amenity.class);
+        int count = random.nextInt(max + 1);
+        for (int i = 0; i < count; i++) {
+            amenities.add(AMENITIES[random.nextInt(AMENITIES.length)]);
+        }
+        return amenities;
+    }
+    
+    private static Hotel hotel(Long id, Long destinationId, Set<Hotel.Amenity> amenities) {
+        return Hotel.builder()
+                .id(id)
+                .destination(Destination.builder().id(destinationId).build())
+                .amenities(new ArrayList<>(amenities))
+                .build();
+    }
+    
+    private static HotelAmenityIndex index(List<Hotel> catalog) {
+        HotelRepository repository = mock(HotelRepository.class);
+        when(repository.findAll()).thenReturn(catalog);
+        HotelAmenityIndex index = new HotelAmenityIndex(repository);
+        index.rebuild();
+        return index;
+    }
+}
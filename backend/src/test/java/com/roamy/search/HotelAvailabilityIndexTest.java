@@ -0,0 +1,195 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchRequestDTO;
+import com.roamy.entity.Booking;
+import com.roamy.entity.Hotel;
+import com.roamy.entity.Room;
+import com.roamy.repository.BookingRepository;
+import com.roamy.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotelAvailabilityIndexTest {
+    
+    private static final LocalDate START = LocalDate.of(2026, 3, 10);
+    private static final long HOTEL = 1L;
+    private static final long[] HOTELS = {HOTEL};
+    
+    private final SettableClock clock = new SettableClock(START);
+    private final List<Booking> bookings = new ArrayList<>();
+    private HotelAvailabilityIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        Hotel hotel = Hotel.builder().id(HOTEL).build();
+        when(roomRepository.findAll()).thenReturn(List.of(
+                Room.builder().id(10L).hotel(hotel).maxOccupancy(2).basePrice(new BigDecimal("100")).currency("USD").build()));
+        when(bookingRepository.findHotelStaysEndingAfter(any(), any())).thenAnswer(invocation -> List.copyOf(bookings));
+        index = new HotelAvailabilityIndex(roomRepository, bookingRepository, clock);
+    }
+    
+    @Test
+    void bookedNightsHideTheHotel() {
+        bookings.add(booking(1L, START.plusDays(2), START.plusDays(4)));
+        index.rebuild();
+        
+        assertArrayEquals(HOTELS, index.withRoomFor(HOTELS, stay(START, START.plusDays(2))));
+        assertArrayEquals(new long[0], index.withRoomFor(HOTELS, stay(START.plusDays(1), START.plusDays(3))));
+        assertArrayEquals(HOTELS, index.withRoomFor(HOTELS, stay(START.plusDays(4), START.plusDays(6))));
+    }
+    
+    @Test
+    void pastCheckInMatchesNothingAfterTheDayTurns() {
+        index.rebuild();
+        clock.set(START.plusDays(3));
+        
+        // Still on the index built three days ago
+        assertArrayEquals(new long[0], index.withRoomFor(HOTELS, stay(START.plusDays(1), START.plusDays(5))));
+        assertArrayEquals(HOTELS, index.withRoomFor(HOTELS, stay(START.plusDays(3), START.plusDays(5))));
+    }
+    
+    @Test
+    void calendarPricesPastCheckInsAsUnavailable() {
+        index.rebuild();
+        clock.set(START.plusDays(2));
+        
+        BigDecimal[] rates = index.lowestRates(HOTELS, START, 5, 2, 1, "USD");
+        
+        assertNull(rates[0]);
+        assertNull(rates[1]);
+        assertEquals(new BigDecimal("100"), rates[2]);
+        assertEquals(new BigDecimal("100"), rates[4]);
+    }
+    
+    @Test
+    void calendarSlidesTheStayOverBookedNights() {
+        bookings.add(booking(1L, START.plusDays(3), START.plusDays(4)));
+        index.rebuild();
+        
+        BigDecimal[] rates = index.lowestRates(HOTELS, START, 6, 2, 1, "USD");
+        
+        assertEquals(new BigDecimal("100"), rates[0]);
+        assertEquals(new BigDecimal("100"), rates[1]);
+        assertNull(rates[2]);
+        assertNull(rates[3]);
+        assertEquals(new BigDecimal("100"), rates[4]);
+        assertNull(index.lowestRates(HOTELS, START, 1, 1, 3, "USD")[0]);
+        assertNull(index.lowestRates(HOTELS, START, 1, 1, 1, "EUR")[0]);
+    }
+    
+    @Test
+    void rebuildOnANewDayKeepsFutureBookings() {
+        bookings.add(booking(1L, START.plusDays(1), START.plusDays(6)));
+        index.rebuild();
+        clock.set(START.plusDays(3));
+        index.rebuild();
+        
+        assertArrayEquals(new long[0], index.withRoomFor(HOTELS, stay(START.plusDays(3), START.plusDays(4))));
+        assertArrayEquals(HOTELS, index.withRoomFor(HOTELS, stay(START.plusDays(6), START.plusDays(7))));
+    }
+    
+    @Test
+    void cancelledBookingFreesItsNights() {
+        Booking booking = booking(1L, START.plusDays(1), START.plusDays(3));
+        bookings.add(booking);
+        index.rebuild();
+        
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        index.onCatalogChange(new CatalogChangeEvent(booking, CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertArrayEquals(HOTELS, index.withRoomFor(HOTELS, stay(START.plusDays(1), START.plusDays(3))));
+    }
+    
+    @Test
+    void versionMovesOnEveryRoomOrBookingChange() {
+        index.rebuild();
+        long built = index.getVersion();
+        
+        index.onCatalogChange(new CatalogChangeEvent(booking(1L, START, START.plusDays(1)), CatalogChangeEvent.ChangeType.SAVED));
+        long booked = index.getVersion();
+        index.onCatalogChange(new CatalogChangeEvent(Hotel.builder().id(HOTEL).build(), CatalogChangeEvent.ChangeType.SAVED));
+        
+        assertNotEquals(built, booked);
+        assertEquals(booked, index.getVersion());
+        index.rebuild();
+        assertNotEquals(booked, index.getVersion());
+    }
+    
+    @Test
+    void stayNeedsBothDatesInOrder() {
+        SearchRequestDTO request = new SearchRequestDTO();
+        request.setCheckInDate(START);
+        assertThrows(IllegalArgumentException.class, () -> HotelAvailabilityIndex.Stay.of(request));
+        request.setCheckOutDate(START);
+        assertThrows(IllegalArgumentException.class, () -> HotelAvailabilityIndex.Stay.of(request));
+    }
+    
+    private static HotelAvailabilityIndex.Stay stay(LocalDate checkIn, LocalDate checkOut) {
+        SearchRequestDTO request = new SearchRequestDTO();
+        request.setCheckInDate(checkIn);
+        request.setCheckOutDate(checkOut);
+        request.setNumberOfGuests(1);
+        return HotelAvailabilityIndex.Stay.of(request);
+    }
+    
+    private static Booking booking(Long id, LocalDate checkIn, LocalDate checkOut) {
+        return Booking.builder()
+                .id(id)
+                .type(Booking.BookingType.HOTEL)
+                .status(Booking.BookingStatus.CONFIRMED)
+                .hotel(Hotel.builder().id(HOTEL).build())
+                .room(Room.builder().id(10L).build())
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .numberOfGuests(1)
+                .build();
+    }
+    
+    private static final class SettableClock extends Clock {
+        
+        private Instant instant;
+        
+        private SettableClock(LocalDate date) {
+            set(date);
+        }
+        
+        private void set(LocalDate date) {
+            instant = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
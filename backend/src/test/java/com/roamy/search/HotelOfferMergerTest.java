@@ -0,0 +1,102 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotelOfferMergerTest {
+    
+    @Test
+    void cheaperProviderOfferKeepsCatalogIdentity() {
+        SearchResponseDTO.HotelDTO catalog = hotel(1L, "Grand Paris Hotel", "120", "48.8566", "2.3522", "catalog");
+        SearchResponseDTO.HotelDTO provider = hotel(1000L, "Grand Hotel Paris", "85", "48.8570", "2.3525", "booking.com");
+        
+        List<SearchResponseDTO.HotelDTO> merged = HotelOfferMerger.merge(List.of(catalog, provider));
+        
+        assertEquals(1, merged.size());
+        SearchResponseDTO.HotelDTO hotel = merged.get(0);
+        assertEquals(1L, hotel.getId());
+        assertEquals("Grand Paris Hotel", hotel.getName());
+        assertEquals(new BigDecimal("85"), hotel.getPricePerNight());
+        assertEquals(List.of("catalog", "booking.com"), hotel.getSources());
+    }
+    
+    @Test
+    void dearerProviderOfferOnlyAddsItsSource() {
+        SearchResponseDTO.HotelDTO catalog = hotel(1L, "Budget Inn", "60", "48.8566", "2.3522", "catalog");
+        SearchResponseDTO.HotelDTO provider = hotel(1001L, "Budget Inn", "70", null, null, "booking.com");
+        
+        SearchResponseDTO.HotelDTO hotel = HotelOfferMerger.merge(List.of(catalog, provider)).get(0);
+        
+        assertEquals(1L, hotel.getId());
+        assertEquals(new BigDecimal("60"), hotel.getPricePerNight());
+        assertEquals(List.of("catalog", "booking.com"), hotel.getSources());
+    }
+    
+    @Test
+    void otherCurrencyIsNotComparedOnPrice() {
+        SearchResponseDTO.HotelDTO catalog = hotel(1L, "Budget Inn", "60", null, null, "catalog");
+        SearchResponseDTO.HotelDTO provider = hotel(1001L, "Budget Inn", "10", null, null, "booking.com")
+                .toBuilder().currency("GBP").build();
+        
+        SearchResponseDTO.HotelDTO hotel = HotelOfferMerger.merge(List.of(catalog, provider)).get(0);
+        
+        assertEquals(new BigDecimal("60"), hotel.getPricePerNight());
+        assertEquals("USD", hotel.getCurrency());
+    }
+    
+    @Test
+    void distinctHotelsKeepFirstSeenOrder() {
+        List<SearchResponseDTO.HotelDTO> offers = List.of(
+                hotel(1L, "Seine View", "90", "48.8500", "2.3400", "catalog"),
+                hotel(2L, "Left Bank Lodge", "80", "48.8400", "2.3300", "catalog"),
+                hotel(1002L, "Seine View", "95", "48.9500", "2.5400", "booking.com"),
+                hotel(1003L, "Montmartre Rooms", "70", "48.8860", "2.3430", "booking.com"));
+        
+        List<SearchResponseDTO.HotelDTO> merged = HotelOfferMerger.merge(offers);
+        
+        // A same-named hotel ten kilometres away is another property
+        assertEquals(List.of(1L, 2L, 1002L, 1003L), merged.stream().map(SearchResponseDTO.HotelDTO::getId).toList());
+    }
+    
+    @Test
+    void catalogRowsAreAllKeptAheadOfUnmatchedOffers() {
+        List<SearchResponseDTO.HotelDTO> catalog = List.of(
+                hotel(1L, "Seine View", "90", "48.8500", "2.3400", "catalog"),
+                hotel(2L, "Seine View", "95", "48.8501", "2.3401", "catalog"),
+                hotel(3L, "Left Bank Lodge", "80", "48.8400", "2.3300", "catalog"));
+        List<SearchResponseDTO.HotelDTO> offers = List.of(
+                hotel(1001L, "Montmartre Rooms", "40", "48.8860", "2.3430", "booking.com"),
+                hotel(1002L, "Left Bank Lodge", "70", "48.8400", "2.3300", "booking.com"),
+                hotel(1003L, "Montmartre Rooms", "45", null, null, "expedia"));
+        
+        List<SearchResponseDTO.HotelDTO> merged = HotelOfferMerger.merge(catalog, offers);
+        
+        // Two catalog rows that look alike stay apart; offers only merge into them or each other
+        assertEquals(List.of(1L, 2L, 3L, 1001L), merged.stream().map(SearchResponseDTO.HotelDTO::getId).toList());
+        assertEquals(new BigDecimal("70"), merged.get(2).getPricePerNight());
+        assertEquals(List.of("booking.com", "expedia"), merged.get(3).getSources());
+    }
+    
+    @Test
+    void nameKeyIgnoresCaseAccentsPunctuationAndWordOrder() {
+        assertEquals(HotelOfferMerger.nameKey("Hôtel du Louvre"), HotelOfferMerger.nameKey("du louvre - HOTEL"));
+    }
+    
+    private static SearchResponseDTO.HotelDTO hotel(Long id, String name, String price, String latitude, String longitude,
+                                                    String source) {
+        return SearchResponseDTO.HotelDTO.builder()
+                .id(id)
+                .name(name)
+                .pricePerNight(new BigDecimal(price))
+                .currency("USD")
+                .latitude(latitude != null ? new BigDecimal(latitude) : null)
+                .longitude(longitude != null ? new BigDecimal(longitude) : null)
+                .sources(List.of(source))
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.roamy.search;
+
+import com.roamy.entity.Attraction;
+import com.roamy.entity.Destination;
+import com.roamy.entity.User;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InterestMaskIndexTest {
+    
+    private static final User.TravelInterest[] INTERESTS = User.TravelInterest.values();
+    
+    @Test
+    void matchesAnyRequestedInterest() {
+        InterestMaskIndex index = indexOf(List.of(
+                attraction(1L, 7L, true, User.TravelInterest.CULTURE, User.TravelInterest.ART),
+                attraction(2L, 7L, true, User.TravelInterest.BEACH),
+                attraction(3L, 7L, true, User.TravelInterest.ART),
+                attraction(4L, 8L, true, User.TravelInterest.ART)));
+        
+        int art = InterestMaskIndex.mask(List.of(User.TravelInterest.ART));
+        assertArrayEquals(new long[]{1L, 3L}, index.attractionsWithAny(7L, art));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, index.attractionsOf(7L));
+        assertArrayEquals(new long[0], index.attractionsOf(9L));
+        assertEquals(2, InterestMaskIndex.matchCount(index.attractionMask(1L),
+                InterestMaskIndex.mask(List.of(User.TravelInterest.CULTURE, User.TravelInterest.ART))));
+    }
+    
+    @Test
+    void incrementalUpdatesMatchAFullRebuild() {
+        Random random = new Random(11);
+        Map<Long, Attraction> catalog = new HashMap<>();
+        InterestMaskIndex index = indexOf(List.of());
+        
+        for (int step = 0; step < 2000; step++) {
+            long id = 1 + random.nextInt(60);
+            if (random.nextInt(5) == 0) {
+                Attraction removed = catalog.remove(id);
+                if (removed != null) {
+                    index.onCatalogChange(new CatalogChangeEvent(removed, CatalogChangeEvent.ChangeType.REMOVED));
+                }
+                continue;
+            }
+            // Attractions move between destinations, switch interests and get deactivated
+            Attraction saved = attraction(id, 1L + random.nextInt(4), random.nextInt(6) != 0,
+                    INTERESTS[random.nextInt(INTERESTS.length)], INTERESTS[random.nextInt(INTERESTS.length)]);
+            catalog.put(id, saved);
+            index.onCatalogChange(new CatalogChangeEvent(saved, CatalogChangeEvent.ChangeType.SAVED));
+        }
+        
+        InterestMaskIndex rebuilt = indexOf(new ArrayList<>(catalog.values()));
+        for (long destination = 1; destination <= 5; destination++) {
+            assertArrayEquals(rebuilt.attractionsOf(destination), index.attractionsOf(destination));
+            for (User.TravelInterest interest : INTERESTS) {
+                int mask = InterestMaskIndex.mask(List.of(interest));
+                assertArrayEquals(rebuilt.attractionsWithAny(destination, mask), index.attractionsWithAny(destination, mask));
+            }
+        }
+    }
+    
+    @Test
+    void destinationsRankByInterestsSharedAndFollowChanges() {
+        Destination lisbon = destination(1L, true, User.TravelInterest.CULTURE, User.TravelInterest.FOOD);
+        Destination bali = destination(2L, true, User.TravelInterest.BEACH, User.TravelInterest.FOOD);
+        Destination rome = destination(3L, true, User.TravelInterest.CULTURE, User.TravelInterest.FOOD, User.TravelInterest.ART);
+        InterestMaskIndex index = indexOf(List.of(), List.of(lisbon, bali, rome, destination(4L, false, User.TravelInterest.FOOD)));
+        int cultureAndFood = InterestMaskIndex.mask(List.of(User.TravelInterest.CULTURE, User.TravelInterest.FOOD));
+        
+        assertEquals(List.of(1L, 3L, 2L), index.destinationsWithAny(cultureAndFood));
+        assertEquals(InterestMaskIndex.mask(bali.getPopularInterests()), index.destinationMask(2L));
+        assertEquals(0, index.destinationMask(4L));
+        
+        bali.setPopularInterests(List.of(User.TravelInterest.CULTURE, User.TravelInterest.FOOD));
+        index.onCatalogChange(new CatalogChangeEvent(bali, CatalogChangeEvent.ChangeType.SAVED));
+        rome.setActive(false);
+        index.onCatalogChange(new CatalogChangeEvent(rome, CatalogChangeEvent.ChangeType.SAVED));
+        index.onCatalogChange(new CatalogChangeEvent(lisbon, CatalogChangeEvent.ChangeType.REMOVED));
+        
+        assertEquals(List.of(2L), index.destinationsWithAny(cultureAndFood));
+        assertEquals(0, index.destinationMask(3L));
+        assertEquals(List.of(), index.destinationsWithAny(InterestMaskIndex.mask(List.of(User.TravelInterest.ART))));
+    }
+    
+    private static InterestMaskIndex indexOf(List<Attraction> attractions) {
+        return indexOf(attractions, List.of());
+    }
+    
+    private static InterestMaskIndex indexOf(List<Attraction> attractions, List<Destination> destinations) {
+        AttractionRepository attractionRepository = mock(AttractionRepository.class);
+        when(attractionRepository.findByActiveTrue()).thenReturn(attractions.stream()
+                .filter(attraction -> Boolean.TRUE.equals(attraction.getActive()))
+                .toList());
+        DestinationRepository destinationRepository = mock(DestinationRepository.class);
+        when(destinationRepository.findByActiveTrue()).thenReturn(destinations.stream()
+                .filter(destination -> Boolean.TRUE.equals(destination.getActive()))
+                .toList());
+        InterestMaskIndex index = new InterestMaskIndex(attractionRepository, destinationRepository);
+        index.rebuild();
+        return index;
+    }
+    
+    private static Destination destination(Long id, boolean active, User.TravelInterest... interests) {
+        return Destination.builder()
+                .id(id)
+                .active(active)
+                .popularInterests(List.of(interests))
+                .build();
+    }
+    
+    private static Attraction attraction(Long id, Long destinationId, boolean active, User.TravelInterest... interests) {
+        return Attraction.builder()
+                .id(id)
+                .destination(Destination.builder().id(destinationId).build())
+                .active(active)
+                .matchingInterests(List.of(interests))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkerGridTest {
+    
+    @Test
+    void cellIsAQuarterTileAtTheZoom() {
+        assertEquals(90.0, MarkerGrid.forViewport(MarkerGrid.Viewport.parse("-180,-90,180,90"), 0).getCellDegrees());
+        assertEquals(360.0 / 1024 / 4,
+                MarkerGrid.forViewport(MarkerGrid.Viewport.parse("2.30,48.85,2.35,48.87"), 10).getCellDegrees());
+    }
+    
+    @Test
+    void wideViewportsAreCappedInCellsPerSide() {
+        MarkerGrid.Viewport europe = MarkerGrid.Viewport.parse("-10,35,30,60");
+        
+        double cell = MarkerGrid.forViewport(europe, MarkerGrid.MAX_ZOOM).getCellDegrees();
+        
+        assertTrue(40 / cell <= MarkerGrid.MAX_CELLS_PER_SIDE);
+        assertTrue(40 / (cell / 2) > MarkerGrid.MAX_CELLS_PER_SIDE);
+    }
+    
+    @Test
+    void cellsStayPutWhileThePanMoves() {
+        MarkerGrid.Viewport before = MarkerGrid.Viewport.parse("2.0,48.0,3.0,49.0");
+        MarkerGrid.Viewport after = MarkerGrid.Viewport.parse("2.4,48.3,3.4,49.3");
+        MarkerGrid first = MarkerGrid.forViewport(before, 8);
+        MarkerGrid second = MarkerGrid.forViewport(after, 8);
+        first.add(1L, 48.85, 2.55, null, null);
+        second.add(1L, 48.85, 2.55, null, null);
+        first.add(2L, 48.86, 2.56, null, null);
+        second.add(2L, 48.86, 2.56, null, null);
+        
+        assertEquals(first.getCellDegrees(), second.getCellDegrees());
+        assertEquals(first.clusters().size(), second.clusters().size());
+        assertEquals(first.clusters().get(0).getLatitude(), second.clusters().get(0).getLatitude());
+    }
+    
+    @Test
+    void clusterCountsCentroidAndLowestPrice() {
+        MarkerGrid grid = MarkerGrid.forViewport(MarkerGrid.Viewport.parse("-180,-90,180,90"), 0);
+        grid.add(1L, 10, 10, new BigDecimal("120"), "USD");
+        grid.add(2L, 20, 30, null, "USD");
+        grid.add(3L, 30, 20, new BigDecimal("80"), "USD");
+        grid.add(4L, -45, -100, new BigDecimal("60"), "USD");
+        
+        List<MarkerGrid.Cluster> clusters = grid.clusters();
+        
+        assertEquals(2, clusters.size());
+        // South-west first: the single point, shown as a plain marker with its id
+        MarkerGrid.Cluster single = clusters.get(0);
+        assertEquals(4L, single.getId());
+        assertEquals(1, single.getCount());
+        MarkerGrid.Cluster group = clusters.get(1);
+        assertNull(group.getId());
+        assertEquals(3, group.getCount());
+        assertEquals(20.0, group.getLatitude(), 1e-9);
+        assertEquals(20.0, group.getLongitude(), 1e-9);
+        assertEquals(Map.of("USD", new BigDecimal("80")), group.getMinPrices());
+    }
+    
+    @Test
+    void lowestPriceIsKeptPerCurrency() {
+        MarkerGrid grid = MarkerGrid.forViewport(MarkerGrid.Viewport.parse("-180,-90,180,90"), 0);
+        grid.add(1L, 10, 10, new BigDecimal("3000"), "INR");
+        grid.add(2L, 11, 11, new BigDecimal("100"), "USD");
+        grid.add(3L, 12, 12, new BigDecimal("2500"), "INR");
+        grid.add(4L, 13, 13, new BigDecimal("900"), "THB");
+        grid.add(5L, 14, 14, new BigDecimal("5"), null);
+        
+        MarkerGrid.Cluster cluster = grid.clusters().get(0);
+        
+        // 100 USD is not "cheaper" than 2500 INR; a price without a currency is not counted
+        assertEquals(List.of("INR", "THB", "USD"), List.copyOf(cluster.getMinPrices().keySet()));
+        assertEquals(new BigDecimal("2500"), cluster.getMinPrices().get("INR"));
+        assertEquals(new BigDecimal("100"), cluster.getMinPrices().get("USD"));
+        assertEquals(new BigDecimal("900"), cluster.getMinPrices().get("THB"));
+    }
+    
+    @Test
+    void viewportAcrossTheAntimeridianWrapsItsWidth() {
+        MarkerGrid.Viewport fiji = MarkerGrid.Viewport.parse("170,-20,-170,-10");
+        
+        assertEquals(20.0, fiji.widthDegrees(), 1e-9);
+        assertEquals(170.0, fiji.getMinLon());
+        assertEquals(-170.0, fiji.getMaxLon());
+    }
+    
+    @Test
+    void rejectsMalformedBoxes() {
+        for (String bbox : new String[]{null, "", "1,2,3", "a,b,c,d", "0,10,1,5", "0,-91,1,0", "-181,0,0,1", "0,0,NaN,1"}) {
+            assertThrows(IllegalArgumentException.class, () -> MarkerGrid.Viewport.parse(bbox), String.valueOf(bbox));
+        }
+    }
+}
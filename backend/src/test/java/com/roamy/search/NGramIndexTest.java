@@ -0,0 +1,84 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NGramIndexTest {
+    
+    @Test
+    void findsSubstringsOfAnyFieldIgnoringCaseAndAccents() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "São Paulo", "São Paulo", "Brazil");
+        index.put(2L, "Paris", "Paris", "France");
+        index.put(3L, "Reykjavik", null, "Iceland");
+        
+        assertEquals(List.of(1L), index.search("PAUL"));
+        assertEquals(List.of(1L), index.search("sao"));
+        assertEquals(List.of(2L), index.search("franc"));
+        assertEquals(List.of(1L, 2L, 3L), sorted(index.search("a")));
+        assertTrue(index.search("").isEmpty());
+        assertTrue(index.search("lisbon").isEmpty());
+    }
+    
+    @Test
+    void reindexingAndRemovalUpdateTheResults() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "Bombay");
+        index.put(1L, "Mumbai");
+        index.put(2L, "Mumbai Suburban");
+        index.remove(2L);
+        index.put(3L, "Mumbai Harbour");
+        
+        assertTrue(index.search("bombay").isEmpty());
+        assertEquals(List.of(1L, 3L), sorted(index.search("mumbai")));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void matchesAScanOfTheFieldsUnderRandomChurn() {
+        Random random = new Random(1);
+        NGramIndex index = new NGramIndex();
+        Map<Long, String> fields = new HashMap<>();
+        for (int step = 0; step < 3000; step++) {
+            long id = random.nextInt(100);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                fields.remove(id);
+            } else {
+                String field = randomText(random, 4 + random.nextInt(10));
+                index.put(id, field);
+                fields.put(id, field);
+            }
+            
+            if (step % 10 == 0) {
+                String query = randomText(random, 1 + random.nextInt(4));
+                List<Long> expected = fields.entrySet().stream()
+                        .filter(entry -> entry.getValue().contains(query))
+                        .map(Map.Entry::getKey)
+                        .sorted()
+                        .toList();
+                assertEquals(expected, sorted(index.search(query)), query);
+            }
+        }
+        assertEquals(fields.size(), index.size());
+    }
+    
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+    
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(4)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+    
+    @Test
+    void roundTripsSortKeyAndId() {
+        String token = new PageCursor("price:asc", new BigDecimal("129.50"), 42L).encode();
+        
+        PageCursor decoded = PageCursor.decode(token, "price:asc");
+        
+        assertEquals("price:asc", decoded.getSort());
+        assertEquals(new BigDecimal("129.50"), decoded.getSortKey());
+        assertEquals(42L, decoded.getId());
+    }
+    
+    @Test
+    void keepsNegativeAndFractionalScores() {
+        String token = new PageCursor("distance:asc", BigDecimal.valueOf(-0.000125), 7L).encode();
+        
+        assertEquals(0, BigDecimal.valueOf(-0.000125).compareTo(PageCursor.decode(token, "distance:asc").getSortKey()));
+    }
+    
+    @Test
+    void blankTokenStartsAtFirstPage() {
+        assertNull(PageCursor.decode(null, "price:asc"));
+        assertNull(PageCursor.decode("  ", "price:asc"));
+    }
+    
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String token = new PageCursor("price:asc", BigDecimal.TEN, 1L).encode();
+        
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token, "price:desc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token, "rating:asc"));
+    }
+    
+    @Test
+    void rejectsGarbageAndTamperedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("garbage!", "price:asc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("v1|price:asc|ten|1"), "price:asc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("v1|price:asc|10|one"), "price:asc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("v1|price:asc|10"), "price:asc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("v0|price:asc|10|1"), "price:asc"));
+    }
+    
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParetoFrontierTest {
+    
+    @Test
+    void keepsOnlyItemsNothingBeatsOnAllThree() {
+        double[] price = {100, 80, 120, 80, 200};
+        double[] rating = {4.0, 4.0, 4.5, 3.5, 4.5};
+        double[] stars = {3, 3, 4, 3, 4};
+        
+        // 0 loses to the cheaper 1, 3 to 1 on rating, 4 to the cheaper 2
+        assertArrayEquals(new int[]{1, 2}, ParetoFrontier.of(price, rating, stars));
+    }
+    
+    @Test
+    void identicalItemsDoNotKnockEachOtherOut() {
+        double[] price = {50, 50, 60};
+        double[] rating = {4, 4, 3};
+        double[] stars = {3, 3, 3};
+        
+        assertArrayEquals(new int[]{0, 1}, sorted(ParetoFrontier.of(price, rating, stars)));
+    }
+    
+    @Test
+    void missingValuesRankWorst() {
+        double inf = Double.POSITIVE_INFINITY;
+        double[] price = {inf, 90, 90};
+        double[] rating = {5, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] stars = {5, Double.NEGATIVE_INFINITY, 2};
+        
+        assertArrayEquals(new int[]{2, 0}, ParetoFrontier.of(price, rating, stars));
+    }
+    
+    @Test
+    void emptyInputHasEmptyFrontier() {
+        assertArrayEquals(new int[0], ParetoFrontier.of(new double[0], new double[0], new double[0]));
+    }
+    
+    @Test
+    void rejectsArraysOfDifferentLengths() {
+        assertThrows(IllegalArgumentException.class, () -> ParetoFrontier.of(new double[2], new double[2], new double[1]));
+    }
+    
+    @Test
+    void matchesBruteForceOnRandomCatalogs() {
+        Random random = new Random(24);
+        for (int round = 0; round < 500; round++) {
+            int n = random.nextInt(60);
+            double[] price = new double[n];
+            double[] rating = new double[n];
+            double[] stars = new double[n];
+            for (int i = 0; i < n; i++) {
+                // Few distinct values, so ties on every axis are common
+                price[i] = random.nextInt(8) == 0 ? Double.POSITIVE_INFINITY : 50 + 10 * random.nextInt(10);
+                rating[i] = random.nextInt(8) == 0 ? Double.NEGATIVE_INFINITY : random.nextInt(6);
+                stars[i] = random.nextInt(8) == 0 ? Double.NEGATIVE_INFINITY : 1 + random.nextInt(5);
+            }
+            
+            int[] frontier = ParetoFrontier.of(price, rating, stars);
+            
+            assertArrayEquals(bruteForce(price, rating, stars), sorted(frontier));
+            for (int i = 1; i < frontier.length; i++) {
+                assertTrue(price[frontier[i - 1]] <= price[frontier[i]], "cheapest first");
+            }
+        }
+    }
+    
+    private static int[] bruteForce(double[] price, double[] rating, double[] stars) {
+        return IntStream.range(0, price.length)
+                .filter(i -> IntStream.range(0, price.length).noneMatch(j ->
+                        price[j] <= price[i] && rating[j] >= rating[i] && stars[j] >= stars[i]
+                                && (price[j] < price[i] || rating[j] > rating[i] || stars[j] > stars[i])))
+                .toArray();
+    }
+    
+    private static int[] sorted(int[] indexes) {
+        int[] copy = indexes.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class PrefixTrieTest {
+    
+    @Test
+    void everyWordStartIsReachableBestScoreFirst() {
+        PrefixTrie trie = PrefixTrie.builder(10)
+                .add("New York", 1L, 50)
+                .add("Newcastle", 2L, 80)
+                .add("York", 3L, 10)
+                .add("Nürnberg", 4L, 30)
+                .build();
+        
+        assertArrayEquals(new long[]{2L, 1L}, trie.lookup("new", 10));
+        assertArrayEquals(new long[]{1L, 3L}, trie.lookup("YORK", 10));
+        assertArrayEquals(new long[]{1L}, trie.lookup("new y", 10));
+        assertArrayEquals(new long[]{4L}, trie.lookup("nurn", 10));
+        assertArrayEquals(new long[]{2L}, trie.lookup("n", 1));
+        assertArrayEquals(new long[0], trie.lookup("", 10));
+        assertArrayEquals(new long[0], trie.lookup("ork", 10));
+    }
+    
+    @Test
+    void matchesAScanOfAllKeys() {
+        Random random = new Random(2);
+        int capacity = 5;
+        List<String> keys = new ArrayList<>();
+        long[] scores = new long[300];
+        PrefixTrie.Builder builder = PrefixTrie.builder(capacity);
+        for (int id = 0; id < scores.length; id++) {
+            String key = word(random) + (random.nextBoolean() ? " " + word(random) : "");
+            scores[id] = random.nextInt(20);
+            keys.add(key);
+            builder.add(key, id, scores[id]);
+        }
+        PrefixTrie trie = builder.build();
+        
+        for (int round = 0; round < 300; round++) {
+            String prefix = word(random).substring(0, 1 + random.nextInt(2));
+            long[] expected = IntStream.range(0, keys.size())
+                    .filter(id -> startsAnyWord(keys.get(id), prefix))
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer id) -> -scores[id]).thenComparing(id -> id))
+                    .limit(capacity)
+                    .mapToLong(Integer::longValue)
+                    .toArray();
+            assertArrayEquals(expected, trie.lookup(prefix, capacity), prefix);
+        }
+    }
+    
+    private static boolean startsAnyWord(String key, String prefix) {
+        for (int start = 0; start < key.length(); start++) {
+            if ((start == 0 || key.charAt(start - 1) == ' ') && key.startsWith(prefix, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.roamy.search;
+
+import com.roamy.dto.SearchRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SearchCacheKeyTest {
+    
+    @Test
+    void hotelsKeyFollowsThePartySize() {
+        SearchRequestDTO couple = request(2);
+        SearchRequestDTO family = request(4);
+        
+        assertNotEquals(hotelsKey(couple), hotelsKey(family));
+    }
+    
+    @Test
+    void hotelsKeyIgnoresCasingAndAmenityOrder() {
+        SearchRequestDTO first = request(2);
+        first.setRequiredAmenities(List.of("WIFI", "POOL"));
+        SearchRequestDTO second = request(2);
+        second.setToLocation("  paris ");
+        second.setRequiredAmenities(List.of("pool", "wifi"));
+        
+        assertEquals(hotelsKey(first), hotelsKey(second));
+    }
+    
+    private static String hotelsKey(SearchRequestDTO request) {
+        return SearchCacheKey.forHotels(request, HotelAvailabilityIndex.Stay.of(request), 20);
+    }
+    
+    private static SearchRequestDTO request(int guests) {
+        SearchRequestDTO request = new SearchRequestDTO();
+        request.setToLocation("Paris");
+        request.setCheckInDate(LocalDate.of(2026, 5, 1));
+        request.setCheckOutDate(LocalDate.of(2026, 5, 4));
+        request.setNumberOfGuests(guests);
+        return request;
+    }
+}
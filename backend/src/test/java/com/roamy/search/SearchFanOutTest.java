@@ -0,0 +1,155 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchFanOutTest {
+    
+    private final ExecutorService pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+    
+    @Test
+    void completedSectionKeepsItsValue() {
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        
+        assertEquals("hotels", fanOut.fork("hotels", () -> "hotels", 1000, "none").join());
+        assertEquals(List.of(), fanOut.getDegradedSections());
+        assertTrue(fanOut.getSectionTimingsMs().containsKey("hotels"));
+    }
+    
+    @Test
+    void failedSectionFallsBack() {
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        
+        String value = fanOut.<String>fork("transport", () -> {
+            throw new IllegalStateException("provider down");
+        }, 1000, "none").join();
+        
+        assertEquals("none", value);
+        assertEquals(List.of("transport"), fanOut.getDegradedSections());
+    }
+    
+    @Test
+    void lateSectionIsInterruptedAndFreesItsThread() throws InterruptedException {
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        
+        CompletableFuture<String> hotels = fanOut.fork("hotels", () -> SearchFanOut.interruptibly(() -> sleep(started, interrupted)),
+                200, "none");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        String value = hotels.join();
+        
+        assertEquals("none", value);
+        assertEquals(List.of("hotels"), fanOut.getDegradedSections());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        // The single pool thread serves the next search instead of sleeping on
+        assertEquals("next", new SearchFanOut(pool).fork("hotels", () -> "next", 5000, "none").join());
+    }
+    
+    @Test
+    void cancelStopsUnfinishedSectionsOnly() throws InterruptedException {
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        String done = fanOut.fork("transport", () -> "transport", 5000, "none").join();
+        CompletableFuture<String> hotels = fanOut.fork("hotels", () -> SearchFanOut.interruptibly(() -> sleep(started, interrupted)),
+                10_000, "none");
+        assertTrue(fanOut.millisUntilLastDeadline() > 9_000);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        fanOut.cancel();
+        
+        assertEquals("transport", done);
+        assertEquals("none", hotels.join());
+        assertEquals(List.of("hotels"), fanOut.getDegradedSections());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void cacheAndDatabaseWorkIsNeverInterruptedAndStopsAtTheNextProviderCall() throws InterruptedException {
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean ioInterrupted = new AtomicBoolean();
+        AtomicBoolean providerCalled = new AtomicBoolean();
+        
+        CompletableFuture<String> hotels = fanOut.fork("hotels", () -> {
+            started.countDown();
+            try {
+                // Stands in for a Redis or JDBC call that outlives the deadline
+                ioInterrupted.set(!await(release));
+                return SearchFanOut.interruptibly(() -> {
+                    providerCalled.set(true);
+                    return "offers";
+                });
+            } finally {
+                finished.countDown();
+            }
+        }, 200, "none");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        String value = hotels.join();
+        release.countDown();
+        
+        assertEquals("none", value);
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(ioInterrupted.get());
+        assertFalse(providerCalled.get());
+        assertEquals("next", new SearchFanOut(pool).fork("hotels", () -> "next", 5000, "none").join());
+    }
+    
+    @Test
+    void interruptiblyOutsideASectionJustRuns() {
+        assertEquals("offers", SearchFanOut.interruptibly(() -> "offers"));
+    }
+    
+    @Test
+    void saturatedPoolFallsBack() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        SearchFanOut fanOut = new SearchFanOut(pool);
+        fanOut.fork("busy", () -> await(release), 5000, false);
+        fanOut.fork("queued", () -> await(release), 5000, false);
+        
+        assertEquals("none", fanOut.fork("rejected", () -> "value", 5000, "none").join());
+        assertTrue(fanOut.getDegradedSections().contains("rejected"));
+        release.countDown();
+    }
+    
+    private static String sleep(CountDownLatch started, CountDownLatch interrupted) {
+        started.countDown();
+        try {
+            Thread.sleep(60_000);
+            return "late";
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            return "interrupted";
+        }
+    }
+    
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
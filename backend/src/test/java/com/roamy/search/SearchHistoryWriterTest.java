@@ -0,0 +1,171 @@
+package com.roamy.search;
+
+import com.roamy.entity.SearchHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The writer's first batch is held inside the insert until the test releases it, so the queue
+ * fills up deterministically behind it.
+ */
+class SearchHistoryWriterTest {
+    
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicLong keys = new AtomicLong();
+    private SearchHistoryWriter writer;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (writer != null) {
+            writer.destroy();
+        }
+    }
+    
+    @Test
+    void dropDiscardsWhatDoesNotFit() throws InterruptedException {
+        writer = writer(4, SearchHistoryWriter.OverflowPolicy.DROP, Duration.ZERO);
+        holdFirstBatch();
+        
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(search(), null);
+        }
+        
+        assertEquals(6, writer.getDroppedCount());
+        release.countDown();
+        writer.destroy();
+        assertEquals(5, written.get());
+    }
+    
+    @Test
+    void blockWaitsForSpaceThenDrops() throws InterruptedException {
+        writer = writer(2, SearchHistoryWriter.OverflowPolicy.BLOCK, Duration.ofMillis(100));
+        holdFirstBatch();
+        writer.enqueue(search(), null);
+        writer.enqueue(search(), null);
+        
+        long start = System.nanoTime();
+        writer.enqueue(search(), null);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertTrue(waitedMs >= 90, "gave up after " + waitedMs + " ms");
+        assertEquals(1, writer.getDroppedCount());
+    }
+    
+    @Test
+    void blockSucceedsOnceTheWriterMakesRoom() throws InterruptedException {
+        writer = writer(1, SearchHistoryWriter.OverflowPolicy.BLOCK, Duration.ofSeconds(5));
+        holdFirstBatch();
+        writer.enqueue(search(), null);
+        
+        Thread releaser = new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        });
+        releaser.start();
+        writer.enqueue(search(), null);
+        releaser.join();
+        
+        assertEquals(0, writer.getDroppedCount());
+        writer.destroy();
+        assertEquals(3, written.get());
+    }
+    
+    @Test
+    void sampleThinsOutOnlyOnceTheQueueIsThreeQuartersFull() throws InterruptedException {
+        writer = writer(40, SearchHistoryWriter.OverflowPolicy.SAMPLE, Duration.ZERO);
+        holdFirstBatch();
+        
+        // Until the free space drops below a third of the queued rows every search is kept
+        for (int i = 0; i < 31; i++) {
+            writer.enqueue(search(), null);
+        }
+        assertEquals(0, writer.getDroppedCount());
+        
+        // Under pressure only about one in sampleRate (4) is kept, until the queue is full
+        for (int i = 0; i < 20; i++) {
+            writer.enqueue(search(), null);
+        }
+        long droppedUnderPressure = writer.getDroppedCount();
+        assertTrue(droppedUnderPressure > 0 && droppedUnderPressure < 20, droppedUnderPressure + " of 20 dropped");
+        for (int i = 0; i < 1000; i++) {
+            writer.enqueue(search(), null);
+        }
+        
+        release.countDown();
+        writer.destroy();
+        assertEquals(1 + 40, written.get());
+        assertEquals(51 + 1000 - 40, writer.getDroppedCount());
+    }
+    
+    @Test
+    void shutdownFlushesTheQueueAndRefusesLateSearches() throws InterruptedException {
+        writer = writer(100, SearchHistoryWriter.OverflowPolicy.DROP, Duration.ZERO);
+        release.countDown();
+        for (int i = 0; i < 25; i++) {
+            writer.enqueue(search(), null);
+        }
+        
+        writer.destroy();
+        writer.enqueue(search(), null);
+        
+        assertEquals(25, written.get());
+        assertEquals(1, writer.getDroppedCount());
+    }
+    
+    private void holdFirstBatch() throws InterruptedException {
+        writer.enqueue(search(), null);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+    }
+    
+    private SearchHistoryWriter writer(int capacity, SearchHistoryWriter.OverflowPolicy policy, Duration blockTimeout) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            BatchPreparedStatementSetter rows = invocation.getArgument(1);
+            KeyHolder holder = invocation.getArgument(2);
+            for (int i = 0; i < rows.getBatchSize(); i++) {
+                holder.getKeyList().add(Map.of("id", keys.incrementAndGet()));
+            }
+            written.addAndGet(rows.getBatchSize());
+            return new int[rows.getBatchSize()];
+        });
+        return new SearchHistoryWriter(jdbcTemplate, mock(PlatformTransactionManager.class), capacity, 10,
+                Duration.ofMillis(20), policy, 4, blockTimeout);
+    }
+    
+    private static SearchHistory search() {
+        return SearchHistory.builder().toLocation("Lisbon").resultsCount(3).searchDate(LocalDateTime.now()).build();
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.roamy.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roamy.dto.SearchResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchResultCacheTest {
+    
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final SearchResultCache cache = cache(values);
+    
+    @Test
+    void priceCalendarsStayInTheLocalTier() {
+        AtomicInteger loads = new AtomicInteger();
+        SearchResponseDTO.PriceCalendarDTO calendar = SearchResponseDTO.PriceCalendarDTO.builder().month("2026-03").build();
+        
+        cache.get(SearchResultCache.Section.PRICE_CALENDAR, "key", () -> {
+            loads.incrementAndGet();
+            return calendar;
+        });
+        cache.get(SearchResultCache.Section.PRICE_CALENDAR, "key", () -> {
+            loads.incrementAndGet();
+            return calendar;
+        });
+        
+        assertEquals(1, loads.get());
+        verifyNoInteractions(values);
+    }
+    
+    @Test
+    void searchSectionsAreSharedThroughRedis() {
+        cache.get(SearchResultCache.Section.TRANSPORT, "key", List::of);
+        
+        verify(values).get("roamy:search:transport:key");
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static SearchResultCache cache(ValueOperations<String, String> values) {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenReturn(null);
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redis);
+        Duration ttl = Duration.ofMinutes(5);
+        return new SearchResultCache(provider, new ObjectMapper(), true, Duration.ofSeconds(30), 100,
+                ttl, ttl, ttl, ttl);
+    }
+}
@@ -0,0 +1,112 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.entity.User;
+import com.roamy.repository.AttractionRepository;
+import com.roamy.repository.DestinationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimilarDestinationIndexTest {
+    
+    private static final String[] CLIMATES = {"Tropical", "Subtropical humid", "Hot desert", "Mediterranean",
+            "Temperate oceanic", "Alpine", "Continental", null};
+    private static final User.TravelInterest[] INTERESTS = User.TravelInterest.values();
+    
+    @Test
+    void neighboursAreTheClosestVectorsOfAFullComparison() {
+        Random random = new Random(25);
+        List<Destination> destinations = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            destinations.add(randomDestination(random, id));
+        }
+        SimilarDestinationIndex index = index(destinations, 7);
+        double[][] vectors = SimilarDestinationIndex.embed(destinations,
+                destination -> InterestMaskIndex.mask(destination.getPopularInterests()));
+        
+        for (int i = 0; i < destinations.size(); i++) {
+            int self = i;
+            List<Long> expected = IntStream.range(0, destinations.size())
+                    .filter(j -> j != self)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer j) -> SimilarDestinationIndex.squaredDistance(vectors[self], vectors[j]))
+                            .thenComparing(j -> j))
+                    .limit(7)
+                    .map(j -> destinations.get(j).getId())
+                    .toList();
+            
+            assertEquals(expected, index.similarTo(destinations.get(i).getId(), 7));
+        }
+        assertEquals(3, index.similarTo(1L, 3).size());
+    }
+    
+    @Test
+    void likeForLikeBeatsTheOtherSideOfTheWorld() {
+        Destination phuket = destination(1L, "Tropical", "40", "7.88", "98.39", User.TravelInterest.values()[0]);
+        Destination bali = destination(2L, "Tropical monsoon", "45", "-8.34", "115.09", User.TravelInterest.values()[0]);
+        Destination zermatt = destination(3L, "Alpine", "300", "46.02", "7.75", User.TravelInterest.values()[1]);
+        SimilarDestinationIndex index = index(List.of(phuket, bali, zermatt), 10);
+        
+        assertEquals(List.of(2L, 3L), index.similarTo(1L, 10));
+        assertTrue(index.similarTo(99L, 10).isEmpty());
+        assertTrue(index.similarTo(null, 10).isEmpty());
+    }
+    
+    @Test
+    void climatesAreMatchedByKeywordSubtropicalFirst() {
+        assertEquals(SimilarDestinationIndex.TravelClimate.SUBTROPICAL, SimilarDestinationIndex.TravelClimate.of("Humid Subtropical"));
+        assertEquals(SimilarDestinationIndex.TravelClimate.TROPICAL, SimilarDestinationIndex.TravelClimate.of("tropical"));
+        assertEquals(SimilarDestinationIndex.TravelClimate.ALPINE, SimilarDestinationIndex.TravelClimate.of("Cold highland"));
+        assertNull(SimilarDestinationIndex.TravelClimate.of("varied"));
+    }
+    
+    private static SimilarDestinationIndex index(List<Destination> destinations, int neighbours) {
+        DestinationRepository repository = mock(DestinationRepository.class);
+        when(repository.findByActiveTrue()).thenReturn(destinations);
+        InterestMaskIndex interestMaskIndex = new InterestMaskIndex(mock(AttractionRepository.class), repository);
+        interestMaskIndex.rebuild();
+        SimilarDestinationIndex index = new SimilarDestinationIndex(repository, interestMaskIndex, neighbours, Duration.ofSeconds(5));
+        index.rebuild();
+        index.destroy();
+        return index;
+    }
+    
+    private static Destination randomDestination(Random random, long id) {
+        Destination destination = destination(id, CLIMATES[random.nextInt(CLIMATES.length)],
+                random.nextInt(6) == 0 ? null : Integer.toString(10 + random.nextInt(400)),
+                Integer.toString(random.nextInt(170) - 85), Integer.toString(random.nextInt(360) - 180),
+                INTERESTS[random.nextInt(INTERESTS.length)], INTERESTS[random.nextInt(INTERESTS.length)]);
+        destination.setAverageRating(random.nextInt(5) == 0 ? null : BigDecimal.valueOf(10 + random.nextInt(40), 1));
+        return destination;
+    }
+    
+    private static Destination destination(Long id, String climate, String budget, String latitude, String longitude,
+                                           User.TravelInterest... interests) {
+        BigDecimal daily = budget != null ? new BigDecimal(budget) : null;
+        return Destination.builder()
+                .id(id)
+                .name("Destination " + id)
+                .climate(climate)
+                .budgetDailyCost(daily)
+                .midRangeDailyCost(daily != null ? daily.multiply(BigDecimal.valueOf(3)) : null)
+                .luxuryDailyCost(daily != null ? daily.multiply(BigDecimal.TEN) : null)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal(longitude))
+                .popularInterests(new ArrayList<>(List.of(interests)))
+                .averageRating(new BigDecimal("4.2"))
+                .build();
+    }
+}
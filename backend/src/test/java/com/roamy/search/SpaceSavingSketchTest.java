@@ -0,0 +1,85 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+    
+    @Test
+    void countsExactlyWhileThereIsRoom() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        long[] stream = {1, 2, 1, 3, 1, 2};
+        for (long item : stream) {
+            sketch.offer(item);
+        }
+        
+        assertEquals(3, sketch.count(1));
+        assertEquals(2, sketch.count(2));
+        assertEquals(1, sketch.count(3));
+        assertEquals(0, sketch.count(4));
+        
+        Map<Long, Long> visited = new HashMap<>();
+        sketch.forEach(visited::put);
+        assertEquals(Map.of(1L, 3L, 2L, 2L, 3L, 1L), visited);
+    }
+    
+    @Test
+    void newcomerInheritsTheSmallestCount() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(1);
+        sketch.offer(1);
+        sketch.offer(2);
+        sketch.offer(3);
+        
+        assertEquals(2, sketch.size());
+        assertEquals(0, sketch.count(2));
+        assertEquals(2, sketch.count(3));
+    }
+    
+    @Test
+    void heavyHittersAreTrackedWithBoundedOverestimates() {
+        Random random = new Random(8);
+        int capacity = 20;
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        Map<Long, Long> exact = new HashMap<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            // A few popular destinations over a long tail
+            long item = random.nextInt(3) == 0 ? random.nextInt(5) : 100 + random.nextInt(2000);
+            sketch.offer(item);
+            exact.merge(item, 1L, Long::sum);
+        }
+        
+        assertTrue(sketch.size() <= capacity);
+        long error = n / capacity;
+        exact.forEach((item, count) -> {
+            if (count > error) {
+                assertTrue(sketch.count(item) > 0, "heavy hitter " + item + " dropped");
+            }
+        });
+        sketch.forEach((item, estimate) -> {
+            long count = exact.getOrDefault(item, 0L);
+            assertTrue(estimate >= count && estimate <= count + error, "estimate of " + item);
+        });
+    }
+    
+    @Test
+    void clearForgetsEverything() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(1);
+        sketch.clear();
+        sketch.offer(2);
+        
+        assertEquals(0, sketch.count(1));
+        assertEquals(1, sketch.count(2));
+        assertEquals(1, sketch.size());
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    }
+}
@@ -0,0 +1,29 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextNormalizerTest {
+    
+    @Test
+    void foldsAccentsCaseAndWhitespace() {
+        assertEquals("male", TextNormalizer.fold("Malé"));
+        assertEquals("parc guell by gaudi", TextNormalizer.fold("  Parc Güell   by\tGaudí "));
+        assertEquals("sao paulo", TextNormalizer.fold("SÃO PAULO"));
+        assertEquals("zurich", TextNormalizer.fold("Zürich"));
+    }
+    
+    @Test
+    void foldsCompatibilityForms() {
+        // Full-width letters and ligatures are spelled out
+        assertEquals("tokyo", TextNormalizer.fold("ＴＯＫＹＯ"));
+        assertEquals("fi", TextNormalizer.fold("ﬁ"));
+    }
+    
+    @Test
+    void nullFoldsToEmpty() {
+        assertEquals("", TextNormalizer.fold(null));
+        assertEquals("", TextNormalizer.fold("   "));
+    }
+}
@@ -0,0 +1,51 @@
+package com.roamy.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TopKTest {
+    
+    @Test
+    void bestFirstWithLowerIndexWinningTies() {
+        double[] scores = {3, 7, 5, 7, 1};
+        
+        assertArrayEquals(new int[]{1, 3, 2}, TopK.select(scores, 3));
+    }
+    
+    @Test
+    void boundsAndFilter() {
+        double[] scores = {3, 7, 5};
+        
+        assertArrayEquals(new int[0], TopK.select(scores, 0));
+        assertArrayEquals(new int[]{1, 2, 0}, TopK.select(scores, 10));
+        assertArrayEquals(new int[]{2, 0}, TopK.select(scores, 10, i -> i != 1));
+        assertArrayEquals(new int[0], TopK.select(new double[0], 5));
+    }
+    
+    @Test
+    void matchesAFullSortOnRandomScores() {
+        Random random = new Random(14);
+        for (int round = 0; round < 500; round++) {
+            double[] scores = new double[random.nextInt(80)];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = random.nextInt(10) == 0 ? Double.NEGATIVE_INFINITY : random.nextInt(20);
+            }
+            int k = random.nextInt(25);
+            int parity = random.nextInt(2);
+            
+            int[] expected = IntStream.range(0, scores.length)
+                    .filter(i -> i % 2 == parity)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> -scores[i]).thenComparing(i -> i))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, TopK.select(scores, k, i -> i % 2 == parity));
+        }
+    }
+}
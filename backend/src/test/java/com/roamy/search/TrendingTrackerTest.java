@@ -0,0 +1,64 @@
+package com.roamy.search;
+
+import com.roamy.entity.Destination;
+import com.roamy.repository.DestinationRepository;
+import com.roamy.repository.SearchHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrendingTrackerTest {
+    
+    @Test
+    void seedPagesThroughHistoryAndResolvesNamesLikeASearch() {
+        List<Object[]> history = new ArrayList<>();
+        LocalDateTime searched = LocalDateTime.now().minusMinutes(5);
+        for (long id = 1; id <= 2500; id++) {
+            String name = id % 5 < 2 ? "Bombay" : id % 5 < 4 ? "sao paulo" : "LISBON";
+            history.add(new Object[]{id, id == 7 ? null : name, searched});
+        }
+        SearchHistoryRepository searchHistoryRepository = mock(SearchHistoryRepository.class);
+        when(searchHistoryRepository.findSearchTimesSince(any(), anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            Pageable limit = invocation.getArgument(2);
+            return history.stream().filter(row -> (Long) row[0] > afterId).limit(limit.getPageSize()).toList();
+        });
+        DestinationNameIndex names = nameIndex(List.of(
+                destination(1L, "Mumbai", true),
+                destination(2L, "São Paulo", true),
+                destination(3L, "Lisbon", false)));
+        
+        TrendingTracker tracker = new TrendingTracker(names, searchHistoryRepository,
+                Duration.ofDays(7), Duration.ofHours(1), 50);
+        tracker.seed();
+        names.destroy();
+        
+        // 2500 rows in pages of 1000; the inactive destination is not replayed
+        verify(searchHistoryRepository, times(3)).findSearchTimesSince(any(), anyLong(), any());
+        assertEquals(List.of(1L, 2L), tracker.top(10));
+    }
+    
+    private static DestinationNameIndex nameIndex(List<Destination> destinations) {
+        DestinationRepository repository = mock(DestinationRepository.class);
+        when(repository.findAll()).thenReturn(destinations);
+        DestinationNameIndex index = new DestinationNameIndex(repository, List.of("Bombay=Mumbai"), Duration.ofMillis(10));
+        index.rebuild();
+        return index;
+    }
+    
+    private static Destination destination(Long id, String name, boolean active) {
+        return Destination.builder().id(id).name(name).city(name).active(active).build();
+    }
+}